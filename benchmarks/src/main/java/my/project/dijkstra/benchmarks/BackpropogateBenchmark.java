@@ -0,0 +1,69 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.project.dijkstra.DijkstraSearch;
+import my.project.dijkstra.Helper;
+import my.project.dijkstra.ImageOutput;
+
+/**
+ *
+ * Measures drawing the path that has been found and writing Path.png, either
+ * of the whole maze or of the region around the path.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackpropogateBenchmark {
+
+	@Param({ "maze1", "maze2", "maze3", "maze4", "maze5" })
+	public String maze;
+
+	@Param({ "SYNC", "REGION" })
+	public ImageOutput output;
+
+	private Helper helper;
+	private int[] prevNode;
+
+	@Setup(Level.Trial)
+	public void solve() throws IOException {
+
+		helper = Mazes.load(maze);
+		helper.placeNodes();
+		helper.setEntranceExit();
+		helper.setImageOutput(output);
+
+		DijkstraSearch search = new DijkstraSearch(helper.getGraph(), false);
+		search.run();
+
+		prevNode = search.getPrevNode();
+	}
+
+	@Benchmark
+	public Helper backpropogate() {
+
+		helper.backpropogate(prevNode);
+
+		return helper;
+	}
+}
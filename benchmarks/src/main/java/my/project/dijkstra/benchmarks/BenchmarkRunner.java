@@ -0,0 +1,29 @@
+package my.project.dijkstra.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ * Runs the benchmarks with the usual JMH command line, always adding the gc
+ * profiler so that every result comes with its allocation rate. Install the
+ * solver and build the benchmarks first, then run them from the benchmarks
+ * directory so the mazes are found one directory up:
+ *
+ * mvn install (in the project directory)
+ * mvn package (in the benchmarks directory)
+ * java -jar target/benchmarks.jar [JMH options, like -p maze=maze5 Search]
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+
+		new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build())
+				.run();
+	}
+}
@@ -0,0 +1,73 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.project.dijkstra.DeltaSteppingSearch;
+import my.project.dijkstra.Graph;
+import my.project.dijkstra.Helper;
+
+/**
+ *
+ * Measures delta-stepping through the graph of a maze with different deltas
+ * and with buckets split into different numbers of nodes to work on in
+ * parallel, to find the delta and the size of a piece that pay off on the
+ * machine at hand. A delta of 1 is Dijkstra's algorithm, and a chunk as big
+ * as the graph never works in parallel, so both make a baseline.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeltaSteppingBenchmark {
+
+	@Param({ "maze3", "maze4", "maze5" })
+	public String maze;
+
+	@Param({ "1", "32", "512", "2048", "8192" })
+	public int delta;
+
+	@Param({ "256", "2048", "2147483647" })
+	public int chunkSize;
+
+	private Graph graph;
+
+	@Setup(Level.Trial)
+	public void build() throws IOException {
+
+		Helper helper = Mazes.load(maze);
+		helper.placeNodes();
+		helper.setEntranceExit();
+
+		graph = helper.getGraph();
+	}
+
+	@Benchmark
+	public int search() {
+
+		DeltaSteppingSearch search = new DeltaSteppingSearch(graph, delta);
+
+		search.setChunkSize(chunkSize);
+		search.run();
+
+		return search.getPathLength();
+	}
+}
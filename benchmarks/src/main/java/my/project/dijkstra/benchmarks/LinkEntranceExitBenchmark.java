@@ -0,0 +1,58 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.project.dijkstra.Helper;
+import my.project.dijkstra.Node;
+
+/**
+ *
+ * Measures finding the entrance and exit of a maze and linking them to the
+ * nodes that have already been placed.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkEntranceExitBenchmark {
+
+	@Param({ "maze1", "maze2", "maze3", "maze4", "maze5" })
+	public String maze;
+
+	private Helper helper;
+
+	// linking again replaces the entrance and exit, so the nodes are only
+	// placed once
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+
+		helper = Mazes.load(maze);
+		helper.placeNodes();
+	}
+
+	@Benchmark
+	public ArrayList<ArrayList<Node>> setEntranceExit() {
+
+		return helper.setEntranceExit();
+	}
+}
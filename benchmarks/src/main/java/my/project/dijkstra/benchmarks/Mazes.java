@@ -0,0 +1,41 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+import my.project.dijkstra.Helper;
+
+/**
+ *
+ * Finds the bundled mazes for the benchmarks and keeps the solver from
+ * printing while it is being measured.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class Mazes {
+
+	/**
+	 *
+	 * Makes a helper for one of the bundled mazes and decodes its image, so
+	 * that decoding is never part of what is measured. The mazes are looked
+	 * for in the directory named by the maze.dir system property, the parent
+	 * directory by default.
+	 *
+	 * @param maze
+	 *            name of the maze without .png, like maze3.
+	 * @return helper holding the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	public static Helper load(String maze) throws IOException {
+
+		File file = new File(System.getProperty("maze.dir", ".."), maze + ".png");
+		Helper helper = new Helper(file.getPath());
+
+		helper.setConsole(Helper.QUIET);
+		helper.getGrid();
+
+		return helper;
+	}
+}
@@ -0,0 +1,59 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.project.dijkstra.Helper;
+
+/**
+ *
+ * Measures placing and linking the nodes of a maze whose image has already
+ * been decoded.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceNodesBenchmark {
+
+	@Param({ "maze1", "maze2", "maze3", "maze4", "maze5" })
+	public String maze;
+
+	@Param({ "false", "true" })
+	public boolean parallel;
+
+	private Helper helper;
+
+	// placing the nodes again starts over, so one helper does for every call
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+
+		helper = Mazes.load(maze);
+	}
+
+	@Benchmark
+	public Helper placeNodes() {
+
+		helper.placeNodes(parallel);
+
+		return helper;
+	}
+}
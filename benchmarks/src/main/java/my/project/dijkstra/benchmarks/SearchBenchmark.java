@@ -0,0 +1,92 @@
+package my.project.dijkstra.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.project.dijkstra.BidirectionalSearch;
+import my.project.dijkstra.DeltaSteppingSearch;
+import my.project.dijkstra.DijkstraSearch;
+import my.project.dijkstra.FrontierType;
+import my.project.dijkstra.Graph;
+import my.project.dijkstra.Helper;
+import my.project.dijkstra.Search;
+
+/**
+ *
+ * Measures looking for the path through the graph of a maze, including
+ * setting up the state of the search, with the nodes under consideration kept
+ * in either a binary heap or a bucket queue. Delta-stepping keeps no
+ * frontier, so it is measured with its default delta under either frontier,
+ * and with other deltas by DeltaSteppingBenchmark.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({ "maze1", "maze2", "maze3", "maze4", "maze5" })
+	public String maze;
+
+	@Param({ "dijkstra", "astar", "bidirectional", "delta" })
+	public String mode;
+
+	@Param({ "heap", "buckets" })
+	public String frontier;
+
+	private Graph graph;
+
+	@Setup(Level.Trial)
+	public void build() throws IOException {
+
+		Helper helper = Mazes.load(maze);
+		helper.placeNodes();
+		helper.setEntranceExit();
+
+		graph = helper.getGraph();
+	}
+
+	@Benchmark
+	public int search() {
+
+		FrontierType type = FrontierType.valueOf(frontier.toUpperCase());
+		Search search;
+
+		if (mode.equals("bidirectional")) {
+
+			search = new BidirectionalSearch(graph, type);
+		}
+
+		else if (mode.equals("delta")) {
+
+			search = new DeltaSteppingSearch(graph);
+		}
+
+		else {
+
+			search = new DijkstraSearch(graph, mode.equals("astar"), type);
+		}
+
+		search.run();
+
+		return search.getPathLength();
+	}
+}
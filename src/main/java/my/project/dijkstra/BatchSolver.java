@@ -0,0 +1,611 @@
+package my.project.dijkstra;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * Solves many mazes at once without asking anything. Every maze is solved on
+ * its own thread, but no more than a set number of mazes are being solved at
+ * the same time so that only that many mazes are ever in memory. Most of the
+ * time of a small maze goes into decoding and encoding PNG files, so virtual
+ * threads are used when the JVM has them (Java 21 and later), and a pool of
+ * as many threads as mazes solved at once otherwise.
+ *
+ * For every maze the path is written to the output directory as run-length
+ * text named after the maze, along with its images if any are asked for. A
+ * line for every maze goes into results.csv in the output directory, in the
+ * order the mazes were given, and a summary of the throughput is printed at
+ * the end. The messages of the helper of every maze would only be jumbled
+ * together, so every helper is given a console that prints nothing. Nothing
+ * else printing at the same time is held back. A maze that runs out of memory
+ * fails the whole batch, since the mazes solved alongside it may have been
+ * left short of memory too, and no new maze is started after it.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class BatchSolver {
+
+	private String mode;
+	private int delta;
+	private FrontierType frontier;
+	private boolean reduce;
+	private boolean precheck;
+	private boolean stream;
+	private ImageOutput imageOutput;
+	private SolverMetrics metrics;
+	private File outDirectory;
+	private int workers;
+
+	/**
+	 *
+	 * What came of solving one maze.
+	 */
+	private static class Result {
+
+		private File maze;
+		private String status = "solved";
+		private int numNodes = 0;
+		private int numEdges = 0;
+		private int pathLength = -1;
+		private int numExpanded = 0;
+		private double seconds;
+	}
+
+	/**
+	 *
+	 * Constructor for a batch of mazes all solved the same way.
+	 *
+	 * @param mode
+	 *            dijkstra, astar, bidirectional, delta or jps.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the searches keep their nodes in.
+	 * @param reduce
+	 *            whether dead ends are cut off and corners contracted before
+	 *            searching.
+	 * @param precheck
+	 *            whether to check that the exit can be reached before
+	 *            searching.
+	 * @param stream
+	 *            whether the graphs are built row by row without holding the
+	 *            mazes in memory.
+	 * @param imageOutput
+	 *            how the images of every maze are written.
+	 * @param metrics
+	 *            metrics every maze reports to, called from many threads at
+	 *            once.
+	 * @param outDirectory
+	 *            directory the paths, images and results are written to,
+	 *            made if it doesn't exist yet.
+	 * @param workers
+	 *            most mazes solved at the same time.
+	 * @throws IllegalArgumentException
+	 *             if the mazes can't be solved in the given mode.
+	 */
+	public BatchSolver(String mode, int delta, FrontierType frontier, boolean reduce, boolean precheck,
+			boolean stream, ImageOutput imageOutput, SolverMetrics metrics, File outDirectory, int workers) {
+
+		if (!mode.equals("dijkstra") && !mode.equals("astar") && !mode.equals("bidirectional")
+				&& !mode.equals("delta") && !mode.equals("jps")) {
+
+			throw new IllegalArgumentException("Unknown search mode- " + mode);
+		}
+
+		// jump point search needs the whole grid of the maze
+		if (stream && mode.equals("jps")) {
+
+			throw new IllegalArgumentException("Jump point search needs the whole maze, it can't be used with"
+					+ " --stream.");
+		}
+
+		this.mode = mode;
+		this.delta = delta;
+		this.frontier = frontier;
+		this.reduce = reduce;
+		this.precheck = precheck;
+		this.stream = stream;
+		this.imageOutput = imageOutput;
+		this.metrics = metrics;
+		this.outDirectory = outDirectory;
+		this.workers = Math.max(1, workers);
+	}
+
+	/**
+	 *
+	 * Finds the mazes to solve. A directory gives every .png file in it, and
+	 * anything else is taken as a glob matched against the files of the
+	 * directory it names, such as mazes/maze*.png.
+	 *
+	 * @param pattern
+	 *            directory or glob.
+	 * @return the mazes, sorted by name.
+	 * @throws IOException
+	 *             if the directory can't be listed.
+	 */
+	public static List<File> findMazes(String pattern) throws IOException {
+
+		File directory = new File(pattern);
+		String glob = "*.png";
+
+		if (!directory.isDirectory()) {
+
+			directory = directory.getAbsoluteFile().getParentFile();
+			glob = new File(pattern).getName();
+		}
+
+		List<File> mazes = new ArrayList<File>();
+
+		try (DirectoryStream<java.nio.file.Path> files = Files.newDirectoryStream(directory.toPath(), glob)) {
+
+			for (java.nio.file.Path file : files) {
+
+				if (Files.isRegularFile(file)) {
+
+					mazes.add(file.toFile());
+				}
+			}
+		}
+
+		Collections.sort(mazes);
+
+		return mazes;
+	}
+
+	/**
+	 *
+	 * Solves every maze, writes the results and prints the summary.
+	 *
+	 * @param mazes
+	 *            PNG files of the mazes.
+	 * @throws IOException
+	 *             if the output directory or results.csv can't be written.
+	 */
+	public void run(List<File> mazes) throws IOException {
+
+		if (!outDirectory.isDirectory() && !outDirectory.mkdirs()) {
+
+			throw new IOException("Couldn't make directory " + outDirectory);
+		}
+
+		ExecutorService executor = newExecutor(workers);
+		Semaphore running = new Semaphore(workers);
+		List<Future<Result>> futures = new ArrayList<Future<Result>>();
+		List<Result> results = new ArrayList<Result>();
+		AtomicBoolean outOfMemory = new AtomicBoolean();
+
+		System.out.println("Solving " + mazes.size() + " mazes, " + workers + " at a time...");
+		long startTime = System.nanoTime();
+
+		try {
+
+			for (File maze : mazes) {
+
+				futures.add(executor.submit(() -> {
+
+					running.acquire();
+
+					try {
+
+						// the batch is failing, so no more mazes are loaded
+						if (outOfMemory.get()) {
+
+							return null;
+						}
+
+						Result result = solve(maze);
+
+						System.out.println(maze.getName() + "- " + result.status
+								+ (result.pathLength >= 0 ? ", " + result.pathLength + " pixels" : ""));
+
+						return result;
+					} catch (OutOfMemoryError e) {
+
+						outOfMemory.set(true);
+						throw e;
+					} finally {
+
+						running.release();
+					}
+				}));
+			}
+
+			for (int i = 0; i < futures.size(); i++) {
+
+				try {
+
+					Result result = futures.get(i).get();
+
+					if (result != null) {
+
+						results.add(result);
+					}
+				} catch (ExecutionException e) {
+
+					if (e.getCause() instanceof OutOfMemoryError) {
+
+						throw new IOException("Ran out of memory solving " + mazes.get(i).getName() + " with "
+								+ workers + " mazes at a time, try fewer --workers");
+					}
+
+					throw new IOException(e.getCause());
+				} catch (InterruptedException e) {
+
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while solving");
+				}
+			}
+		} finally {
+
+			executor.shutdownNow();
+		}
+
+		double seconds = (double) (System.nanoTime() - startTime) / 1000000000;
+
+		writeResults(results);
+		printSummary(results, seconds);
+	}
+
+	/**
+	 *
+	 * Solves one maze and writes its path and images. Anything that goes
+	 * wrong is kept in the result instead of stopping the batch, except
+	 * running out of memory.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return what came of it.
+	 */
+	private Result solve(File maze) {
+
+		Result result = new Result();
+		String name = baseName(maze);
+		long startTime = System.nanoTime();
+
+		result.maze = maze;
+
+		try {
+
+			Path path = stream ? solveStreamed(maze, result) : solveInMemory(maze, name, result);
+
+			if (path == null) {
+
+				result.status = "no path";
+			}
+
+			else {
+
+				PathWriter.writeRunLength(path, new File(outDirectory, name + ".txt"));
+			}
+		} catch (IOException | RuntimeException e) {
+
+			result.status = "failed (" + e + ")";
+		}
+
+		result.seconds = (double) (System.nanoTime() - startTime) / 1000000000;
+
+		return result;
+	}
+
+	/**
+	 *
+	 * Solves a maze held in memory by a Helper.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @param name
+	 *            name the images are written under.
+	 * @param result
+	 *            result to fill in.
+	 * @return the path, or null if there is none.
+	 * @throws IOException
+	 *             if the maze can't be read or has no entrance and exit.
+	 */
+	private Path solveInMemory(File maze, String name, Result result) throws IOException {
+
+		Helper helper = new Helper(maze.getPath());
+
+		helper.setImageOutput(imageOutput);
+		helper.setMetrics(metrics);
+
+		// the helper's own messages would only get in the way of the progress
+		helper.setConsole(Helper.QUIET);
+		helper.setImageFiles(new File(outDirectory, name + "-nodes.png"),
+				new File(outDirectory, name + "-path.png"));
+
+		try {
+
+			// jump point search works on the grid itself, without placing nodes
+			if (mode.equals("jps")) {
+
+				ArrayList<Node> entranceExit = helper.findEntranceExit();
+
+				if (entranceExit.size() < 2) {
+
+					throw new IOException("Maze has no entrance and exit.");
+				}
+
+				JumpPointSearch search = new JumpPointSearch(helper.getGrid(), helper.getCols(),
+						entranceExit.get(0), entranceExit.get(1));
+
+				SolverMetrics.Phase phase = metrics.startPhase("search");
+
+				boolean foundPath = search.run();
+
+				phase.end();
+				metrics.searchFinished(mode, search.getNumPushes(), search.getNumPops(), search.getNumJumps(),
+						search.getMaxHeapSize());
+
+				result.numExpanded = search.getNumExpanded();
+
+				if (!foundPath) {
+
+					return null;
+				}
+
+				result.pathLength = search.getPathLength();
+				helper.backpropogate(search.getPathRows(), search.getPathCols());
+
+				return Path.fromExitBack(search.getPathRows(), search.getPathCols());
+			}
+
+			helper.placeNodes();
+
+			if (helper.setEntranceExit().size() < 2) {
+
+				throw new IOException("Maze has no entrance and exit.");
+			}
+
+			Graph graph = helper.getGraph();
+
+			helper.printNodes();
+
+			Path path = search(graph, result);
+
+			if (path == null) {
+
+				return null;
+			}
+
+			helper.backpropogate(path.getRowsFromExit(), path.getColsFromExit());
+
+			return path;
+		} finally {
+
+			// images written in the background still have to be finished
+			helper.finishPrinting();
+		}
+	}
+
+	/**
+	 *
+	 * Solves a maze whose graph is built row by row into a temporary
+	 * directory. No images are made.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @param result
+	 *            result to fill in.
+	 * @return the path, or null if there is none.
+	 * @throws IOException
+	 *             if the maze can't be read or the graph can't be written.
+	 */
+	private Path solveStreamed(File maze, Result result) throws IOException {
+
+		File directory = Files.createTempDirectory("dijkstra").toFile();
+		GraphCache cache = new GraphCache(directory);
+		String hash = GraphCache.hash(maze);
+		Graph graph;
+
+		try {
+
+			SolverMetrics.Phase phase = metrics.startPhase("streamGraph");
+
+			StreamingGraphBuilder builder = new StreamingGraphBuilder(cache);
+
+			builder.build(maze, hash);
+			graph = cache.map(hash);
+
+			phase.end();
+
+			if (builder.isReadWhole()) {
+
+				System.out.println(maze.getName() + " is interlaced or has 16 bit samples, so it was decoded whole"
+						+ " and --stream saved no memory while building its graph.");
+			}
+		} finally {
+
+			GraphCache.deleteMapped(cache.getFile(hash), directory);
+		}
+
+		if (graph == null) {
+
+			throw new IOException("Couldn't load the graph of " + maze);
+		}
+
+		metrics.graphBuilt(graph.getNumNodes(), graph.getNumEdges() / 2);
+
+		return search(graph, result);
+	}
+
+	/**
+	 *
+	 * Searches the graph of a maze, after reducing it and checking that the
+	 * exit can be reached if the batch was asked to.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param result
+	 *            result to fill in.
+	 * @return the path if one was found, null otherwise.
+	 */
+	private Path search(Graph graph, Result result) {
+
+		result.numNodes = graph.getNumNodes();
+		result.numEdges = graph.getNumEdges() / 2;
+
+		ContractedGraph contracted = null;
+
+		if (reduce) {
+
+			SolverMetrics.Phase phase = metrics.startPhase("reduceGraph");
+
+			contracted = new ContractedGraph(graph);
+			graph = contracted.getGraph();
+
+			phase.end();
+		}
+
+		if (precheck) {
+
+			SolverMetrics.Phase phase = metrics.startPhase("labelComponents");
+
+			boolean connected = new Components(graph).connected(Endpoint.ofNode(graph, graph.getEntrance()),
+					Endpoint.ofNode(graph, graph.getExit()));
+
+			phase.end();
+
+			if (!connected) {
+
+				return null;
+			}
+		}
+
+		Search search = Dijkstra.newSearch(mode, graph, delta, frontier);
+		SolverMetrics.Phase phase = metrics.startPhase("search");
+
+		boolean foundPath = search.run();
+
+		phase.end();
+		metrics.searchFinished(mode, search.getNumPushes(), search.getNumPops(), search.getNumRelaxations(),
+				search.getMaxFrontier());
+
+		result.numExpanded = search.getNumExpanded();
+
+		if (!foundPath) {
+
+			return null;
+		}
+
+		result.pathLength = search.getPathLength();
+
+		return contracted != null ? contracted.expandPath(search.getPrevNode()) : search.getPath();
+	}
+
+	/**
+	 *
+	 * Writes a line for every maze to results.csv.
+	 *
+	 * @param results
+	 *            results in the order the mazes were given.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	private void writeResults(List<Result> results) throws IOException {
+
+		try (Writer out = new BufferedWriter(new FileWriter(new File(outDirectory, "results.csv")))) {
+
+			out.write("maze,status,nodes,corridors,length,expanded,seconds\n");
+
+			for (Result result : results) {
+
+				out.write(result.maze.getName() + ",\"" + result.status.replace("\"", "\"\"") + "\","
+						+ result.numNodes + "," + result.numEdges + "," + result.pathLength + ","
+						+ result.numExpanded + "," + result.seconds + "\n");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Prints how many mazes were solved and how quickly.
+	 *
+	 * @param results
+	 *            results of every maze.
+	 * @param seconds
+	 *            time the whole batch took.
+	 */
+	private void printSummary(List<Result> results, double seconds) {
+
+		int solved = 0;
+		int noPath = 0;
+		long numNodes = 0;
+		long numBytes = 0;
+
+		for (Result result : results) {
+
+			if (result.pathLength >= 0) {
+
+				solved++;
+			}
+
+			else if (result.status.equals("no path")) {
+
+				noPath++;
+			}
+
+			numNodes += result.numNodes;
+			numBytes += result.maze.length();
+		}
+
+		System.out.println("\n" + solved + " solved, " + noPath + " with no path, "
+				+ (results.size() - solved - noPath) + " failed (" + seconds + " seconds)");
+		System.out.println("Mazes per second- " + results.size() / seconds);
+		System.out.println("Nodes per second- " + numNodes / seconds);
+		System.out.println("Maze MB per second- " + numBytes / 1048576.0 / seconds);
+		System.out.println("Results have been written to " + new File(outDirectory, "results.csv") + "\n");
+	}
+
+	/**
+	 *
+	 * Makes the executor the mazes are solved on, with a virtual thread for
+	 * every maze if the JVM has them. They are looked up by reflection since
+	 * the solver is built for older versions of Java too.
+	 *
+	 * @param workers
+	 *            number of threads when there are no virtual threads.
+	 * @return the executor.
+	 */
+	private static ExecutorService newExecutor(int workers) {
+
+		try {
+
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+
+			return Executors.newFixedThreadPool(workers);
+		}
+	}
+
+	/**
+	 *
+	 * Returns the name of a file without its extension.
+	 *
+	 * @param file
+	 *            the file.
+	 * @return name of the file up to its last dot.
+	 */
+	private static String baseName(File file) {
+
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+
+		return dot > 0 ? name.substring(0, dot) : name;
+	}
+}
@@ -0,0 +1,306 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Dijkstra's algorithm run from the entrance and from the exit at the same
+ * time. Every corridor can be walked both ways, so the search from the exit
+ * uses the same graph. The searches stop once the smallest distances left on
+ * both heaps add up to at least the shortest path seen where they met, since
+ * no path through an unfinished node can be any shorter.
+ *
+ * Like DijkstraSearch, it only reads the graph and keeps what it writes in
+ * two SearchStates, one for each direction.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class BidirectionalSearch implements Search {
+
+	// used for nodes a search hasn't reached yet
+	private static final int UNREACHED = Integer.MAX_VALUE;
+
+	private Graph graph;
+
+	// pixels the path goes between
+	private Endpoint from;
+	private Endpoint to;
+
+	// distances, previous nodes and heaps of the search from the entrance and
+	// the search from the exit
+	private SearchState forward;
+	private SearchState backward;
+
+	// shortest path seen so far, and the corridor where the searches met on it,
+	// or the node if they met on one, with meetForward -1 if the path goes
+	// straight between the pixels
+	private int bestLength = UNREACHED;
+	private int meetForward = -1;
+	private int meetBackward = -1;
+
+	private int numExpanded = 0;
+	private int numRelaxations = 0;
+	private int maxFrontier = 0;
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph,
+	 * with states of its own.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 */
+	public BidirectionalSearch(Graph graph) {
+
+		this(graph, FrontierType.HEAP);
+	}
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph,
+	 * with states of its own that keep their frontiers in the given way.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param frontier
+	 *            kind of frontier to use.
+	 */
+	public BidirectionalSearch(Graph graph, FrontierType frontier) {
+
+		this(graph, Endpoint.ofNode(graph, graph.getEntrance()), Endpoint.ofNode(graph, graph.getExit()),
+				new SearchState(graph, frontier), new SearchState(graph, frontier));
+	}
+
+	/**
+	 *
+	 * Constructor for a search between any two pixels of a maze.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param from
+	 *            pixel the path starts at.
+	 * @param to
+	 *            pixel the path ends at.
+	 * @param forward
+	 *            state for the search from the start, see DijkstraSearch.
+	 * @param backward
+	 *            state for the search from the end.
+	 */
+	public BidirectionalSearch(Graph graph, Endpoint from, Endpoint to, SearchState forward,
+			SearchState backward) {
+
+		this.graph = graph;
+		this.from = from;
+		this.to = to;
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	public boolean run() {
+
+		forward.reset();
+		backward.reset();
+
+		Frontier forwardHeap = forward.getFrontier();
+		Frontier backwardHeap = backward.getFrontier();
+
+		meetForward = -1;
+		meetBackward = -1;
+		numExpanded = 0;
+		numRelaxations = 0;
+		maxFrontier = 0;
+
+		// the path may not need the graph at all
+		bestLength = from.corridorDistance(to);
+
+		if (bestLength == -1) {
+
+			bestLength = UNREACHED;
+		}
+
+		for (int i = 0; i < from.getNumNodes(); i++) {
+
+			forward.reach(from.getNode(i), from.getDistance(i), -1);
+			forwardHeap.add(from.getNode(i), from.getDistance(i));
+		}
+
+		for (int i = 0; i < to.getNumNodes(); i++) {
+
+			int end = to.getNode(i);
+
+			backward.reach(end, to.getDistance(i), -1);
+			backwardHeap.add(end, to.getDistance(i));
+
+			// the two searches start on the same node
+			if (forward.isReached(end) && forward.getDistance(end) + to.getDistance(i) < bestLength) {
+
+				bestLength = forward.getDistance(end) + to.getDistance(i);
+				meetForward = -1;
+				meetBackward = end;
+			}
+		}
+
+		while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+
+			maxFrontier = Math.max(maxFrontier, forwardHeap.size() + backwardHeap.size());
+
+			// no unfinished node can lie on a shorter path than the best one
+			if ((long) forwardHeap.peekKey() + backwardHeap.peekKey() >= bestLength) {
+
+				break;
+			}
+
+			// grows whichever search has the closer frontier
+			if (forwardHeap.peekKey() <= backwardHeap.peekKey()) {
+
+				expand(forward, backward, true);
+			}
+
+			else {
+
+				expand(backward, forward, false);
+			}
+		}
+
+		return bestLength != UNREACHED;
+	}
+
+	/**
+	 *
+	 * Takes the closest node off one of the heaps and updates the nodes it has
+	 * corridors to. Whenever a corridor leads to a node the other search has
+	 * reached, checks if the path through it is the shortest one so far.
+	 *
+	 * @param state
+	 *            state of the search being grown.
+	 * @param other
+	 *            state of the other search.
+	 * @param isForward
+	 *            whether this is the search from the entrance.
+	 */
+	private void expand(SearchState state, SearchState other, boolean isForward) {
+
+		Frontier heap = state.getFrontier();
+		int topNode = heap.poll();
+		int child;
+		int newDistance;
+
+		state.finish(topNode);
+		numExpanded++;
+
+		for (int e = graph.getFirstEdge(topNode); e < graph.getLastEdge(topNode); e++) {
+
+			child = graph.getTarget(e);
+			newDistance = state.getDistance(topNode) + graph.getWeight(e);
+			numRelaxations++;
+
+			// the two searches meet on this corridor
+			if (other.isReached(child) && newDistance + other.getDistance(child) < bestLength) {
+
+				bestLength = newDistance + other.getDistance(child);
+				meetForward = isForward ? topNode : child;
+				meetBackward = isForward ? child : topNode;
+			}
+
+			if (state.isFinished(child)) {
+
+				continue;
+			}
+
+			// first time this node is reached, adds it to the heap
+			if (!state.isReached(child)) {
+
+				state.reach(child, newDistance, topNode);
+				heap.add(child, newDistance);
+			}
+
+			// found a shorter way to a node already in the heap
+			else if (newDistance < state.getDistance(child)) {
+
+				state.reach(child, newDistance, topNode);
+				heap.decreaseKey(child, newDistance);
+			}
+		}
+	}
+
+	public int getPathLength() {
+
+		return bestLength;
+	}
+
+	/**
+	 *
+	 * Joins the two halves of the path where the searches met. The half from
+	 * the entrance is used as it is, and the half to the exit is turned around
+	 * so that every node on it points back towards the entrance.
+	 *
+	 * @return index of the previous node of every node on the path.
+	 */
+	public int[] getPrevNode() {
+
+		int[] prevNode = forward.getPrevNode().clone();
+
+		turnBackwardHalf(prevNode);
+
+		return prevNode;
+	}
+
+	/**
+	 *
+	 * Points every node of the half of the path from the exit back towards the
+	 * entrance.
+	 *
+	 * @param prevNode
+	 *            previous nodes of the search from the entrance, changed in
+	 *            place.
+	 * @return the node the path reaches the end from, -1 if the path doesn't
+	 *         go through the graph.
+	 */
+	private int turnBackwardHalf(int[] prevNode) {
+
+		int curr = meetBackward;
+		int prev = meetForward;
+		int next;
+
+		while (curr != -1) {
+
+			next = backward.getPrevNode()[curr];
+			prevNode[curr] = prev;
+			prev = curr;
+			curr = next;
+		}
+
+		return prev;
+	}
+
+	public Path getPath() {
+
+		int[] prevNode = forward.getPrevNode().clone();
+
+		return Path.fromPrevNode(graph, prevNode, turnBackwardHalf(prevNode), from, to);
+	}
+
+	public int getNumExpanded() {
+
+		return numExpanded;
+	}
+
+	public int getNumPushes() {
+
+		return forward.getFrontier().getNumPushes() + backward.getFrontier().getNumPushes();
+	}
+
+	public int getNumPops() {
+
+		return forward.getFrontier().getNumPolls() + backward.getFrontier().getNumPolls();
+	}
+
+	public int getNumRelaxations() {
+
+		return numRelaxations;
+	}
+
+	public int getMaxFrontier() {
+
+		return maxFrontier;
+	}
+}
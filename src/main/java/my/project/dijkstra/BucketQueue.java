@@ -0,0 +1,304 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Dial's bucket queue of node ids ordered by an integer key. There is a
+ * bucket for every key, kept in a circular array, and the nodes in a bucket
+ * are a doubly linked list threaded through arrays indexed by id. Adding a
+ * node or lowering its key is O(1), and taking off the smallest node only
+ * has to walk forward over empty buckets to the next key in use.
+ *
+ * This pays off for the searches of a maze, since every corridor is short:
+ * a key added is never more than twice the longest corridor past the key
+ * last taken off, even with the A* estimate added to it. The keys that can be
+ * on the queue at once always fit in the circular array, which doubles in
+ * size whenever a key would not, so any keys work, just not as quickly.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class BucketQueue implements Frontier {
+
+	// first node of the list of every bucket, -1 for an empty bucket
+	private int[] head;
+	private int mask;
+
+	// the nodes before and after every node in its bucket, -1 at either end
+	private int[] next;
+	private int[] prev;
+
+	// key[id] is the value the node with this id is ordered by
+	private int[] key;
+	private boolean[] onQueue;
+
+	// no key on the queue is smaller than cursor or larger than highest, and
+	// the keys in between all have buckets of their own
+	private int cursor = 0;
+	private int highest = 0;
+
+	private int size = 0;
+
+	// nodes added or moved up, nodes removed and the most nodes held at once
+	private int numPushes = 0;
+	private int numPolls = 0;
+	private int maxSize = 0;
+
+	/**
+	 *
+	 * Constructor for a queue that can hold the ids 0 to capacity - 1.
+	 *
+	 * @param capacity
+	 *            number of distinct ids that can be stored in the queue.
+	 * @param range
+	 *            largest expected difference between two keys on the queue at
+	 *            once, which sets how many buckets there are to begin with.
+	 */
+	public BucketQueue(int capacity, int range) {
+
+		head = new int[Integer.highestOneBit(Math.max(range, 1)) * 2];
+		mask = head.length - 1;
+		next = new int[capacity];
+		prev = new int[capacity];
+		key = new int[capacity];
+		onQueue = new boolean[capacity];
+
+		Arrays.fill(head, -1);
+	}
+
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	public int size() {
+
+		return size;
+	}
+
+	public int getNumPushes() {
+
+		return numPushes;
+	}
+
+	public int getNumPolls() {
+
+		return numPolls;
+	}
+
+	public int getMaxSize() {
+
+		return maxSize;
+	}
+
+	/**
+	 *
+	 * Removes every node and sets the counts back to 0, so the queue can be
+	 * used again. Costs as much as the nodes that were left in it plus the
+	 * number of buckets.
+	 */
+	public void clear() {
+
+		if (size > 0) {
+
+			for (int b = 0; b < head.length; b++) {
+
+				for (int id = head[b]; id != -1; id = next[id]) {
+
+					onQueue[id] = false;
+				}
+
+				head[b] = -1;
+			}
+		}
+
+		size = 0;
+		numPushes = 0;
+		numPolls = 0;
+		maxSize = 0;
+	}
+
+	public boolean contains(int id) {
+
+		return onQueue[id];
+	}
+
+	public void add(int id, int value) {
+
+		place(id, value);
+		numPushes++;
+		maxSize = Math.max(maxSize, size);
+	}
+
+	public void decreaseKey(int id, int value) {
+
+		unlink(id);
+		place(id, value);
+		numPushes++;
+	}
+
+	public int peek() {
+
+		skipEmptyBuckets();
+
+		return head[cursor & mask];
+	}
+
+	public int peekKey() {
+
+		skipEmptyBuckets();
+
+		// every bucket only holds one key, so the key of the first full bucket
+		// is the one the cursor is at
+		return cursor;
+	}
+
+	public int poll() {
+
+		skipEmptyBuckets();
+
+		int top = head[cursor & mask];
+
+		unlink(top);
+		numPolls++;
+
+		return top;
+	}
+
+	/**
+	 *
+	 * Puts a node into the bucket of its key, making room for the key first
+	 * if it is too far from the keys already on the queue.
+	 *
+	 * @param id
+	 *            id of the node, not on the queue.
+	 * @param value
+	 *            key the node is ordered by.
+	 */
+	private void place(int id, int value) {
+
+		// an empty queue can start over from any key
+		if (size == 0) {
+
+			cursor = value;
+			highest = value;
+		}
+
+		else if ((long) Math.max(highest, value) - Math.min(cursor, value) >= head.length) {
+
+			// the smallest key may be further on than the cursor
+			skipEmptyBuckets();
+
+			if ((long) Math.max(highest, value) - Math.min(cursor, value) >= head.length) {
+
+				grow((long) Math.max(highest, value) - Math.min(cursor, value) + 1);
+			}
+		}
+
+		cursor = Math.min(cursor, value);
+		highest = Math.max(highest, value);
+
+		int b = value & mask;
+
+		key[id] = value;
+		prev[id] = -1;
+		next[id] = head[b];
+
+		if (head[b] != -1) {
+
+			prev[head[b]] = id;
+		}
+
+		head[b] = id;
+		onQueue[id] = true;
+		size++;
+	}
+
+	/**
+	 *
+	 * Takes a node out of its bucket.
+	 *
+	 * @param id
+	 *            id of the node, on the queue.
+	 */
+	private void unlink(int id) {
+
+		if (prev[id] == -1) {
+
+			head[key[id] & mask] = next[id];
+		}
+
+		else {
+
+			next[prev[id]] = next[id];
+		}
+
+		if (next[id] != -1) {
+
+			prev[next[id]] = prev[id];
+		}
+
+		onQueue[id] = false;
+		size--;
+	}
+
+	/**
+	 *
+	 * Moves the cursor on to the smallest key on the queue, which must not be
+	 * empty.
+	 */
+	private void skipEmptyBuckets() {
+
+		while (head[cursor & mask] == -1) {
+
+			cursor++;
+		}
+	}
+
+	/**
+	 *
+	 * Makes the circular array big enough for a span of keys and puts every
+	 * node back into the bucket of its key.
+	 *
+	 * @param span
+	 *            number of keys that have to fit.
+	 */
+	private void grow(long span) {
+
+		int length = head.length;
+
+		while (length < span) {
+
+			length *= 2;
+		}
+
+		int[] oldHead = head;
+
+		head = new int[length];
+		mask = length - 1;
+		Arrays.fill(head, -1);
+
+		for (int b = 0; b < oldHead.length; b++) {
+
+			int id = oldHead[b];
+
+			while (id != -1) {
+
+				int following = next[id];
+				int nb = key[id] & mask;
+
+				prev[id] = -1;
+				next[id] = head[nb];
+
+				if (head[nb] != -1) {
+
+					prev[head[nb]] = id;
+				}
+
+				head[nb] = id;
+				id = following;
+			}
+		}
+	}
+}
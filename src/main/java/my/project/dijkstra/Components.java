@@ -0,0 +1,229 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Labels every node of a graph with the connected part of the maze it is in,
+ * so whether there is any path between two nodes is known in O(1) without
+ * searching. The labels are found with union-find over the corridors in one
+ * pass, using union by size and path halving, and then flattened so that a
+ * query only has to look up two labels.
+ *
+ * A search between nodes in different parts would go through every node of
+ * the part it starts in before giving up, so checking first answers "no
+ * path" straight away.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class Components {
+
+	// label[id] is the part of the maze node id is in, from 0 up
+	private int[] label;
+	private int numComponents = 0;
+
+	/**
+	 *
+	 * Constructor for the labels of the nodes of a graph.
+	 *
+	 * @param graph
+	 *            graph to label.
+	 */
+	public Components(Graph graph) {
+
+		int n = graph.getNumNodes();
+		int[] parent = new int[n];
+		int[] size = new int[n];
+
+		for (int i = 0; i < n; i++) {
+
+			parent[i] = i;
+			size[i] = 1;
+		}
+
+		// every corridor is stored both ways, so only one way is joined
+		for (int i = 0; i < n; i++) {
+
+			for (int e = graph.getFirstEdge(i); e < graph.getLastEdge(i); e++) {
+
+				int target = graph.getTarget(e);
+
+				if (target > i) {
+
+					union(parent, size, i, target);
+				}
+			}
+		}
+
+		label = new int[n];
+
+		for (int i = 0; i < n; i++) {
+
+			label[i] = -1;
+		}
+
+		// roots get the next free label, everything else the label of its root
+		for (int i = 0; i < n; i++) {
+
+			int root = find(parent, i);
+
+			if (label[root] == -1) {
+
+				label[root] = numComponents++;
+			}
+
+			label[i] = label[root];
+		}
+	}
+
+	/**
+	 *
+	 * Returns the root of the set a node is in, pointing every other node on
+	 * the way at its grandparent.
+	 *
+	 * @param parent
+	 *            parent of every node, changed in place.
+	 * @param id
+	 *            index of the node.
+	 * @return index of the root.
+	 */
+	private static int find(int[] parent, int id) {
+
+		while (parent[id] != id) {
+
+			parent[id] = parent[parent[id]];
+			id = parent[id];
+		}
+
+		return id;
+	}
+
+	/**
+	 *
+	 * Joins the sets two nodes are in, hanging the smaller one under the
+	 * larger one.
+	 *
+	 * @param parent
+	 *            parent of every node, changed in place.
+	 * @param size
+	 *            number of nodes under every root, changed in place.
+	 * @param a
+	 *            index of one node.
+	 * @param b
+	 *            index of the other node.
+	 */
+	private static void union(int[] parent, int[] size, int a, int b) {
+
+		a = find(parent, a);
+		b = find(parent, b);
+
+		if (a == b) {
+
+			return;
+		}
+
+		if (size[a] < size[b]) {
+
+			int swap = a;
+
+			a = b;
+			b = swap;
+		}
+
+		parent[b] = a;
+		size[a] += size[b];
+	}
+
+	/**
+	 *
+	 * Returns the label of the part of the maze a node is in.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return label of its part, from 0 up to getNumComponents() - 1.
+	 */
+	public int getLabel(int id) {
+
+		return label[id];
+	}
+
+	/**
+	 *
+	 * Returns how many parts the maze is in that can't be reached from one
+	 * another.
+	 *
+	 * @return number of parts.
+	 */
+	public int getNumComponents() {
+
+		return numComponents;
+	}
+
+	/**
+	 *
+	 * Returns if there is a path between two nodes.
+	 *
+	 * @param a
+	 *            index of one node.
+	 * @param b
+	 *            index of the other node.
+	 * @return true if both nodes are in the same part of the maze.
+	 */
+	public boolean connected(int a, int b) {
+
+		return label[a] == label[b];
+	}
+
+	/**
+	 *
+	 * Returns if there is a path between two pixels, either straight along
+	 * the corridor they share or through the nodes they are joined to.
+	 *
+	 * @param a
+	 *            one pixel.
+	 * @param b
+	 *            the other pixel.
+	 * @return true if a path between the pixels exists.
+	 */
+	public boolean connected(Endpoint a, Endpoint b) {
+
+		if (a.corridorDistance(b) != -1) {
+
+			return true;
+		}
+
+		// an endpoint standing for many nodes, such as every exit of a maze,
+		// is checked by the parts its nodes are in instead of pair by pair
+		if (a.getNumNodes() > 2 || b.getNumNodes() > 2) {
+
+			boolean[] inPart = new boolean[numComponents];
+
+			for (int i = 0; i < a.getNumNodes(); i++) {
+
+				inPart[label[a.getNode(i)]] = true;
+			}
+
+			for (int j = 0; j < b.getNumNodes(); j++) {
+
+				if (inPart[label[b.getNode(j)]]) {
+
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		for (int i = 0; i < a.getNumNodes(); i++) {
+
+			for (int j = 0; j < b.getNumNodes(); j++) {
+
+				if (connected(a.getNode(i), b.getNode(j))) {
+
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,37 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Prints every metric as soon as it is reported.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class ConsoleMetrics implements SolverMetrics {
+
+	public Phase startPhase(final String name) {
+
+		final long start = System.nanoTime();
+
+		return new Phase() {
+
+			public void end() {
+
+				double seconds = (double) (System.nanoTime() - start) / 1000000000;
+
+				System.out.println("Time spent on " + name + "- " + seconds + " seconds");
+			}
+		};
+	}
+
+	public void graphBuilt(int numNodes, int numEdges) {
+
+		System.out.println("Graph has " + numNodes + " nodes and " + numEdges + " corridors");
+	}
+
+	public void searchFinished(String search, int pushes, int pops, int relaxations, int maxFrontier) {
+
+		System.out.println("Frontier pushes- " + pushes + ", pops- " + pops + ", relaxations- " + relaxations
+				+ ", largest size- " + maxFrontier);
+	}
+}
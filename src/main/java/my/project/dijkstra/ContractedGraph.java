@@ -0,0 +1,467 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * A smaller graph of the same maze that any search finds the same shortest
+ * path through. It is made in two steps:
+ *
+ * 1. Dead ends are cut off. Every node with at most one corridor, other than
+ * the entrance and the exit, can't be on a path between them, so it is
+ * removed. Removing it can leave its neighbour with one corridor, so this
+ * goes on until every dead-end branch is gone.
+ *
+ * 2. Every chain of nodes with exactly two corridors, which are only corners
+ * of one long corridor, is replaced by a single corridor as long as the whole
+ * chain. The nodes of the chain are kept in order so that a path through the
+ * smaller graph can be expanded back into a path through the original one.
+ * Of two corridors between the same nodes only the shorter one is kept.
+ *
+ * In a perfect maze only the junctions on the way from the entrance to the
+ * exit are left, so the search has next to nothing to do.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class ContractedGraph {
+
+	private Graph original;
+	private Graph graph;
+
+	// node of the original graph every node of this one stands for
+	private int[] originalId;
+
+	// both ends of every corridor, the first one the smaller index, and where
+	// the original nodes it runs through start and end in chainNodes, in order
+	// from the first end to the second
+	private int[] corridorFrom = new int[16];
+	private int[] corridorTo = new int[16];
+	private int[] corridorWeight = new int[16];
+	private int[] chainStart = new int[16];
+	private int[] chainEnd = new int[16];
+	private int numCorridors = 0;
+
+	private int[] chainNodes = new int[16];
+	private int numChainNodes = 0;
+
+	// index of the corridor every edge of this graph runs along
+	private int[] edgeCorridor;
+
+	/**
+	 *
+	 * Constructor for the contracted graph of a maze graph.
+	 *
+	 * @param original
+	 *            graph with its entrance and exit set.
+	 */
+	public ContractedGraph(Graph original) {
+
+		this.original = original;
+
+		int n = original.getNumNodes();
+		int[] degree = new int[n];
+		boolean[] removed = new boolean[n];
+
+		for (int i = 0; i < n; i++) {
+
+			degree[i] = original.getLastEdge(i) - original.getFirstEdge(i);
+		}
+
+		pruneDeadEnds(degree, removed);
+
+		// junctions, dead ends that lead somewhere and the entrance and exit
+		// stay, corners are contracted
+		int[] reducedId = new int[n];
+		GraphBuilder builder = new GraphBuilder();
+
+		originalId = new int[n];
+
+		for (int i = 0; i < n; i++) {
+
+			reducedId[i] = -1;
+
+			if (!removed[i] && (degree[i] != 2 || i == original.getEntrance() || i == original.getExit())) {
+
+				reducedId[i] = builder.addNode(original.getRow(i), original.getCol(i));
+				originalId[reducedId[i]] = i;
+			}
+		}
+
+		originalId = Arrays.copyOf(originalId, builder.getNumNodes());
+
+		for (int i = 0; i < n; i++) {
+
+			if (reducedId[i] == -1) {
+
+				continue;
+			}
+
+			// every corridor of this node is recorded while its own corridors
+			// are walked, so only those have to be looked through for one to
+			// the same node
+			int firstOfNode = numCorridors;
+
+			for (int e = original.getFirstEdge(i); e < original.getLastEdge(i); e++) {
+
+				if (!removed[original.getTarget(e)]) {
+
+					followChain(i, e, reducedId, removed, firstOfNode);
+				}
+			}
+		}
+
+		for (int c = 0; c < numCorridors; c++) {
+
+			builder.addEdge(corridorFrom[c], corridorTo[c], corridorWeight[c]);
+		}
+
+		builder.setEntrance(reducedId[original.getEntrance()]);
+		builder.setExit(reducedId[original.getExit()]);
+
+		graph = builder.build();
+		edgeCorridor = new int[graph.getNumEdges()];
+
+		// there is at most one corridor between two nodes, so the edges of
+		// both its ends that lead to the other end are the corridor
+		for (int c = 0; c < numCorridors; c++) {
+
+			edgeCorridor[edgeBetween(corridorFrom[c], corridorTo[c])] = c;
+			edgeCorridor[edgeBetween(corridorTo[c], corridorFrom[c])] = c;
+		}
+	}
+
+	/**
+	 *
+	 * Removes nodes with at most one corridor left until there are none,
+	 * except for the entrance and the exit.
+	 *
+	 * @param degree
+	 *            number of corridors of every node, lowered as neighbours are
+	 *            removed.
+	 * @param removed
+	 *            set for every node that is removed.
+	 */
+	private void pruneDeadEnds(int[] degree, boolean[] removed) {
+
+		int n = original.getNumNodes();
+		int[] leaves = new int[n];
+		int numLeaves = 0;
+
+		for (int i = 0; i < n; i++) {
+
+			if (degree[i] <= 1 && !isEnd(i)) {
+
+				leaves[numLeaves++] = i;
+			}
+		}
+
+		// every node goes on the stack at most once, when its last but one
+		// corridor is removed or at the start
+		while (numLeaves > 0) {
+
+			int leaf = leaves[--numLeaves];
+
+			removed[leaf] = true;
+
+			for (int e = original.getFirstEdge(leaf); e < original.getLastEdge(leaf); e++) {
+
+				int neighbour = original.getTarget(e);
+
+				if (!removed[neighbour] && --degree[neighbour] == 1 && !isEnd(neighbour)) {
+
+					leaves[numLeaves++] = neighbour;
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Returns if a node is the entrance or the exit.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return true if the node is the entrance or the exit.
+	 */
+	private boolean isEnd(int id) {
+
+		return id == original.getEntrance() || id == original.getExit();
+	}
+
+	/**
+	 *
+	 * Walks from a node that stays along one of its corridors, through corners,
+	 * until it reaches another node that stays, and records the corridor
+	 * between them. Every corridor is walked from both of its ends, so it is
+	 * only recorded from the end with the smaller index.
+	 *
+	 * @param start
+	 *            original index of the node the walk starts at.
+	 * @param edge
+	 *            edge the walk leaves the node by.
+	 * @param reducedId
+	 *            index in this graph of every original node, -1 for corners
+	 *            and removed nodes.
+	 * @param removed
+	 *            which nodes have been removed.
+	 * @param firstOfStart
+	 *            first of the corridors recorded from the node the walk
+	 *            starts at.
+	 */
+	private void followChain(int start, int edge, int[] reducedId, boolean[] removed, int firstOfStart) {
+
+		int first = numChainNodes;
+		int prev = start;
+		int curr = original.getTarget(edge);
+		int weight = original.getWeight(edge);
+
+		while (reducedId[curr] == -1) {
+
+			addChainNode(curr);
+
+			// a corner has two corridors left, the walk goes on by the one
+			// it didn't come in by
+			boolean skippedBack = false;
+			int next = -1;
+
+			for (int e = original.getFirstEdge(curr); e < original.getLastEdge(curr); e++) {
+
+				int target = original.getTarget(e);
+
+				if (removed[target]) {
+
+					continue;
+				}
+
+				if (target == prev && !skippedBack) {
+
+					skippedBack = true;
+					continue;
+				}
+
+				next = target;
+				weight += original.getWeight(e);
+				break;
+			}
+
+			prev = curr;
+			curr = next;
+		}
+
+		int from = reducedId[start];
+		int to = reducedId[curr];
+
+		// a loop back to the same node is never on a shortest path
+		if (from >= to) {
+
+			numChainNodes = first;
+			return;
+		}
+
+		int known = -1;
+
+		for (int c = firstOfStart; c < numCorridors; c++) {
+
+			if (corridorTo[c] == to) {
+
+				known = c;
+				break;
+			}
+		}
+
+		if (known == -1) {
+
+			addCorridor(from, to, weight, first, numChainNodes);
+		}
+
+		else if (weight < corridorWeight[known]) {
+
+			corridorWeight[known] = weight;
+			chainStart[known] = first;
+			chainEnd[known] = numChainNodes;
+		}
+
+		else {
+
+			numChainNodes = first;
+		}
+	}
+
+	/**
+	 *
+	 * Adds an original node to the end of the chain being walked.
+	 *
+	 * @param id
+	 *            original index of the node.
+	 */
+	private void addChainNode(int id) {
+
+		if (numChainNodes == chainNodes.length) {
+
+			chainNodes = Arrays.copyOf(chainNodes, numChainNodes * 2);
+		}
+
+		chainNodes[numChainNodes++] = id;
+	}
+
+	/**
+	 *
+	 * Records a corridor of this graph.
+	 *
+	 * @param from
+	 *            end with the smaller index.
+	 * @param to
+	 *            end with the larger index.
+	 * @param weight
+	 *            length of the corridor.
+	 * @param start
+	 *            where its original nodes start in chainNodes.
+	 * @param end
+	 *            where its original nodes end in chainNodes.
+	 */
+	private void addCorridor(int from, int to, int weight, int start, int end) {
+
+		if (numCorridors == corridorFrom.length) {
+
+			corridorFrom = Arrays.copyOf(corridorFrom, numCorridors * 2);
+			corridorTo = Arrays.copyOf(corridorTo, numCorridors * 2);
+			corridorWeight = Arrays.copyOf(corridorWeight, numCorridors * 2);
+			chainStart = Arrays.copyOf(chainStart, numCorridors * 2);
+			chainEnd = Arrays.copyOf(chainEnd, numCorridors * 2);
+		}
+
+		corridorFrom[numCorridors] = from;
+		corridorTo[numCorridors] = to;
+		corridorWeight[numCorridors] = weight;
+		chainStart[numCorridors] = start;
+		chainEnd[numCorridors] = end;
+		numCorridors++;
+	}
+
+	/**
+	 *
+	 * Returns the edge of this graph from one node to another.
+	 *
+	 * @param from
+	 *            index of the node the edge leaves.
+	 * @param to
+	 *            index of the node the edge leads to.
+	 * @return index of the edge, or -1 if there is none.
+	 */
+	private int edgeBetween(int from, int to) {
+
+		for (int e = graph.getFirstEdge(from); e < graph.getLastEdge(from); e++) {
+
+			if (graph.getTarget(e) == to) {
+
+				return e;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 *
+	 * Returns the contracted graph, which is what should be searched.
+	 *
+	 * @return the contracted graph.
+	 */
+	public Graph getGraph() {
+
+		return graph;
+	}
+
+	/**
+	 *
+	 * Returns the graph this one was made from.
+	 *
+	 * @return the original graph.
+	 */
+	public Graph getOriginal() {
+
+		return original;
+	}
+
+	/**
+	 *
+	 * Returns the node of the original graph a node of this one stands for.
+	 *
+	 * @param id
+	 *            index of the node in this graph.
+	 * @return index of the node in the original graph.
+	 */
+	public int getOriginalId(int id) {
+
+		return originalId[id];
+	}
+
+	/**
+	 *
+	 * Turns the previous nodes of a path from the entrance to the exit of this
+	 * graph into previous nodes in the original graph, putting back the
+	 * corners of every corridor the path goes through.
+	 *
+	 * @param prevNode
+	 *            previous node of every node on the path in this graph, see
+	 *            Search.getPrevNode().
+	 * @return previous node of every node on the path in the original graph.
+	 */
+	public int[] expand(int[] prevNode) {
+
+		int[] expanded = new int[original.getNumNodes()];
+
+		for (int v = graph.getExit(); v != -1; v = prevNode[v]) {
+
+			int u = prevNode[v];
+			int curr = originalId[v];
+
+			if (u == -1) {
+
+				expanded[curr] = -1;
+				break;
+			}
+
+			int c = edgeCorridor[edgeBetween(v, u)];
+
+			// the corners are stored from the end with the smaller index, the
+			// walk back from v goes the other way round if v is that end
+			if (v == corridorTo[c]) {
+
+				for (int i = chainEnd[c] - 1; i >= chainStart[c]; i--) {
+
+					expanded[curr] = chainNodes[i];
+					curr = chainNodes[i];
+				}
+			}
+
+			else {
+
+				for (int i = chainStart[c]; i < chainEnd[c]; i++) {
+
+					expanded[curr] = chainNodes[i];
+					curr = chainNodes[i];
+				}
+			}
+
+			expanded[curr] = originalId[u];
+		}
+
+		return expanded;
+	}
+
+	/**
+	 *
+	 * Expands the path a search found through this graph into the path
+	 * through the original graph.
+	 *
+	 * @param prevNode
+	 *            previous node of every node on the path in this graph.
+	 * @return the path through the maze.
+	 */
+	public Path expandPath(int[] prevNode) {
+
+		return Path.fromPrevNode(original, expand(prevNode));
+	}
+}
@@ -0,0 +1,513 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ *
+ * Delta-stepping over the maze graph, which finds the same shortest path as
+ * DijkstraSearch but finishes many nodes at once so that the work can be
+ * spread over the fork-join common pool. Nodes are kept in buckets of delta
+ * distance each. All nodes in the lowest bucket are taken at once and their
+ * short corridors (at most delta long) are followed in parallel, which can
+ * put nodes back into the same bucket, until the bucket stays empty. Only
+ * then are the long corridors of the nodes finished in it followed, since
+ * those always lead to later buckets.
+ *
+ * Distances are lowered with compare-and-set, so threads never wait for each
+ * other while following corridors. The node the path to every node comes
+ * from isn't kept while searching; once the search is done the path is found
+ * by walking back from the end along corridors whose length makes up the
+ * difference in distance.
+ *
+ * A small delta does little work that has to be redone but finishes few nodes
+ * at a time, a large one the other way around. With delta 1 it is the same as
+ * Dijkstra's algorithm.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class DeltaSteppingSearch implements Search {
+
+	/**
+	 * Delta used unless another one is given. The buckets of a maze of
+	 * corridors stay small, and with a delta of 32 none of them ever got
+	 * bigger than a chunk in the bundled mazes, so nothing was done in
+	 * parallel. With this one close to half the nodes are taken out of
+	 * buckets big enough to split, and one thread takes no longer than with
+	 * 32.
+	 */
+	public static final int DEFAULT_DELTA = 2048;
+
+	// used for nodes the search hasn't reached yet
+	private static final int UNREACHED = Integer.MAX_VALUE;
+
+	/**
+	 * Number of nodes a bucket is split into pieces of unless another number
+	 * is given.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 2048;
+
+	private Graph graph;
+	private int delta;
+
+	// nodes of a bucket are split into pieces of this many to work on in
+	// parallel, and smaller buckets are worked on by one thread
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	// pixels the path goes between
+	private Endpoint from;
+	private Endpoint to;
+
+	// distance from every node to the start and the end, -1 if they aren't
+	// joined to it, or null to ask them, which is quicker for the two nodes a
+	// pixel is joined to at most
+	private int[] fromDistance;
+	private int[] toDistance;
+
+	private AtomicIntegerArray distance;
+	private int[] prevNode;
+
+	// nodes of every bucket, which may hold nodes that have since moved to a
+	// lower bucket or are in it more than once
+	private int[][] buckets;
+	private int[] bucketSize;
+
+	// the last time every node was taken out of a bucket
+	private int[] takenIn;
+	private int numTakes = 0;
+
+	private int pathLength = UNREACHED;
+	private int last = -1;
+
+	private int numExpanded = 0;
+	private int numPushes = 0;
+	private int numPops = 0;
+	private int numRelaxations = 0;
+	private int maxFrontier = 0;
+
+	/**
+	 *
+	 * A piece of a bucket and the nodes whose distance lowered while its
+	 * corridors were followed.
+	 */
+	private static class Chunk {
+
+		private int first;
+		private int last;
+		private int[] lowered = new int[64];
+		private int numLowered = 0;
+		private int numRelaxations = 0;
+
+		private Chunk(int first, int last) {
+
+			this.first = first;
+			this.last = last;
+		}
+	}
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph
+	 * with the default delta.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 */
+	public DeltaSteppingSearch(Graph graph) {
+
+		this(graph, DEFAULT_DELTA);
+	}
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param delta
+	 *            range of distances in every bucket, at least 1.
+	 */
+	public DeltaSteppingSearch(Graph graph, int delta) {
+
+		this(graph, delta, Endpoint.ofNode(graph, graph.getEntrance()), Endpoint.ofNode(graph, graph.getExit()));
+	}
+
+	/**
+	 *
+	 * Constructor for a search between any two pixels of a maze.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param delta
+	 *            range of distances in every bucket, at least 1.
+	 * @param from
+	 *            pixel the path starts at.
+	 * @param to
+	 *            pixel the path ends at.
+	 */
+	public DeltaSteppingSearch(Graph graph, int delta, Endpoint from, Endpoint to) {
+
+		this.graph = graph;
+		this.delta = Math.max(1, delta);
+		this.from = from;
+		this.to = to;
+
+		fromDistance = from.getNumNodes() > 2 ? from.distancesByNode(graph.getNumNodes()) : null;
+		toDistance = to.getNumNodes() > 2 ? to.distancesByNode(graph.getNumNodes()) : null;
+	}
+
+	/**
+	 *
+	 * Sets how many nodes of a bucket are worked on by one thread. A bucket
+	 * with no more nodes than that is worked on by this thread alone.
+	 *
+	 * @param chunkSize
+	 *            number of nodes, at least 1.
+	 */
+	public void setChunkSize(int chunkSize) {
+
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	public boolean run() {
+
+		int n = graph.getNumNodes();
+
+		distance = new AtomicIntegerArray(n);
+		takenIn = new int[n];
+		buckets = new int[16][];
+		bucketSize = new int[16];
+		prevNode = null;
+		last = -1;
+		numTakes = 0;
+		numExpanded = 0;
+		numPushes = 0;
+		numPops = 0;
+		numRelaxations = 0;
+		maxFrontier = 0;
+
+		for (int i = 0; i < n; i++) {
+
+			distance.set(i, UNREACHED);
+		}
+
+		// the path may not need the graph at all
+		pathLength = from.corridorDistance(to);
+
+		if (pathLength == -1) {
+
+			pathLength = UNREACHED;
+		}
+
+		for (int i = 0; i < from.getNumNodes(); i++) {
+
+			if (from.getDistance(i) < distance.get(from.getNode(i))) {
+
+				distance.set(from.getNode(i), from.getDistance(i));
+				push(from.getNode(i));
+			}
+		}
+
+		int[] finished = new int[16];
+		int numFinished;
+
+		for (int b = 0; b < bucketSize.length; b++) {
+
+			// nothing in this bucket or after it can lead to a shorter path
+			if ((long) b * delta >= pathLength) {
+
+				break;
+			}
+
+			numFinished = 0;
+
+			// follows short corridors until the bucket stays empty
+			while (bucketSize[b] > 0) {
+
+				int[] frontier = take(b);
+
+				maxFrontier = Math.max(maxFrontier, frontier.length);
+
+				if (numFinished + frontier.length > finished.length) {
+
+					finished = Arrays.copyOf(finished, Math.max(finished.length * 2, numFinished + frontier.length));
+				}
+
+				System.arraycopy(frontier, 0, finished, numFinished, frontier.length);
+				numFinished += frontier.length;
+
+				relax(frontier, frontier.length, true);
+			}
+
+			// the distances of the nodes in this bucket are now final
+			for (int i = 0; i < numFinished; i++) {
+
+				int toEnd = toDistance != null ? toDistance[finished[i]] : to.distanceTo(finished[i]);
+
+				if (toEnd != -1 && distance.get(finished[i]) + toEnd < pathLength) {
+
+					pathLength = distance.get(finished[i]) + toEnd;
+					last = finished[i];
+				}
+			}
+
+			relax(finished, numFinished, false);
+		}
+
+		if (pathLength != UNREACHED) {
+
+			findPrevNodes();
+		}
+
+		return pathLength != UNREACHED;
+	}
+
+	/**
+	 *
+	 * Empties a bucket and returns the nodes in it that still belong there,
+	 * each only once.
+	 *
+	 * @param b
+	 *            index of the bucket.
+	 * @return nodes taken out of the bucket.
+	 */
+	private int[] take(int b) {
+
+		int[] bucket = buckets[b];
+		int size = bucketSize[b];
+		int numTaken = 0;
+
+		bucketSize[b] = 0;
+		numTakes++;
+
+		for (int i = 0; i < size; i++) {
+
+			int id = bucket[i];
+
+			numPops++;
+
+			// moved to a lower bucket since, or already taken this time
+			if (distance.get(id) / delta != b || takenIn[id] == numTakes) {
+
+				continue;
+			}
+
+			takenIn[id] = numTakes;
+			bucket[numTaken++] = id;
+		}
+
+		numExpanded += numTaken;
+
+		return Arrays.copyOf(bucket, numTaken);
+	}
+
+	/**
+	 *
+	 * Puts a node into the bucket of its distance.
+	 *
+	 * @param id
+	 *            index of the node.
+	 */
+	private void push(int id) {
+
+		int b = distance.get(id) / delta;
+
+		if (b >= buckets.length) {
+
+			int length = Math.max(buckets.length * 2, b + 1);
+
+			buckets = Arrays.copyOf(buckets, length);
+			bucketSize = Arrays.copyOf(bucketSize, length);
+		}
+
+		if (buckets[b] == null) {
+
+			buckets[b] = new int[16];
+		}
+
+		else if (bucketSize[b] == buckets[b].length) {
+
+			buckets[b] = Arrays.copyOf(buckets[b], bucketSize[b] * 2);
+		}
+
+		buckets[b][bucketSize[b]++] = id;
+		numPushes++;
+	}
+
+	/**
+	 *
+	 * Follows either the short or the long corridors of some nodes, in
+	 * parallel if there are enough of them, and puts every node whose
+	 * distance was lowered into its new bucket.
+	 *
+	 * @param nodes
+	 *            nodes whose corridors are followed.
+	 * @param numNodes
+	 *            number of nodes.
+	 * @param light
+	 *            whether the corridors of at most delta are followed, or the
+	 *            longer ones.
+	 */
+	private void relax(int[] nodes, int numNodes, boolean light) {
+
+		Chunk[] chunks = new Chunk[(numNodes + chunkSize - 1) / chunkSize];
+
+		for (int c = 0; c < chunks.length; c++) {
+
+			chunks[c] = new Chunk(c * chunkSize, Math.min(numNodes, (c + 1) * chunkSize));
+		}
+
+		if (chunks.length > 1) {
+
+			Arrays.stream(chunks).parallel().forEach(chunk -> relax(nodes, chunk, light));
+		}
+
+		else {
+
+			Arrays.stream(chunks).forEach(chunk -> relax(nodes, chunk, light));
+		}
+
+		// the buckets are only ever changed by this thread
+		for (Chunk chunk : chunks) {
+
+			numRelaxations += chunk.numRelaxations;
+
+			for (int i = 0; i < chunk.numLowered; i++) {
+
+				push(chunk.lowered[i]);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Follows the short or long corridors of the nodes of a chunk, lowering
+	 * the distance of every node that can be reached quicker through them.
+	 *
+	 * @param nodes
+	 *            nodes the chunk is a piece of.
+	 * @param chunk
+	 *            the chunk.
+	 * @param light
+	 *            whether the corridors of at most delta are followed, or the
+	 *            longer ones.
+	 */
+	private void relax(int[] nodes, Chunk chunk, boolean light) {
+
+		for (int i = chunk.first; i < chunk.last; i++) {
+
+			int id = nodes[i];
+			int nodeDistance = distance.get(id);
+
+			for (int e = graph.getFirstEdge(id); e < graph.getLastEdge(id); e++) {
+
+				int weight = graph.getWeight(e);
+
+				if ((weight <= delta) != light) {
+
+					continue;
+				}
+
+				int child = graph.getTarget(e);
+				int newDistance = nodeDistance + weight;
+				int old = distance.get(child);
+
+				chunk.numRelaxations++;
+
+				// lowers the distance unless another thread lowers it further
+				while (newDistance < old) {
+
+					if (distance.compareAndSet(child, old, newDistance)) {
+
+						if (chunk.numLowered == chunk.lowered.length) {
+
+							chunk.lowered = Arrays.copyOf(chunk.lowered, chunk.numLowered * 2);
+						}
+
+						chunk.lowered[chunk.numLowered++] = child;
+						break;
+					}
+
+					old = distance.get(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Finds the node the path comes from for every node on the path, by
+	 * walking back from the node the end was reached from. The previous node
+	 * of a node is any node with a corridor to it that is exactly the
+	 * corridor's length closer to the start, and the walk ends at a node the
+	 * start is joined to.
+	 */
+	private void findPrevNodes() {
+
+		prevNode = new int[graph.getNumNodes()];
+
+		for (int id = last; id != -1; id = prevNode[id]) {
+
+			prevNode[id] = -1;
+
+			// the start is joined to this node, so the path can begin here
+			if ((fromDistance != null ? fromDistance[id] : from.distanceTo(id)) == distance.get(id)) {
+
+				break;
+			}
+
+			for (int e = graph.getFirstEdge(id); e < graph.getLastEdge(id); e++) {
+
+				int child = graph.getTarget(e);
+
+				if (distance.get(child) != UNREACHED
+						&& distance.get(child) + graph.getWeight(e) == distance.get(id)) {
+
+					prevNode[id] = child;
+					break;
+				}
+			}
+		}
+	}
+
+	public int getPathLength() {
+
+		return pathLength;
+	}
+
+	public int[] getPrevNode() {
+
+		return prevNode;
+	}
+
+	public Path getPath() {
+
+		return Path.fromPrevNode(graph, prevNode == null ? new int[0] : prevNode, last, from, to);
+	}
+
+	public int getNumExpanded() {
+
+		return numExpanded;
+	}
+
+	public int getNumPushes() {
+
+		return numPushes;
+	}
+
+	public int getNumPops() {
+
+		return numPops;
+	}
+
+	public int getNumRelaxations() {
+
+		return numRelaxations;
+	}
+
+	public int getMaxFrontier() {
+
+		return maxFrontier;
+	}
+}
@@ -1,8 +1,10 @@
 package my.project.dijkstra;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -19,23 +21,301 @@ public class Dijkstra {
 
 		Scanner keyboard = new Scanner(System.in);
 		String userInput;
+		String fileName = null;
+		boolean parallel = false;
+		boolean stream = false;
+		boolean reduce = false;
+		boolean precheck = false;
+		String mode = "dijkstra";
+		int delta = DeltaSteppingSearch.DEFAULT_DELTA;
+		FrontierType frontier = FrontierType.HEAP;
+		ImageOutput imageOutput = ImageOutput.SYNC;
+		boolean imageOutputSet = false;
+		File pathFile = null;
+		File distancesFile = null;
+		int[] entrances = null;
+		GraphCache cache = null;
+		SolverMetrics metrics = null;
+		String batch = null;
+		File outDirectory = new File("results");
+		int workers = Runtime.getRuntime().availableProcessors();
+		int port = -1;
+		int mazesKept = 4;
+
+		// half of the heap, leaving the rest for the searches themselves
+		long bytesKept = Runtime.getRuntime().maxMemory() / 2;
 
 		Helper helper = null;
+		File mazeFile = null;
+
+		// reads the options and maze filename given on the command line
+		for (int i = 0; i < args.length; i++) {
+
+			if (args[i].equals("--parallel")) {
+
+				parallel = true;
+			}
+
+			// builds the graph row by row without holding the maze in memory
+			else if (args[i].equals("--stream")) {
+
+				stream = true;
+			}
+
+			// cuts off dead ends and contracts corners before searching
+			else if (args[i].equals("--reduce")) {
+
+				reduce = true;
+			}
+
+			// checks that the exit can be reached at all before searching
+			else if (args[i].equals("--precheck")) {
+
+				precheck = true;
+			}
+
+			// keeps built graphs in a directory to skip building them next time
+			else if (args[i].equals("--cache")) {
+
+				cache = new GraphCache(new File(".dijkstra-cache"));
+			}
+
+			// dijkstra, astar, bidirectional, delta or jps
+			else if (args[i].equals("--mode") && i + 1 < args.length) {
+
+				mode = args[++i];
+			}
+
+			// range of distances in every bucket of delta-stepping
+			else if (args[i].equals("--delta") && i + 1 < args.length) {
+
+				delta = parsePositive(args[++i]);
+
+				if (delta == -1) {
+
+					System.out.println("Invalid delta- " + args[i] + ", it has to be a number above 0");
+					return;
+				}
+			}
+
+			// heap or buckets
+			else if (args[i].equals("--frontier") && i + 1 < args.length) {
+
+				try {
+
+					frontier = FrontierType.valueOf(args[++i].toUpperCase());
+				} catch (IllegalArgumentException e) {
+
+					System.out.println("Unknown frontier- " + args[i]);
+					return;
+				}
+			}
+
+			// writes the path as .svg, .txt run-length or binary
+			else if (args[i].equals("--path-out") && i + 1 < args.length) {
+
+				pathFile = new File(args[++i]);
+			}
+
+			// writes the distance from the entrance to every pixel as .png
+			// heatmap or binary instead of looking for the path
+			else if (args[i].equals("--distances") && i + 1 < args.length) {
+
+				distancesFile = new File(args[++i]);
+			}
+
+			// indexes of the openings in the border to start from, all the
+			// other openings are exits
+			else if (args[i].equals("--entrances") && i + 1 < args.length) {
+
+				try {
+
+					entrances = parseIndexes(args[++i]);
+				} catch (NumberFormatException e) {
+
+					System.out.println("Invalid entrances- " + args[i]);
+					return;
+				}
+			}
+
+			// none, sync, async or region
+			else if (args[i].equals("--images") && i + 1 < args.length) {
+
+				try {
+
+					imageOutput = ImageOutput.valueOf(args[++i].toUpperCase());
+					imageOutputSet = true;
+				} catch (IllegalArgumentException e) {
+
+					System.out.println("Unknown image output- " + args[i]);
+					return;
+				}
+			}
+
+			// none, console or jfr
+			else if (args[i].equals("--metrics") && i + 1 < args.length) {
+
+				metrics = newMetrics(args[++i]);
+
+				if (metrics == null) {
+
+					System.out.println("Unknown metrics- " + args[i]);
+					return;
+				}
+			}
+
+			// solves every maze in a directory or matching a glob
+			else if (args[i].equals("--batch") && i + 1 < args.length) {
+
+				batch = args[++i];
+			}
+
+			// where a batch writes its paths, images and results
+			else if (args[i].equals("--out") && i + 1 < args.length) {
+
+				outDirectory = new File(args[++i]);
+			}
+
+			// most mazes of a batch solved at the same time
+			else if (args[i].equals("--workers") && i + 1 < args.length) {
+
+				workers = parsePositive(args[++i]);
+
+				if (workers == -1) {
+
+					System.out.println("Invalid workers- " + args[i] + ", it has to be a number above 0");
+					return;
+				}
+			}
+
+			// answers queries on a local socket instead of solving one maze
+			else if (args[i].equals("--serve") && i + 1 < args.length) {
+
+				port = parsePositive(args[++i]);
+
+				if (port == -1 || port > 65535) {
+
+					System.out.println("Invalid port- " + args[i] + ", it has to be a number from 1 to 65535");
+					return;
+				}
+			}
+
+			// most mazes the server keeps loaded
+			else if (args[i].equals("--mazes") && i + 1 < args.length) {
+
+				mazesKept = parsePositive(args[++i]);
+
+				if (mazesKept == -1) {
+
+					System.out.println("Invalid mazes- " + args[i] + ", it has to be a number above 0");
+					return;
+				}
+			}
+
+			// most megabytes the mazes the server keeps loaded take together
+			else if (args[i].equals("--memory") && i + 1 < args.length) {
+
+				int megabytes = parsePositive(args[++i]);
+
+				if (megabytes == -1) {
+
+					System.out.println("Invalid memory- " + args[i] + ", it has to be a number of megabytes above 0");
+					return;
+				}
+
+				bytesKept = megabytes * 1048576L;
+			}
+
+			else {
+
+				fileName = args[i];
+			}
+		}
+
+		// a batch or server has no use for metrics printed in the middle of
+		// its own output
+		if (metrics == null) {
+
+			metrics = batch == null && port == -1 ? new ConsoleMetrics() : SolverMetrics.NONE;
+		}
+
+		if (port != -1) {
+
+			try {
+
+				new SolverServer(port, mode, metrics, mazesKept, bytesKept).serve();
+			} catch (IllegalArgumentException e) {
+
+				System.out.println(e.getMessage());
+			} catch (IOException e) {
+
+				System.out.println("Couldn't serve on port " + port + "- " + e.getMessage());
+			}
+
+			return;
+		}
+
+		if (batch != null) {
+
+			// a batch writes no images unless asked to
+			if (!imageOutputSet) {
+
+				imageOutput = ImageOutput.NONE;
+			}
+
+			// a batch only writes the path of every maze into its results
+			if (entrances != null || distancesFile != null || pathFile != null) {
+
+				System.out.println("Several entrances, distances and --path-out are for one maze, they can't be"
+						+ " used with --batch.");
+				return;
+			}
+
+			solveBatch(batch, mode, delta, frontier, reduce, precheck, stream, imageOutput, metrics, outDirectory,
+					workers);
+			return;
+		}
 
 		//creation of helper object
 		while (true) {
 
-			System.out.print("\nPlease type maze filename: ");
-			userInput = keyboard.nextLine();
+			// uses the filename from the command line the first time, if any
+			if (fileName != null) {
+
+				userInput = fileName;
+				fileName = null;
+			}
+
+			else {
+
+				System.out.print("\nPlease type maze filename: ");
+				userInput = keyboard.nextLine();
+			}
 
 			try {
 
-				helper = new Helper(userInput);
+				if (stream) {
+
+					mazeFile = existingFile(userInput);
+				}
+
+				else {
+
+					helper = new Helper(userInput);
+				}
 			} catch (IOException io1) {
 
 				try {
 
-					helper = new Helper(userInput + ".png");
+					if (stream) {
+
+						mazeFile = existingFile(userInput + ".png");
+					}
+
+					else {
+
+						helper = new Helper(userInput + ".png");
+					}
 				} catch (IOException io2) {
 
 					System.out.println("Invalid file name.");
@@ -46,109 +326,840 @@ public class Dijkstra {
 			break;
 		}
 
+		// only the entrance and exit are known without the whole maze, and
+		// jump point search only goes from one pixel to another
+		if (entrances != null && (stream || mode.equals("jps"))) {
+
+			System.out.println("Several entrances need the whole maze and a search of its graph, they can't be used"
+					+ " with --stream or jps.");
+			return;
+		}
+
+		// the maze is never loaded as a whole, only its graph
+		if (stream && distancesFile != null) {
+
+			System.out.println("The distances to every pixel need the whole maze, they can't be streamed.");
+			return;
+		}
+
 		// starts tracking execution time
-		long totalTime = System.nanoTime();
+		SolverMetrics.Phase solve = metrics.startPhase("solve");
+
+		if (stream) {
+
+			streamSearch(mazeFile, mode, delta, frontier, reduce, precheck, cache, pathFile, metrics);
+			solve.end();
+			return;
+		}
+
+		helper.setImageOutput(imageOutput);
+		helper.setMetrics(metrics);
+
+		// jump point search works on the grid itself, without placing nodes
+		if (mode.equals("jps")) {
+
+			jumpPointSearch(helper, pathFile, metrics);
+			helper.finishPrinting();
+			solve.end();
+			return;
+		}
+
+		// loads the graph built by an earlier run on the same maze, if any. The
+		// cache doesn't keep which nodes are the openings, so they are found
+		// again when there are several entrances
+		if (cache == null || entrances != null || !helper.loadGraph(cache)) {
 
-		// places nodes on the board
-		helper.placeNodes();
+			// places nodes on the board
+			helper.placeNodes(parallel);
 
-		// finds entrance and exit and returns them
-		ArrayList<Node> entranceExit = helper.setEntranceExit();
-		Node entrance = entranceExit.get(0);
-		Node exit = entranceExit.get(1);
+			// finds entrance and exit and links them to the rest of the nodes
+			if (helper.setEntranceExit().size() < 2) {
+
+				helper.finishPrinting();
+				solve.end();
+				return;
+			}
+
+			if (cache != null) {
+
+				helper.saveGraph(cache);
+			}
+		}
+
+		Graph graph = helper.getGraph();
 
 		// generates Nodes.png
 		helper.printNodes();
 
-		// this list is the list of nodes under consideration
-		LinkedList<Node> nodeList = new LinkedList<Node>();
+		// every node is finished and nothing is backpropagated
+		if (distancesFile != null) {
+
+			writeDistances(helper, graph, frontier, distancesFile, metrics);
+			helper.finishPrinting();
+			solve.end();
+			return;
+		}
+
+		// the openings picked on the command line, null for the entrance and
+		// exit
+		Endpoint[] ends = null;
+
+		if (entrances != null) {
+
+			ends = openingEnds(helper, entrances);
+
+			if (ends == null) {
+
+				helper.finishPrinting();
+				solve.end();
+				return;
+			}
+
+			// cutting off dead ends would cut off every opening other than the
+			// entrance and exit
+			if (reduce) {
+
+				System.out.println("The graph isn't reduced when there are several entrances.\n");
+				reduce = false;
+			}
+		}
+
+		ContractedGraph contracted = reduce ? contract(graph, metrics) : null;
+
+		// no search is needed if the exit can't be reached at all
+		if (precheck && !(ends != null ? reachable(graph, ends[0], ends[1], metrics)
+				: reachable(contracted != null ? contracted.getGraph() : graph, metrics))) {
+
+			helper.finishPrinting();
+			solve.end();
+			return;
+		}
+
+		// picks how the path will be looked for, from every entrance at once if
+		// there are several
+		Search search = ends != null ? newSearch(mode, graph, delta, frontier, ends[0], ends[1])
+				: newSearch(mode, contracted != null ? contracted.getGraph() : graph, delta, frontier);
+
+		if (search == null) {
+
+			System.out.println("Unknown search mode- " + mode);
+			helper.finishPrinting();
+			solve.end();
+			return;
+		}
+
+		if (!runSearch(search, mode, metrics)) {
+
+			helper.finishPrinting();
+			solve.end();
+			return;
+		}
+
+		Path path = contracted != null ? contracted.expandPath(search.getPrevNode()) : search.getPath();
+
+		// the path starts on the entrance it came from and ends on the exit it
+		// reached
+		if (ends != null) {
+
+			System.out.println("Closest pair- entrance (" + path.getRow(0) + ", " + path.getCol(0) + "), exit ("
+					+ path.getRow(path.getNumPoints() - 1) + ", " + path.getCol(path.getNumPoints() - 1) + ")\n");
+		}
+
+		writePath(path, pathFile);
+
+		// backpropogation up through path stack
+		helper.backpropogate(path.getRowsFromExit(), path.getColsFromExit());
+
+		// images written in the background still have to be finished
+		helper.finishPrinting();
+		solve.end();
+
+	}
+
+	/**
+	 * 
+	 * Solves the maze with Jump Point Search on the grid of walls, skipping
+	 * the graph of nodes altogether.
+	 * 
+	 * @param helper
+	 *            helper object holding the maze.
+	 * @param pathFile
+	 *            file to write the path to, or null to not write it.
+	 * @param metrics
+	 *            metrics to report to.
+	 */
+	private static void jumpPointSearch(Helper helper, File pathFile, SolverMetrics metrics) {
+
+		ArrayList<Node> entranceExit = helper.findEntranceExit();
+
+		if (entranceExit.size() < 2) {
+
+			return;
+		}
+
+		JumpPointSearch search = new JumpPointSearch(helper.getGrid(), helper.getCols(), entranceExit.get(0),
+				entranceExit.get(1));
+
+		System.out.println("\nLooking for path...");
+		SolverMetrics.Phase phase = metrics.startPhase("search");
 
-		// list of available nodes from the current node under consideration
-		List<Node> possibleNodesFromTopNode = null;
+		boolean foundPath = search.run();
 
-		// sets proper information for the start node and adds it to the list of
-		// nodes under consideration
-		entrance.setVisited();
-		entrance.setDistance(0);
-		nodeList.add(entrance);
+		phase.end();
 
-		Node topNode = null;
+		// jump points are pushed and popped, and every jump is a step looked at
+		metrics.searchFinished("jps", search.getNumPushes(), search.getNumPops(), search.getNumJumps(),
+				search.getMaxHeapSize());
+
+		if (!foundPath) {
+
+			System.out.println("No path through the maze could be found.");
+			return;
+		}
+
+		System.out.println("Path has been found");
+		System.out.println("Length of the path- " + search.getPathLength() + " pixels");
+		System.out.println("Jump points expanded- " + search.getNumExpanded() + "\n");
+
+		writePath(Path.fromExitBack(search.getPathRows(), search.getPathCols()), pathFile);
+
+		// draws the path between the jump points
+		helper.backpropogate(search.getPathRows(), search.getPathCols());
+	}
+
+	/**
+	 * 
+	 * Solves every maze in a directory or matching a glob without asking
+	 * anything, see BatchSolver.
+	 * 
+	 * @param pattern
+	 *            directory or glob of the mazes.
+	 * @param mode
+	 *            dijkstra, astar, bidirectional, delta or jps.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the searches keep their nodes in.
+	 * @param reduce
+	 *            whether dead ends are cut off and corners contracted first.
+	 * @param precheck
+	 *            whether to check that the exit can be reached before
+	 *            searching.
+	 * @param stream
+	 *            whether the graphs are built row by row.
+	 * @param imageOutput
+	 *            how the images of every maze are written.
+	 * @param metrics
+	 *            metrics to report to.
+	 * @param outDirectory
+	 *            directory the results are written to.
+	 * @param workers
+	 *            most mazes solved at the same time.
+	 */
+	private static void solveBatch(String pattern, String mode, int delta, FrontierType frontier, boolean reduce,
+			boolean precheck, boolean stream, ImageOutput imageOutput, SolverMetrics metrics, File outDirectory,
+			int workers) {
+
+		try {
+
+			// every maze would fail the same way, so the options are checked
+			// before looking for any
+			BatchSolver solver = new BatchSolver(mode, delta, frontier, reduce, precheck, stream, imageOutput,
+					metrics, outDirectory, workers);
+			List<File> mazes = BatchSolver.findMazes(pattern);
+
+			if (mazes.isEmpty()) {
+
+				System.out.println("No mazes found- " + pattern);
+				return;
+			}
+
+			solver.run(mazes);
+		} catch (IllegalArgumentException e) {
+
+			System.out.println(e.getMessage());
+		} catch (IOException e) {
+
+			System.out.println("Couldn't solve the batch- " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 
+	 * Runs a search and prints what it found.
+	 * 
+	 * @param search
+	 *            search to run.
+	 * @param mode
+	 *            name of the search.
+	 * @param metrics
+	 *            metrics to report to.
+	 * @return true if a path was found.
+	 */
+	private static boolean runSearch(Search search, String mode, SolverMetrics metrics) {
 
 		System.out.println("Looking for path...");
-		long currTime = System.nanoTime();
+		SolverMetrics.Phase phase = metrics.startPhase("search");
 
-		// dijkstra
-		while (true) {
+		boolean foundPath = search.run();
+
+		phase.end();
+		metrics.searchFinished(mode, search.getNumPushes(), search.getNumPops(), search.getNumRelaxations(),
+				search.getMaxFrontier());
+
+		if (!foundPath) {
+
+			System.out.println("No path through the maze could be found.");
+			return false;
+		}
+
+		System.out.println("Path has been found");
+		System.out.println("Length of the path- " + search.getPathLength() + " pixels");
+		System.out.println("Nodes expanded- " + search.getNumExpanded() + "\n");
+
+		return true;
+	}
+
+	/**
+	 * 
+	 * Cuts the dead ends off a graph and contracts its corners, see
+	 * ContractedGraph.
+	 * 
+	 * @param graph
+	 *            graph with its entrance and exit set.
+	 * @param metrics
+	 *            metrics to report to.
+	 * @return the contracted graph.
+	 */
+	private static ContractedGraph contract(Graph graph, SolverMetrics metrics) {
+
+		SolverMetrics.Phase phase = metrics.startPhase("reduceGraph");
+
+		ContractedGraph contracted = new ContractedGraph(graph);
+
+		phase.end();
+
+		System.out.println("Graph reduced from " + graph.getNumNodes() + " to " + contracted.getGraph().getNumNodes()
+				+ " nodes\n");
+
+		return contracted;
+	}
+
+	/**
+	 * 
+	 * Finds the distance from the entrance to every pixel of the maze and
+	 * writes it to a file, see DistanceField.
+	 * 
+	 * @param helper
+	 *            helper holding the maze.
+	 * @param graph
+	 *            graph of the maze.
+	 * @param frontier
+	 *            kind of frontier to search with.
+	 * @param distancesFile
+	 *            file to write to, a heatmap if it ends with .png.
+	 * @param metrics
+	 *            metrics to report to.
+	 */
+	private static void writeDistances(Helper helper, Graph graph, FrontierType frontier, File distancesFile,
+			SolverMetrics metrics) {
+
+		System.out.println("Finding the distance to every pixel...");
+		SolverMetrics.Phase phase = metrics.startPhase("distanceField");
+
+		DistanceField field;
+
+		try {
+
+			field = new DistanceField(helper, graph, frontier);
+		} catch (IllegalArgumentException e) {
+
+			System.out.println(e.getMessage());
+			return;
+		} finally {
+
+			phase.end();
+		}
+
+		System.out.println("Nodes expanded- " + field.getNumExpanded());
+		System.out.println("Furthest pixel- " + field.getMaxDistance() + " pixels from the entrance");
+		System.out.println("Exit- " + field.getDistance(graph.getRow(graph.getExit()), graph.getCol(graph.getExit()))
+				+ " pixels from the entrance\n");
+
+		phase = metrics.startPhase("writeDistances");
+
+		try {
+
+			field.write(distancesFile, helper.getGrid());
+			System.out.println("Distances have been written to " + distancesFile + "\n");
+		} catch (IOException e) {
+
+			System.out.println("Could not write distances- " + e.getMessage());
+		}
+
+		phase.end();
+	}
+
+	/**
+	 * 
+	 * Checks whether the exit can be reached from the entrance at all, by
+	 * labelling the parts of the maze, and says so if it can't.
+	 * 
+	 * @param graph
+	 *            graph with its entrance and exit set.
+	 * @param metrics
+	 *            metrics to report to.
+	 * @return true if there is a path to look for.
+	 */
+	private static boolean reachable(Graph graph, SolverMetrics metrics) {
+
+		return reachable(graph, Endpoint.ofNode(graph, graph.getEntrance()), Endpoint.ofNode(graph, graph.getExit()),
+				metrics);
+	}
+
+	/**
+	 * 
+	 * Checks whether any end can be reached from any start at all, by
+	 * labelling the parts of the maze, and says so if none can.
+	 * 
+	 * @param graph
+	 *            graph of the maze.
+	 * @param from
+	 *            where the path starts.
+	 * @param to
+	 *            where the path ends.
+	 * @param metrics
+	 *            metrics to report to.
+	 * @return true if there is a path to look for.
+	 */
+	private static boolean reachable(Graph graph, Endpoint from, Endpoint to, SolverMetrics metrics) {
+
+		SolverMetrics.Phase phase = metrics.startPhase("labelComponents");
+
+		Components components = new Components(graph);
+
+		phase.end();
+
+		if (!components.connected(from, to)) {
+
+			System.out.println("No path through the maze could be found, the exit is in a different part of the maze"
+					+ " than the entrance.");
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 
+	 * Makes the metrics picked on the command line.
+	 * 
+	 * @param name
+	 *            none, console or jfr.
+	 * @return the metrics, or null if the name is unknown.
+	 */
+	private static SolverMetrics newMetrics(String name) {
+
+		if (name.equals("none")) {
+
+			return SolverMetrics.NONE;
+		}
+
+		else if (name.equals("console")) {
+
+			return new ConsoleMetrics();
+		}
+
+		else if (name.equals("jfr")) {
+
+			return new JfrMetrics();
+		}
+
+		return null;
+	}
+
+	/**
+	 * 
+	 * Makes the search picked on the command line, with the default delta for
+	 * delta-stepping.
+	 * 
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or delta.
+	 * @param graph
+	 *            graph to search.
+	 * @return the search, or null if the mode is unknown.
+	 */
+	static Search newSearch(String mode, Graph graph) {
+
+		return newSearch(mode, graph, DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.HEAP);
+	}
+
+	/**
+	 * 
+	 * Makes the search picked on the command line.
+	 * 
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or delta.
+	 * @param graph
+	 *            graph to search.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the other searches keep their nodes in.
+	 * @return the search, or null if the mode is unknown.
+	 */
+	static Search newSearch(String mode, Graph graph, int delta, FrontierType frontier) {
+
+		if (mode.equals("dijkstra")) {
+
+			return new DijkstraSearch(graph, false, frontier);
+		}
+
+		else if (mode.equals("astar")) {
+
+			return new DijkstraSearch(graph, true, frontier);
+		}
+
+		else if (mode.equals("bidirectional")) {
+
+			return new BidirectionalSearch(graph, frontier);
+		}
+
+		else if (mode.equals("delta")) {
+
+			return new DeltaSteppingSearch(graph, delta);
+		}
+
+		return null;
+	}
+
+	/**
+	 * 
+	 * Makes the search picked on the command line between any two endpoints,
+	 * such as every entrance and every exit of a maze with many openings.
+	 * 
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or delta.
+	 * @param graph
+	 *            graph to search.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the other searches keep their nodes in.
+	 * @param from
+	 *            where the path starts.
+	 * @param to
+	 *            where the path ends.
+	 * @return the search, or null if the mode is unknown.
+	 */
+	static Search newSearch(String mode, Graph graph, int delta, FrontierType frontier, Endpoint from,
+			Endpoint to) {
+
+		if (mode.equals("dijkstra") || mode.equals("astar")) {
 
-			/*
-			 * returns the top node under consideration (smallest distance
-			 * value)
-			 */
-			topNode = nodeList.getFirst();
+			return new DijkstraSearch(graph, mode.equals("astar"), from, to, new SearchState(graph, frontier));
+		}
+
+		else if (mode.equals("bidirectional")) {
+
+			return new BidirectionalSearch(graph, from, to, new SearchState(graph, frontier),
+					new SearchState(graph, frontier));
+		}
+
+		else if (mode.equals("delta")) {
+
+			return new DeltaSteppingSearch(graph, delta, from, to);
+		}
+
+		return null;
+	}
+
+	/**
+	 * 
+	 * Prints every opening in the border of the maze and splits them into the
+	 * entrances picked and the exits, which are all the others.
+	 * 
+	 * @param helper
+	 *            helper whose openings have been added to the graph.
+	 * @param entrances
+	 *            indexes of the openings to start from, in the order the
+	 *            border was scanned in.
+	 * @return the entrances and the exits, or null if they can't be split.
+	 */
+	private static Endpoint[] openingEnds(Helper helper, int[] entrances) {
+
+		ArrayList<ArrayList<Node>> openings = helper.getOpenings();
+		boolean[] isEntrance = new boolean[openings.size()];
+		int numEntrances = 0;
+
+		// an opening several pixels wide is shown by its first and last pixel
+		for (int k = 0; k < openings.size(); k++) {
 
-			/*
-			 * if this node is linked to the exit, breaks loop and starts
-			 * backpropagation
-			 */
-			if (topNode.hasExit()) {
+			ArrayList<Node> opening = openings.get(k);
+			Node first = opening.get(0);
+			Node last = opening.get(opening.size() - 1);
 
-				exit.setPrevNode(topNode);
-				break;
+			System.out.println("Opening " + k + "- (" + first.getRow() + ", " + first.getCol() + ")"
+					+ (opening.size() > 1 ? " to (" + last.getRow() + ", " + last.getCol() + ")" : ""));
+		}
+
+		System.out.println();
+
+		for (int e : entrances) {
+
+			if (e < 0 || e >= openings.size()) {
+
+				System.out.println("There is no opening " + e + ".");
+				return null;
+			}
+
+			if (!isEntrance[e]) {
+
+				isEntrance[e] = true;
+				numEntrances++;
 			}
+		}
+
+		if (numEntrances == openings.size()) {
+
+			System.out.println("Every opening is an entrance, there is no exit left.");
+			return null;
+		}
 
-			// gets the possible nodes from the current node under consideration
-			possibleNodesFromTopNode = topNode.getPossibleNodes();
+		int numFrom = 0;
+		int numTo = 0;
 
-			/*
-			 * sets the current node as the node through which the possible
-			 * nodes from this node must go
-			 */
-			for (int i = 0; i < possibleNodesFromTopNode.size(); i++) {
+		for (int k = 0; k < openings.size(); k++) {
 
-				possibleNodesFromTopNode.get(i).setPrevNode(topNode);
+			if (isEntrance[k]) {
+
+				numFrom += openings.get(k).size();
+			}
+
+			else {
+
+				numTo += openings.get(k).size();
 			}
+		}
+
+		// every pixel of an opening is a node the path can start or end on
+		int[] from = new int[numFrom];
+		int[] to = new int[numTo];
 
-			/*
-			 * there are no possible directions from the top node (dead end),
-			 * throws away the current node under consideration
-			 */
+		numFrom = 0;
+		numTo = 0;
 
-			if (possibleNodesFromTopNode.isEmpty()) {
+		for (int k = 0; k < openings.size(); k++) {
 
-				nodeList.removeFirst();
-				continue;
+			for (Node n : openings.get(k)) {
+
+				if (isEntrance[k]) {
+
+					from[numFrom++] = n.getId();
+				}
+
+				else {
+
+					to[numTo++] = n.getId();
+				}
 			}
+		}
+
+		return new Endpoint[] { Endpoint.ofNodes(from), Endpoint.ofNodes(to) };
+	}
 
-			// updates the distance traveled
-			topNode.updateChildDistances(possibleNodesFromTopNode);
+	/**
+	 * 
+	 * Reads the number given to an option that has to be at least 1.
+	 * 
+	 * @param value
+	 *            the number as it was given.
+	 * @return the number, or -1 if it isn't a whole number of at least 1.
+	 */
+	static int parsePositive(String value) {
 
-			/*
-			 * adds all possible nodes from the node under consideration and
-			 * adds it to the list of nodes to consider later
-			 */
-			nodeList.addAll(possibleNodesFromTopNode);
+		try {
 
-			// sorts the list of nodes that are to be considered later based on
-			// distance travelled
-			nodeList = helper.sort(nodeList);
+			int number = Integer.parseInt(value.trim());
 
-			// removes the current node under consideration
-			nodeList.removeFirst();
+			return number >= 1 ? number : -1;
+		} catch (NumberFormatException e) {
 
+			return -1;
 		}
+	}
 
-		System.out.println(
-				"Path has been found (" + ((double) (System.nanoTime() - currTime) / 1000000000) + " seconds)\n");
+	/**
+	 * 
+	 * Reads a list of indexes separated by commas, such as 0,2,3.
+	 * 
+	 * @param list
+	 *            the list.
+	 * @return the indexes.
+	 * @throws NumberFormatException
+	 *             if one of them isn't a number.
+	 */
+	private static int[] parseIndexes(String list) {
 
-		// backpropogation up through path stack
-		helper.backpropogate(exit);
+		String[] parts = list.split(",");
+		int[] indexes = new int[parts.length];
+
+		for (int k = 0; k < parts.length; k++) {
+
+			indexes[k] = Integer.parseInt(parts[k].trim());
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * 
+	 * Returns a file if it exists.
+	 * 
+	 * @param name
+	 *            name of the file.
+	 * @return the file.
+	 * @throws FileNotFoundException
+	 *             if there is no such file.
+	 */
+	private static File existingFile(String name) throws FileNotFoundException {
 
-		double totalExecTime = (double) (System.nanoTime() - totalTime) / 1000000000;
+		File file = new File(name);
 
-		System.out.println("Total execution time- " + totalExecTime + " seconds");
-		System.out.println("Time spent on computing Djikstra (not printing images)- "
-				+ (totalExecTime - helper.timeSpentPrinting) + " seconds\n");
+		if (!file.isFile()) {
 
+			throw new FileNotFoundException(name);
+		}
+
+		return file;
+	}
+
+	/**
+	 * 
+	 * Solves a maze that may not fit in memory. The graph is built by reading
+	 * the maze one row at a time into a graph file, which is then loaded and
+	 * searched. The graph file is kept in the cache if one is used and thrown
+	 * away afterwards otherwise. No images are made, since that would need the
+	 * whole maze in memory.
+	 * 
+	 * @param mazeFile
+	 *            PNG file of the maze.
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or delta.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the search keeps its nodes in.
+	 * @param reduce
+	 *            whether dead ends are cut off and corners contracted first.
+	 * @param precheck
+	 *            whether to check that the exit can be reached before
+	 *            searching.
+	 * @param cache
+	 *            cache to keep the graph in, or null to not keep it.
+	 * @param pathFile
+	 *            file to write the path to, or null to not write it.
+	 * @param metrics
+	 *            metrics to report to.
+	 */
+	private static void streamSearch(File mazeFile, String mode, int delta, FrontierType frontier,
+			boolean reduce, boolean precheck, GraphCache cache, File pathFile, SolverMetrics metrics) {
+
+		File tempDirectory = null;
+		Graph graph;
+
+		try {
+
+			String hash = GraphCache.hash(mazeFile);
+
+			if (cache == null) {
+
+				tempDirectory = Files.createTempDirectory("dijkstra").toFile();
+				cache = new GraphCache(tempDirectory);
+			}
+
+			SolverMetrics.Phase phase = metrics.startPhase("loadGraph");
+
+			// the search reads the graph straight from the file, so only the
+			// parts of it the search gets to are ever in memory
+			graph = cache.map(hash);
+			phase.end();
+
+			if (graph == null) {
+
+				phase = metrics.startPhase("streamGraph");
+
+				StreamingGraphBuilder builder = new StreamingGraphBuilder(cache);
+
+				builder.build(mazeFile, hash);
+				graph = cache.map(hash);
+
+				phase.end();
+
+				if (builder.isReadWhole()) {
+
+					System.out.println("The maze is interlaced or has 16 bit samples, so it was decoded whole"
+							+ " and --stream saved no memory while building its graph.");
+				}
+			}
+
+			metrics.graphBuilt(graph.getNumNodes(), graph.getNumEdges() / 2);
+
+			if (tempDirectory != null) {
+
+				GraphCache.deleteMapped(cache.getFile(hash), tempDirectory);
+			}
+		} catch (IOException e) {
+
+			System.out.println("Couldn't build the graph of the maze- " + e.getMessage());
+			return;
+		}
+
+		ContractedGraph contracted = reduce ? contract(graph, metrics) : null;
+
+		if (precheck && !reachable(contracted != null ? contracted.getGraph() : graph, metrics)) {
+
+			return;
+		}
+
+		Search search = newSearch(mode, contracted != null ? contracted.getGraph() : graph, delta, frontier);
+
+		if (search == null) {
+
+			System.out.println("Unknown search mode- " + mode);
+			return;
+		}
+
+		if (runSearch(search, mode, metrics)) {
+
+			writePath(contracted != null ? contracted.expandPath(search.getPrevNode()) : search.getPath(), pathFile);
+		}
+	}
+
+	/**
+	 * 
+	 * Writes the path that has been found to a file, if one was given.
+	 * 
+	 * @param path
+	 *            path that has been found.
+	 * @param pathFile
+	 *            file to write the path to, or null to not write it.
+	 */
+	private static void writePath(Path path, File pathFile) {
+
+		if (pathFile == null) {
+
+			return;
+		}
+
+		try {
+
+			PathWriter.write(path, pathFile);
+			System.out.println("Path has been written to " + pathFile + "\n");
+		} catch (IOException e) {
+
+			System.out.println("Could not write path- " + e.getMessage());
+		}
 	}
 
 }
@@ -0,0 +1,303 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Dijkstra's algorithm over the maze graph. Can also run as A*, in which case
+ * nodes are taken off the heap in order of distance travelled plus the
+ * Manhattan distance left to the exit. Every corridor is a straight line
+ * whose length is the Manhattan distance between its ends, so that estimate
+ * never overshoots and A* finds a path of the same length.
+ *
+ * The search reads the graph without changing it and keeps everything it
+ * writes in a SearchState, so searches with states of their own can run on
+ * the same graph at the same time.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class DijkstraSearch implements Search {
+
+	// used while no path has been found
+	private static final int UNREACHED = Integer.MAX_VALUE;
+
+	private Graph graph;
+	private boolean aStar;
+
+	// pixels the path goes between
+	private Endpoint from;
+	private Endpoint to;
+
+	// distance from every node to the end, -1 if the end isn't joined to it,
+	// or null to ask the end, which is quicker for the two nodes a pixel is
+	// joined to at most
+	private int[] toDistance;
+
+	// the rows and columns the end and its nodes lie in and the least
+	// distance from them to the end, which bound the distance left for A*
+	private int endMinRow;
+	private int endMaxRow;
+	private int endMinCol;
+	private int endMaxCol;
+	private int endDistance;
+
+	// distances, previous nodes and the heap of the search
+	private SearchState state;
+
+	// length of the shortest path found so far and the node the end was
+	// reached from on it, -1 if it goes straight between the pixels
+	private int pathLength = UNREACHED;
+	private int last = -1;
+
+	private int numExpanded = 0;
+	private int numRelaxations = 0;
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph,
+	 * with a state of its own.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param aStar
+	 *            whether nodes closer to the exit should be looked at first.
+	 */
+	public DijkstraSearch(Graph graph, boolean aStar) {
+
+		this(graph, aStar, FrontierType.HEAP);
+	}
+
+	/**
+	 *
+	 * Constructor for a search from the entrance to the exit of a maze graph,
+	 * with a state of its own that keeps its frontier in the given way.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param aStar
+	 *            whether nodes closer to the exit should be looked at first.
+	 * @param frontier
+	 *            kind of frontier to use.
+	 */
+	public DijkstraSearch(Graph graph, boolean aStar, FrontierType frontier) {
+
+		this(graph, aStar, Endpoint.ofNode(graph, graph.getEntrance()), Endpoint.ofNode(graph, graph.getExit()),
+				new SearchState(graph, frontier));
+	}
+
+	/**
+	 *
+	 * Constructor for a search between any two pixels of a maze.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param aStar
+	 *            whether nodes closer to the end should be looked at first.
+	 * @param from
+	 *            pixel the path starts at.
+	 * @param to
+	 *            pixel the path ends at, or an endpoint joined to no node to
+	 *            finish every node that can be reached.
+	 * @param state
+	 *            state no other search is using, at least as big as the
+	 *            graph. It holds the previous nodes of the path, so it must
+	 *            not be used again until they have been read.
+	 */
+	public DijkstraSearch(Graph graph, boolean aStar, Endpoint from, Endpoint to, SearchState state) {
+
+		this.graph = graph;
+		this.aStar = aStar;
+		this.from = from;
+		this.to = to;
+		this.state = state;
+
+		toDistance = to.getNumNodes() > 2 ? to.distancesByNode(graph.getNumNodes()) : null;
+
+		if (to.isPixel()) {
+
+			endMinRow = endMaxRow = to.getRow();
+			endMinCol = endMaxCol = to.getCol();
+			endDistance = 0;
+		}
+
+		else {
+
+			endMinRow = endMinCol = endDistance = Integer.MAX_VALUE;
+			endMaxRow = endMaxCol = Integer.MIN_VALUE;
+
+			for (int i = 0; i < to.getNumNodes(); i++) {
+
+				int node = to.getNode(i);
+
+				endMinRow = Math.min(endMinRow, graph.getRow(node));
+				endMaxRow = Math.max(endMaxRow, graph.getRow(node));
+				endMinCol = Math.min(endMinCol, graph.getCol(node));
+				endMaxCol = Math.max(endMaxCol, graph.getCol(node));
+				endDistance = Math.min(endDistance, to.getDistance(i));
+			}
+		}
+	}
+
+	public boolean run() {
+
+		state.reset();
+		last = -1;
+		numExpanded = 0;
+		numRelaxations = 0;
+
+		// heap of the nodes under consideration, ordered by distance travelled
+		Frontier nodeHeap = state.getFrontier();
+
+		// the path may not need the graph at all
+		pathLength = from.corridorDistance(to);
+
+		if (pathLength == -1) {
+
+			pathLength = UNREACHED;
+		}
+
+		// sets proper information for the start nodes and adds them to the heap
+		// of nodes under consideration
+		for (int i = 0; i < from.getNumNodes(); i++) {
+
+			int start = from.getNode(i);
+
+			state.reach(start, from.getDistance(i), -1);
+			nodeHeap.add(start, from.getDistance(i) + estimate(start));
+		}
+
+		int topNode;
+		int child;
+		int newDistance;
+		int toEnd;
+
+		// dijkstra
+		while (!nodeHeap.isEmpty()) {
+
+			// nothing left on the heap can lead to a shorter path
+			if (nodeHeap.peekKey() >= pathLength) {
+
+				break;
+			}
+
+			/*
+			 * removes the top node under consideration (smallest distance
+			 * value), the shortest path to it is now known
+			 */
+			topNode = nodeHeap.poll();
+			state.finish(topNode);
+			numExpanded++;
+
+			// reached a node the end is joined to, the path can be
+			// backpropagated once nothing shorter is left
+			toEnd = toDistance != null ? toDistance[topNode] : to.distanceTo(topNode);
+
+			if (toEnd != -1 && state.getDistance(topNode) + toEnd < pathLength) {
+
+				pathLength = state.getDistance(topNode) + toEnd;
+				last = topNode;
+			}
+
+			// going on from the end itself can't make the path any shorter
+			if (toEnd == 0) {
+
+				continue;
+			}
+
+			// goes over the corridors leaving the current node under consideration
+			for (int e = graph.getFirstEdge(topNode); e < graph.getLastEdge(topNode); e++) {
+
+				child = graph.getTarget(e);
+				numRelaxations++;
+
+				if (state.isFinished(child)) {
+
+					continue;
+				}
+
+				newDistance = state.getDistance(topNode) + graph.getWeight(e);
+
+				// first time this node is reached, adds it to the heap
+				if (!state.isReached(child)) {
+
+					state.reach(child, newDistance, topNode);
+					nodeHeap.add(child, newDistance + estimate(child));
+				}
+
+				// found a shorter way to a node already in the heap
+				else if (newDistance < state.getDistance(child)) {
+
+					state.reach(child, newDistance, topNode);
+					nodeHeap.decreaseKey(child, newDistance + estimate(child));
+				}
+			}
+		}
+
+		return pathLength != UNREACHED;
+	}
+
+	/**
+	 *
+	 * Returns the Manhattan distance from a node to the end when running as
+	 * A*, 0 otherwise. An end that stands for several nodes is at least as far
+	 * as the smallest box holding all of them, plus the least distance from
+	 * one of them to the end. The distance to a box never drops by more than
+	 * a corridor is long, so the estimate still never overshoots.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return lower bound on the distance left to the end.
+	 */
+	private int estimate(int id) {
+
+		if (!aStar || endDistance == Integer.MAX_VALUE) {
+
+			return 0;
+		}
+
+		int row = graph.getRow(id);
+		int col = graph.getCol(id);
+
+		return Math.max(0, Math.max(endMinRow - row, row - endMaxRow))
+				+ Math.max(0, Math.max(endMinCol - col, col - endMaxCol)) + endDistance;
+	}
+
+	public int getPathLength() {
+
+		return pathLength;
+	}
+
+	public int[] getPrevNode() {
+
+		return state.getPrevNode();
+	}
+
+	public Path getPath() {
+
+		return Path.fromPrevNode(graph, state.getPrevNode(), last, from, to);
+	}
+
+	public int getNumExpanded() {
+
+		return numExpanded;
+	}
+
+	public int getNumPushes() {
+
+		return state.getFrontier().getNumPushes();
+	}
+
+	public int getNumPops() {
+
+		return state.getFrontier().getNumPolls();
+	}
+
+	public int getNumRelaxations() {
+
+		return numRelaxations;
+	}
+
+	public int getMaxFrontier() {
+
+		return state.getFrontier().getMaxSize();
+	}
+}
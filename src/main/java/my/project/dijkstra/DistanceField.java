@@ -0,0 +1,390 @@
+package my.project.dijkstra;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * The distance from the entrance to every pixel of a maze. DijkstraSearch is
+ * run from the entrance towards an end joined to no node, so it goes on until
+ * every node has been finished instead of stopping at the exit, and the
+ * distances of the nodes are then
+ * spread along the straight corridors leaving them. A pixel of a corridor is
+ * as far as the closer of the nodes at its ends plus the pixels between, and
+ * a pixel of a dead end past the last node is as far as that node plus the
+ * pixels between.
+ *
+ * The field can be written in two ways:
+ *
+ * Binary, a big-endian int magic number "DJKD", the format version, the
+ * number of rows and columns and the largest distance, followed by the
+ * distance plus one of every pixel (0 for walls and pixels that can't be
+ * reached) in the order of the lines of the image, each as the change from
+ * the pixel before as a zig-zag varint. Neighbouring pixels of a corridor are
+ * one apart, so most pixels take a single byte.
+ *
+ * A heatmap PNG, with walls black, pixels that can't be reached white and
+ * every other pixel colored from blue near the entrance to red at the
+ * furthest pixel.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class DistanceField {
+
+	/**
+	 * Distance of walls and of pixels that can't be reached from the entrance.
+	 */
+	public static final int UNREACHED = -1;
+
+	// "DJKD"
+	private static final int MAGIC = 0x444A4B44;
+	private static final int VERSION = 1;
+
+	private int rows;
+	private int cols;
+
+	// distance of pixel (row, col) at col * rows + row, the order of the lines
+	// of the image
+	private int[] distance;
+	private int maxDistance = 0;
+
+	private int numExpanded = 0;
+
+	/**
+	 *
+	 * Constructor for the distance field of a maze whose nodes have been
+	 * placed and linked to the entrance and exit.
+	 *
+	 * @param helper
+	 *            helper holding the maze.
+	 * @param graph
+	 *            graph of the maze, with every corridor a straight line.
+	 * @param frontier
+	 *            kind of frontier to search with.
+	 * @throws IllegalArgumentException
+	 *             if the maze has more pixels than an array can hold.
+	 */
+	public DistanceField(Helper helper, Graph graph, FrontierType frontier) {
+
+		rows = helper.getRows();
+		cols = helper.getCols();
+
+		int numPixels;
+
+		try {
+
+			numPixels = Math.multiplyExact(rows, cols);
+		} catch (ArithmeticException e) {
+
+			throw new IllegalArgumentException("A " + rows + "x" + cols + " maze has too many pixels for a distance field");
+		}
+
+		distance = new int[numPixels];
+
+		for (int p = 0; p < distance.length; p++) {
+
+			distance[p] = UNREACHED;
+		}
+
+		int[] nodeDistance = searchAll(graph, frontier);
+
+		// pixels with a node on them, where spreading along a corridor stops
+		boolean[] isNode = new boolean[numPixels];
+
+		for (int i = 0; i < graph.getNumNodes(); i++) {
+
+			isNode[index(graph.getRow(i), graph.getCol(i))] = true;
+		}
+
+		spread(helper.getGrid(), graph, nodeDistance, isNode);
+
+		// a pixel can be lowered after it was first set, so the largest
+		// distance is only known once every corridor has been walked
+		for (int p = 0; p < distance.length; p++) {
+
+			maxDistance = Math.max(maxDistance, distance[p]);
+		}
+	}
+
+	/**
+	 *
+	 * Runs DijkstraSearch from the entrance until there is nothing left to
+	 * finish.
+	 *
+	 * @param graph
+	 *            graph of the maze.
+	 * @param frontier
+	 *            kind of frontier to search with.
+	 * @return distance of every node, UNREACHED for nodes that can't be
+	 *         reached.
+	 */
+	private int[] searchAll(Graph graph, FrontierType frontier) {
+
+		SearchState state = new SearchState(graph, frontier);
+		DijkstraSearch search = new DijkstraSearch(graph, false, Endpoint.ofNode(graph, graph.getEntrance()),
+				Endpoint.ofNodes(new int[0]), state);
+
+		// there is no end to find, so this only stops once every node that can
+		// be reached has been finished
+		search.run();
+		numExpanded = search.getNumExpanded();
+
+		int[] nodeDistance = new int[graph.getNumNodes()];
+
+		for (int i = 0; i < nodeDistance.length; i++) {
+
+			nodeDistance[i] = state.isReached(i) ? state.getDistance(i) : UNREACHED;
+		}
+
+		return nodeDistance;
+	}
+
+	/**
+	 *
+	 * Walks from every node that has been reached in all four directions until
+	 * a wall or another node, giving every pixel on the way the distance of
+	 * the node plus the pixels walked unless it is already closer. Every
+	 * corridor is walked from both of its ends, so each of its pixels ends up
+	 * with the distance through the closer end.
+	 *
+	 * @param grid
+	 *            grid of walls with a border, see Helper.getGrid().
+	 * @param graph
+	 *            graph of the maze.
+	 * @param nodeDistance
+	 *            distance of every node.
+	 * @param isNode
+	 *            which pixels have a node on them.
+	 */
+	private void spread(byte[] grid, Graph graph, int[] nodeDistance, boolean[] isNode) {
+
+		int stride = cols + 2;
+
+		// steps to the pixel right, left, down and up of a pixel, in the grid
+		// and in rows and columns
+		int[] steps = { stride, -stride, 1, -1 };
+		int[] rowSteps = { 1, -1, 0, 0 };
+		int[] colSteps = { 0, 0, 1, -1 };
+
+		for (int i = 0; i < graph.getNumNodes(); i++) {
+
+			if (nodeDistance[i] == UNREACHED) {
+
+				continue;
+			}
+
+			int row = graph.getRow(i);
+			int col = graph.getCol(i);
+
+			set(row, col, nodeDistance[i]);
+
+			for (int d = 0; d < steps.length; d++) {
+
+				int r = row + rowSteps[d];
+				int c = col + colSteps[d];
+				int walked = 1;
+
+				// the border around the grid stops the walk at the edge of the
+				// maze
+				for (int p = (row + 1) * stride + col + 1 + steps[d]; grid[p] != 0; p += steps[d]) {
+
+					if (isNode[index(r, c)]) {
+
+						break;
+					}
+
+					set(r, c, nodeDistance[i] + walked);
+
+					r += rowSteps[d];
+					c += colSteps[d];
+					walked++;
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Lowers the distance of a pixel if the new one is closer.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @param value
+	 *            new distance.
+	 */
+	private void set(int row, int col, int value) {
+
+		int p = index(row, col);
+
+		if (distance[p] == UNREACHED || value < distance[p]) {
+
+			distance[p] = value;
+		}
+	}
+
+	/**
+	 *
+	 * Returns where a pixel is kept in the field.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return index of the pixel.
+	 */
+	private int index(int row, int col) {
+
+		return col * rows + row;
+	}
+
+	/**
+	 *
+	 * Returns the distance from the entrance to a pixel.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return distance in pixels, UNREACHED for walls and pixels that can't
+	 *         be reached.
+	 */
+	public int getDistance(int row, int col) {
+
+		return distance[index(row, col)];
+	}
+
+	/**
+	 *
+	 * Returns the distance to the pixel furthest from the entrance.
+	 *
+	 * @return largest distance.
+	 */
+	public int getMaxDistance() {
+
+		return maxDistance;
+	}
+
+	/**
+	 *
+	 * Returns how many nodes the search finished, which is every node that can
+	 * be reached.
+	 *
+	 * @return number of nodes expanded.
+	 */
+	public int getNumExpanded() {
+
+		return numExpanded;
+	}
+
+	/**
+	 *
+	 * Writes the field as a heatmap if the file name ends with .png, in the
+	 * binary format otherwise.
+	 *
+	 * @param file
+	 *            file to write to.
+	 * @param grid
+	 *            grid of walls with a border, see Helper.getGrid(), used to
+	 *            tell walls from pixels that can't be reached.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void write(File file, byte[] grid) throws IOException {
+
+		if (file.getName().toLowerCase().endsWith(".png")) {
+
+			writeHeatmap(file, grid);
+		}
+
+		else {
+
+			writeBinary(file);
+		}
+	}
+
+	/**
+	 *
+	 * Writes the field in the binary format.
+	 *
+	 * @param file
+	 *            file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void writeBinary(File file) throws IOException {
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(rows);
+			out.writeInt(cols);
+			out.writeInt(maxDistance);
+
+			int prev = 0;
+
+			for (int p = 0; p < distance.length; p++) {
+
+				PathWriter.writeVarint(out, distance[p] + 1 - prev);
+				prev = distance[p] + 1;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Writes the field as a heatmap.
+	 *
+	 * @param file
+	 *            file to write to.
+	 * @param grid
+	 *            grid of walls with a border.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void writeHeatmap(File file, byte[] grid) throws IOException {
+
+		BufferedImage bi = new BufferedImage(rows, cols, BufferedImage.TYPE_INT_RGB);
+		int stride = cols + 2;
+
+		for (int col = 0; col < cols; col++) {
+
+			for (int row = 0; row < rows; row++) {
+
+				int d = distance[index(row, col)];
+				int rgb;
+
+				if (grid[(row + 1) * stride + col + 1] == 0) {
+
+					rgb = Color.BLACK.getRGB();
+				}
+
+				else if (d == UNREACHED) {
+
+					rgb = Color.WHITE.getRGB();
+				}
+
+				// blue near the entrance through green to red at the furthest
+				// pixel
+				else {
+
+					rgb = Color.HSBtoRGB(0.7f * (1 - (float) d / Math.max(1, maxDistance)), 1f, 1f);
+				}
+
+				bi.setRGB(row, col, rgb);
+			}
+		}
+
+		ImageIO.write(bi, "png", file);
+	}
+}
@@ -0,0 +1,236 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * A pixel a path starts or ends at, along with the nodes of the graph it is
+ * joined to and how far away they are. A pixel with a node on it is joined
+ * only to that node. Any other pixel lies on a corridor and is joined to the
+ * nodes at its ends, so that a search can start from or finish at any pixel
+ * without adding it to the graph.
+ *
+ * An endpoint can also stand for several nodes at once with no pixel of its
+ * own, such as every entrance of a maze with many openings. A search started
+ * from it starts from all of them, a search ending at it ends at whichever is
+ * closest, and the path starts or ends on that node.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class Endpoint {
+
+	private int row;
+	private int col;
+
+	// nodes the pixel is joined to and the number of pixels to each of them
+	private int[] nodes;
+	private int[] distances;
+
+	/**
+	 *
+	 * Constructor for an endpoint. The arrays are kept as they are.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @param nodes
+	 *            nodes the pixel is joined to.
+	 * @param distances
+	 *            number of pixels to every node.
+	 */
+	public Endpoint(int row, int col, int[] nodes, int[] distances) {
+
+		this.row = row;
+		this.col = col;
+		this.nodes = nodes;
+		this.distances = distances;
+	}
+
+	/**
+	 *
+	 * Makes an endpoint on a node of a graph.
+	 *
+	 * @param graph
+	 *            graph the node is in.
+	 * @param id
+	 *            index of the node.
+	 * @return endpoint joined only to the node.
+	 */
+	public static Endpoint ofNode(Graph graph, int id) {
+
+		return new Endpoint(graph.getRow(id), graph.getCol(id), new int[] { id }, new int[] { 0 });
+	}
+
+	/**
+	 *
+	 * Makes an endpoint that stands for several nodes of a graph, all at
+	 * distance 0, without a pixel of its own.
+	 *
+	 * @param ids
+	 *            indexes of the nodes.
+	 * @return endpoint joined to every node.
+	 */
+	public static Endpoint ofNodes(int[] ids) {
+
+		return new Endpoint(-1, -1, ids, new int[ids.length]);
+	}
+
+	/**
+	 *
+	 * Returns if the endpoint is a pixel, and not only a set of nodes made by
+	 * ofNodes().
+	 *
+	 * @return true if the endpoint has a pixel of its own.
+	 */
+	public boolean isPixel() {
+
+		return row != -1;
+	}
+
+	/**
+	 *
+	 * Returns the row of the pixel.
+	 *
+	 * @return row of the pixel, -1 if there is none.
+	 */
+	public int getRow() {
+
+		return row;
+	}
+
+	/**
+	 *
+	 * Returns the column of the pixel.
+	 *
+	 * @return column of the pixel, -1 if there is none.
+	 */
+	public int getCol() {
+
+		return col;
+	}
+
+	/**
+	 *
+	 * Returns how many nodes the pixel is joined to.
+	 *
+	 * @return number of nodes.
+	 */
+	public int getNumNodes() {
+
+		return nodes.length;
+	}
+
+	/**
+	 *
+	 * Returns a node the pixel is joined to.
+	 *
+	 * @param i
+	 *            which of the nodes, from 0 to getNumNodes() - 1.
+	 * @return index of the node.
+	 */
+	public int getNode(int i) {
+
+		return nodes[i];
+	}
+
+	/**
+	 *
+	 * Returns how far a node the pixel is joined to is.
+	 *
+	 * @param i
+	 *            which of the nodes, from 0 to getNumNodes() - 1.
+	 * @return number of pixels to the node.
+	 */
+	public int getDistance(int i) {
+
+		return distances[i];
+	}
+
+	/**
+	 *
+	 * Returns how far a node is if the pixel is joined to it.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return number of pixels to the node, or -1 if the pixel isn't joined
+	 *         to it.
+	 */
+	public int distanceTo(int id) {
+
+		for (int i = 0; i < nodes.length; i++) {
+
+			if (nodes[i] == id) {
+
+				return distances[i];
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 *
+	 * Returns how far every node of a graph is, so that a search ending at
+	 * many nodes can look the distance of a node up instead of going through
+	 * all of them with distanceTo().
+	 *
+	 * @param numNodes
+	 *            number of nodes in the graph.
+	 * @return number of pixels to every node, -1 for nodes the endpoint isn't
+	 *         joined to.
+	 */
+	public int[] distancesByNode(int numNodes) {
+
+		int[] byNode = new int[numNodes];
+
+		Arrays.fill(byNode, -1);
+
+		for (int i = 0; i < nodes.length; i++) {
+
+			if (byNode[nodes[i]] == -1 || distances[i] < byNode[nodes[i]]) {
+
+				byNode[nodes[i]] = distances[i];
+			}
+		}
+
+		return byNode;
+	}
+
+	/**
+	 *
+	 * Returns the length of the straight walk between two pixels that lie on
+	 * the same corridor. Two pixels joined to the same nodes and in the same
+	 * row or column are on the same corridor, since there is only one
+	 * straight line between two nodes. Pixels joined to no node at all may
+	 * be walled off from each other, so they are never taken to share one.
+	 *
+	 * @param other
+	 *            the other pixel.
+	 * @return number of pixels between them, or -1 if they aren't known to be
+	 *         on the same corridor or either of them isn't a pixel.
+	 */
+	public int corridorDistance(Endpoint other) {
+
+		if (!isPixel() || !other.isPixel() || nodes.length == 0) {
+
+			return -1;
+		}
+
+		if ((row != other.row && col != other.col) || nodes.length != other.nodes.length) {
+
+			return -1;
+		}
+
+		for (int i = 0; i < nodes.length; i++) {
+
+			if (other.distanceTo(nodes[i]) == -1) {
+
+				return -1;
+			}
+		}
+
+		return Math.abs(row - other.row) + Math.abs(col - other.col);
+	}
+}
@@ -0,0 +1,117 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * The nodes a search has reached but not finished, ordered by an integer key
+ * so that the node with the smallest key can be taken off first. Every node
+ * can be on it at most once, and the key of a node already on it can be
+ * lowered in place.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public interface Frontier {
+
+	/**
+	 *
+	 * Returns if there are no more nodes on the frontier.
+	 *
+	 * @return true if the frontier is empty, false otherwise.
+	 */
+	boolean isEmpty();
+
+	/**
+	 *
+	 * Returns the number of nodes on the frontier.
+	 *
+	 * @return number of nodes on the frontier.
+	 */
+	int size();
+
+	/**
+	 *
+	 * Returns how many times a node has been added or had its key lowered.
+	 *
+	 * @return number of adds and key decreases.
+	 */
+	int getNumPushes();
+
+	/**
+	 *
+	 * Returns how many nodes have been taken off the frontier.
+	 *
+	 * @return number of polls.
+	 */
+	int getNumPolls();
+
+	/**
+	 *
+	 * Returns the most nodes the frontier has held at once.
+	 *
+	 * @return largest size of the frontier.
+	 */
+	int getMaxSize();
+
+	/**
+	 *
+	 * Removes every node and sets the counts back to 0, so the frontier can be
+	 * used again.
+	 */
+	void clear();
+
+	/**
+	 *
+	 * Returns if the node with this id is currently on the frontier.
+	 *
+	 * @param id
+	 *            id of the node.
+	 * @return true if the node is on the frontier, false otherwise.
+	 */
+	boolean contains(int id);
+
+	/**
+	 *
+	 * Adds a node to the frontier.
+	 *
+	 * @param id
+	 *            id of the node, must not already be on the frontier.
+	 * @param value
+	 *            key the node is ordered by.
+	 */
+	void add(int id, int value);
+
+	/**
+	 *
+	 * Lowers the key of a node that is already on the frontier.
+	 *
+	 * @param id
+	 *            id of the node.
+	 * @param value
+	 *            new key of the node, must not be larger than the old one.
+	 */
+	void decreaseKey(int id, int value);
+
+	/**
+	 *
+	 * Returns the id of the node with the smallest key without removing it.
+	 *
+	 * @return id of the node with the smallest key.
+	 */
+	int peek();
+
+	/**
+	 *
+	 * Returns the smallest key on the frontier.
+	 *
+	 * @return smallest key on the frontier.
+	 */
+	int peekKey();
+
+	/**
+	 *
+	 * Removes the node with the smallest key and returns its id.
+	 *
+	 * @return id of the node with the smallest key.
+	 */
+	int poll();
+}
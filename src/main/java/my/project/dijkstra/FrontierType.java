@@ -0,0 +1,24 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Which Frontier a SearchState keeps the nodes under consideration in.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public enum FrontierType {
+
+	/**
+	 * An IndexedHeap, which takes O(log n) to add or take off a node but
+	 * works for any keys.
+	 */
+	HEAP,
+
+	/**
+	 * A BucketQueue, which takes O(1) to add or take off a node as long as the
+	 * keys taken off never go down and are never far apart, as is the case
+	 * for the short corridors of a maze.
+	 */
+	BUCKETS
+}
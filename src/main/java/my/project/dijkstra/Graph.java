@@ -0,0 +1,245 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Compact representation of the nodes of a maze and the corridors between
+ * them. The corridors leaving node i are stored in the edge indexes
+ * getFirstEdge(i) up to (but not including) getLastEdge(i), so the whole maze
+ * lives in a handful of int arrays instead of one object per node.
+ *
+ * A graph never changes once it has been built. Searches keep what they write
+ * in a SearchState of their own, so one graph can be searched any number of
+ * times, by any number of threads at once. MappedGraph keeps the same arrays
+ * in a memory-mapped file instead of on the heap.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class Graph {
+
+	private final int numNodes;
+	private final int numEdges;
+
+	// edges of node i are at offsets[i] up to offsets[i + 1]
+	private final int[] offsets;
+
+	// node at the other end of each edge and the length of the corridor to it
+	private final int[] targets;
+	private final int[] weights;
+
+	// length of the longest corridor
+	private final int maxWeight;
+
+	// pixel coordinates of each node
+	private final int[] rows;
+	private final int[] cols;
+
+	private final int entrance;
+	private final int exit;
+
+	/**
+	 *
+	 * Constructor for a graph. Use GraphBuilder to make one.
+	 *
+	 * @param offsets
+	 *            index of the first edge of every node, followed by the total
+	 *            number of edges.
+	 * @param targets
+	 *            node at the other end of every edge.
+	 * @param weights
+	 *            length of every edge.
+	 * @param rows
+	 *            row of every node.
+	 * @param cols
+	 *            column of every node.
+	 * @param entrance
+	 *            index of the entrance node.
+	 * @param exit
+	 *            index of the exit node.
+	 */
+	Graph(int[] offsets, int[] targets, int[] weights, int[] rows, int[] cols, int entrance, int exit) {
+
+		this.numNodes = rows.length;
+		this.numEdges = targets.length;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.rows = rows;
+		this.cols = cols;
+		this.entrance = entrance;
+		this.exit = exit;
+
+		int longest = 0;
+
+		for (int weight : weights) {
+
+			longest = Math.max(longest, weight);
+		}
+
+		maxWeight = longest;
+	}
+
+	/**
+	 *
+	 * Constructor for a graph whose nodes and edges are kept somewhere other
+	 * than in arrays, by a subclass that overrides every method reading them.
+	 *
+	 * @param numNodes
+	 *            number of nodes.
+	 * @param numEdges
+	 *            number of edges, counting every corridor in both directions.
+	 * @param maxWeight
+	 *            length of the longest edge.
+	 * @param entrance
+	 *            index of the entrance node.
+	 * @param exit
+	 *            index of the exit node.
+	 */
+	Graph(int numNodes, int numEdges, int maxWeight, int entrance, int exit) {
+
+		this.numNodes = numNodes;
+		this.numEdges = numEdges;
+		this.offsets = null;
+		this.targets = null;
+		this.weights = null;
+		this.rows = null;
+		this.cols = null;
+		this.maxWeight = maxWeight;
+		this.entrance = entrance;
+		this.exit = exit;
+	}
+
+	/**
+	 *
+	 * Returns the number of nodes in the graph.
+	 *
+	 * @return number of nodes in the graph.
+	 */
+	public int getNumNodes() {
+
+		return numNodes;
+	}
+
+	/**
+	 *
+	 * Returns the number of edges in the graph. Every corridor is counted once
+	 * in each direction.
+	 *
+	 * @return number of edges in the graph.
+	 */
+	public int getNumEdges() {
+
+		return numEdges;
+	}
+
+	/**
+	 *
+	 * Returns the row of a node.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return row of the node.
+	 */
+	public int getRow(int id) {
+
+		return rows[id];
+	}
+
+	/**
+	 *
+	 * Returns the column of a node.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return column of the node.
+	 */
+	public int getCol(int id) {
+
+		return cols[id];
+	}
+
+	/**
+	 *
+	 * Returns the index of the first edge leaving a node.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return index of the first edge leaving the node.
+	 */
+	public int getFirstEdge(int id) {
+
+		return offsets[id];
+	}
+
+	/**
+	 *
+	 * Returns the index just past the last edge leaving a node.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return index just past the last edge leaving the node.
+	 */
+	public int getLastEdge(int id) {
+
+		return offsets[id + 1];
+	}
+
+	/**
+	 *
+	 * Returns the node at the other end of an edge.
+	 *
+	 * @param edge
+	 *            index of the edge.
+	 * @return index of the node the edge leads to.
+	 */
+	public int getTarget(int edge) {
+
+		return targets[edge];
+	}
+
+	/**
+	 *
+	 * Returns the length of an edge in pixels.
+	 *
+	 * @param edge
+	 *            index of the edge.
+	 * @return length of the edge.
+	 */
+	public int getWeight(int edge) {
+
+		return weights[edge];
+	}
+
+	/**
+	 *
+	 * Returns the length of the longest edge, 0 if there are no edges.
+	 *
+	 * @return length of the longest edge.
+	 */
+	public int getMaxWeight() {
+
+		return maxWeight;
+	}
+
+	/**
+	 *
+	 * Returns the index of the entrance node.
+	 *
+	 * @return index of the entrance node.
+	 */
+	public int getEntrance() {
+
+		return entrance;
+	}
+
+	/**
+	 *
+	 * Returns the index of the exit node.
+	 *
+	 * @return index of the exit node.
+	 */
+	public int getExit() {
+
+		return exit;
+	}
+}
@@ -0,0 +1,201 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Collects nodes and corridors while the maze is being scanned and packs them
+ * into a Graph once the scan is done.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class GraphBuilder {
+
+	private int[] rows = new int[16];
+	private int[] cols = new int[16];
+	private int numNodes = 0;
+
+	// every corridor is stored once as a (from, to, length) triple
+	private int[] edgeFrom = new int[16];
+	private int[] edgeTo = new int[16];
+	private int[] edgeWeight = new int[16];
+	private int numEdges = 0;
+
+	private int entrance = -1;
+	private int exit = -1;
+
+	/**
+	 *
+	 * Adds a node and returns its index.
+	 *
+	 * @param row
+	 *            row of the pixel where the node is placed.
+	 * @param col
+	 *            column of the pixel where the node is placed.
+	 * @return index of the new node.
+	 */
+	public int addNode(int row, int col) {
+
+		if (numNodes == rows.length) {
+
+			rows = Arrays.copyOf(rows, numNodes * 2);
+			cols = Arrays.copyOf(cols, numNodes * 2);
+		}
+
+		rows[numNodes] = row;
+		cols[numNodes] = col;
+
+		return numNodes++;
+	}
+
+	/**
+	 *
+	 * Adds a corridor that can be walked in both directions.
+	 *
+	 * @param from
+	 *            index of one end of the corridor.
+	 * @param to
+	 *            index of the other end of the corridor.
+	 * @param weight
+	 *            length of the corridor in pixels.
+	 */
+	public void addEdge(int from, int to, int weight) {
+
+		if (numEdges == edgeFrom.length) {
+
+			edgeFrom = Arrays.copyOf(edgeFrom, numEdges * 2);
+			edgeTo = Arrays.copyOf(edgeTo, numEdges * 2);
+			edgeWeight = Arrays.copyOf(edgeWeight, numEdges * 2);
+		}
+
+		edgeFrom[numEdges] = from;
+		edgeTo[numEdges] = to;
+		edgeWeight[numEdges] = weight;
+		numEdges++;
+	}
+
+	/**
+	 *
+	 * Adds all nodes and corridors of another builder after the ones already
+	 * added. The corridors are copied as they are, so they must already use
+	 * the indexes the nodes will have in this builder.
+	 *
+	 * @param other
+	 *            builder whose nodes and corridors will be added.
+	 */
+	public void append(GraphBuilder other) {
+
+		for (int i = 0; i < other.numNodes; i++) {
+
+			addNode(other.rows[i], other.cols[i]);
+		}
+
+		for (int i = 0; i < other.numEdges; i++) {
+
+			addEdge(other.edgeFrom[i], other.edgeTo[i], other.edgeWeight[i]);
+		}
+	}
+
+	/**
+	 *
+	 * Returns how many nodes have been added.
+	 *
+	 * @return number of nodes added so far.
+	 */
+	public int getNumNodes() {
+
+		return numNodes;
+	}
+
+	/**
+	 *
+	 * Returns how many corridors have been added.
+	 *
+	 * @return number of corridors added so far, each counted once.
+	 */
+	public int getNumEdges() {
+
+		return numEdges;
+	}
+
+	/**
+	 *
+	 * Forgets every node and corridor added after the given counts, so they
+	 * can be added again.
+	 *
+	 * @param numNodes
+	 *            number of nodes to keep.
+	 * @param numEdges
+	 *            number of corridors to keep.
+	 */
+	public void truncate(int numNodes, int numEdges) {
+
+		this.numNodes = Math.min(this.numNodes, numNodes);
+		this.numEdges = Math.min(this.numEdges, numEdges);
+	}
+
+	/**
+	 *
+	 * Sets which node is the entrance of the maze.
+	 *
+	 * @param id
+	 *            index of the entrance node.
+	 */
+	public void setEntrance(int id) {
+
+		entrance = id;
+	}
+
+	/**
+	 *
+	 * Sets which node is the exit of the maze.
+	 *
+	 * @param id
+	 *            index of the exit node.
+	 */
+	public void setExit(int id) {
+
+		exit = id;
+	}
+
+	/**
+	 *
+	 * Packs the nodes and corridors added so far into a graph.
+	 *
+	 * @return graph with every corridor stored in both directions.
+	 */
+	public Graph build() {
+
+		int[] offsets = new int[numNodes + 1];
+
+		// counts the edges leaving every node
+		for (int i = 0; i < numEdges; i++) {
+
+			offsets[edgeFrom[i] + 1]++;
+			offsets[edgeTo[i] + 1]++;
+		}
+
+		for (int i = 0; i < numNodes; i++) {
+
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] targets = new int[numEdges * 2];
+		int[] weights = new int[numEdges * 2];
+		int[] next = Arrays.copyOf(offsets, numNodes);
+
+		// places every corridor in the edge lists of both of its ends
+		for (int i = 0; i < numEdges; i++) {
+
+			targets[next[edgeFrom[i]]] = edgeTo[i];
+			weights[next[edgeFrom[i]]++] = edgeWeight[i];
+
+			targets[next[edgeTo[i]]] = edgeFrom[i];
+			weights[next[edgeTo[i]]++] = edgeWeight[i];
+		}
+
+		return new Graph(offsets, targets, weights, Arrays.copyOf(rows, numNodes), Arrays.copyOf(cols, numNodes),
+				entrance, exit);
+	}
+}
@@ -0,0 +1,446 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ *
+ * Keeps built graphs on disk so that solving the same maze again doesn't have
+ * to place the nodes again. Every graph is stored in its own file named after
+ * a hash of the maze file, so a maze that changes simply gets a new file and
+ * the old one is never read again. The hash is the length of the file along
+ * with its CRC-32 and Adler-32 checksums, which is enough to tell mazes apart
+ * and much quicker to start up than a cryptographic hash.
+ *
+ * The file is a list of little-endian ints: a magic number, the format
+ * version, the number of nodes, the number of edges, the entrance, the exit,
+ * and then the edge offsets, targets and weights and the node rows and
+ * columns of the Graph.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class GraphCache {
+
+	// "DJKG"
+	private static final int MAGIC = 0x444A4B47;
+	private static final int VERSION = 1;
+	private static final int HEADER_INTS = 6;
+
+	private File directory;
+
+	/**
+	 *
+	 * Constructor for a cache that keeps its files in a directory.
+	 *
+	 * @param directory
+	 *            directory the graph files are kept in, made if it doesn't
+	 *            exist yet.
+	 */
+	public GraphCache(File directory) {
+
+		this.directory = directory;
+	}
+
+	/**
+	 *
+	 * Returns the hash of a maze file as a hex string.
+	 *
+	 * @param content
+	 *            bytes of the maze file.
+	 * @return hash of the maze file.
+	 */
+	public static String hash(byte[] content) {
+
+		CRC32 crc = new CRC32();
+		Adler32 adler = new Adler32();
+
+		crc.update(content, 0, content.length);
+		adler.update(content, 0, content.length);
+
+		return String.format("%08x-%08x%08x", content.length, crc.getValue(), adler.getValue());
+	}
+
+	/**
+	 *
+	 * Returns the hash of a maze file as a hex string, reading the file a
+	 * block at a time instead of all at once. Gives the same hash as
+	 * hash(byte[]) on the bytes of the file.
+	 *
+	 * @param file
+	 *            the maze file.
+	 * @return hash of the maze file.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	public static String hash(File file) throws IOException {
+
+		CRC32 crc = new CRC32();
+		Adler32 adler = new Adler32();
+		byte[] block = new byte[1 << 16];
+		long length = 0;
+		int count;
+
+		try (InputStream in = new FileInputStream(file)) {
+
+			while ((count = in.read(block)) != -1) {
+
+				crc.update(block, 0, count);
+				adler.update(block, 0, count);
+				length += count;
+			}
+		}
+
+		return String.format("%08x-%08x%08x", length, crc.getValue(), adler.getValue());
+	}
+
+	/**
+	 *
+	 * Returns the file the graph of a maze is kept in.
+	 *
+	 * @param hash
+	 *            hash of the maze file.
+	 * @return file of the graph.
+	 */
+	public File getFile(String hash) {
+
+		return new File(directory, hash + ".graph");
+	}
+
+	/**
+	 *
+	 * Loads the graph of a maze by memory-mapping its file and copying it
+	 * into arrays.
+	 *
+	 * @param hash
+	 *            hash of the maze file.
+	 * @return the graph, or null if there is no usable file for this maze.
+	 */
+	public Graph load(String hash) {
+
+		MappedInts ints = open(hash);
+
+		if (ints == null) {
+
+			return null;
+		}
+
+		int numNodes = ints.get(2);
+		int numEdges = ints.get(3);
+
+		int[] offsets = new int[numNodes + 1];
+		int[] targets = new int[numEdges];
+		int[] weights = new int[numEdges];
+		int[] rows = new int[numNodes];
+		int[] cols = new int[numNodes];
+
+		ints.get(offsetsStart(), offsets);
+		ints.get(targetsStart(numNodes), targets);
+		ints.get(weightsStart(numNodes, numEdges), weights);
+		ints.get(rowsStart(numNodes, numEdges), rows);
+		ints.get(colsStart(numNodes, numEdges), cols);
+
+		return new Graph(offsets, targets, weights, rows, cols, ints.get(4), ints.get(5));
+	}
+
+	/**
+	 *
+	 * Loads the graph of a maze by memory-mapping its file, without copying
+	 * anything onto the heap, see MappedGraph. The graph can still be used
+	 * after the file has been deleted, on systems that allow deleting a file
+	 * that is mapped.
+	 *
+	 * @param hash
+	 *            hash of the maze file.
+	 * @return the graph, or null if there is no usable file for this maze.
+	 */
+	public Graph map(String hash) {
+
+		MappedInts ints = open(hash);
+
+		if (ints == null) {
+
+			return null;
+		}
+
+		int numNodes = ints.get(2);
+		int numEdges = ints.get(3);
+		long weights = weightsStart(numNodes, numEdges);
+		int maxWeight = 0;
+
+		for (int e = 0; e < numEdges; e++) {
+
+			maxWeight = Math.max(maxWeight, ints.get(weights + e));
+		}
+
+		return new MappedGraph(ints, numNodes, numEdges, maxWeight, ints.get(4), ints.get(5));
+	}
+
+	/**
+	 *
+	 * Deletes a temporary graph file, which may still be memory-mapped by a
+	 * MappedGraph, and the directory it is in. Where the system doesn't allow
+	 * deleting a mapped file, both are deleted when the program ends instead.
+	 *
+	 * @param file
+	 *            graph file to delete.
+	 * @param directory
+	 *            directory the file is in, with nothing else in it.
+	 */
+	static void deleteMapped(File file, File directory) {
+
+		if (file.delete() || !file.exists()) {
+
+			directory.delete();
+		}
+
+		else {
+
+			// files are deleted on exit in the reverse order they were given
+			directory.deleteOnExit();
+			file.deleteOnExit();
+		}
+	}
+
+	/**
+	 *
+	 * Memory-maps the file of a graph and checks that it holds a whole graph
+	 * of this version.
+	 *
+	 * @param hash
+	 *            hash of the maze file.
+	 * @return the ints of the file, or null if there is no usable file for
+	 *         this maze.
+	 */
+	private MappedInts open(String hash) {
+
+		File file = getFile(hash);
+
+		if (!file.isFile()) {
+
+			return null;
+		}
+
+		// the mapping stays valid after the channel is closed
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+
+			MappedInts ints = new MappedInts(channel, FileChannel.MapMode.READ_ONLY, channel.size() / 4);
+
+			// a file from another version or a cut off write is ignored
+			if (ints.size() < HEADER_INTS || ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+
+				return null;
+			}
+
+			if (ints.size() != size(ints.get(2), ints.get(3))) {
+
+				return null;
+			}
+
+			return ints;
+		} catch (IOException e) {
+
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * Saves the graph of a maze. The graph is written to a temporary file
+	 * first and then moved into place, so a file that is being written is
+	 * never loaded.
+	 *
+	 * @param hash
+	 *            hash of the maze file.
+	 * @param graph
+	 *            graph of the maze.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void save(String hash, Graph graph) throws IOException {
+
+		File temp = newTempFile();
+		int numNodes = graph.getNumNodes();
+		int numEdges = graph.getNumEdges();
+
+		try (RandomAccessFile raf = new RandomAccessFile(temp, "rw"); FileChannel channel = raf.getChannel()) {
+
+			MappedInts ints = create(channel, numNodes, numEdges, graph.getEntrance(), graph.getExit());
+
+			for (int i = 0; i <= numNodes; i++) {
+
+				ints.put(offsetsStart() + i, i < numNodes ? graph.getFirstEdge(i) : numEdges);
+			}
+
+			for (int e = 0; e < numEdges; e++) {
+
+				ints.put(targetsStart(numNodes) + e, graph.getTarget(e));
+				ints.put(weightsStart(numNodes, numEdges) + e, graph.getWeight(e));
+			}
+
+			for (int i = 0; i < numNodes; i++) {
+
+				ints.put(rowsStart(numNodes, numEdges) + i, graph.getRow(i));
+				ints.put(colsStart(numNodes, numEdges) + i, graph.getCol(i));
+			}
+		}
+
+		commit(temp, hash);
+	}
+
+	/**
+	 *
+	 * Makes a new empty file in the cache directory to write a graph into.
+	 *
+	 * @return the new file.
+	 * @throws IOException
+	 *             if the file can't be made.
+	 */
+	File newTempFile() throws IOException {
+
+		directory.mkdirs();
+
+		return File.createTempFile("graph", ".tmp", directory);
+	}
+
+	/**
+	 *
+	 * Maps a file big enough for a graph and writes its header.
+	 *
+	 * @param channel
+	 *            channel of the file, opened for writing.
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param numEdges
+	 *            number of edges of the graph, counting both directions.
+	 * @param entrance
+	 *            index of the entrance node.
+	 * @param exit
+	 *            index of the exit node.
+	 * @return the ints of the file.
+	 * @throws IOException
+	 *             if the file can't be mapped.
+	 */
+	static MappedInts create(FileChannel channel, int numNodes, int numEdges, int entrance, int exit)
+			throws IOException {
+
+		MappedInts ints = new MappedInts(channel, FileChannel.MapMode.READ_WRITE, size(numNodes, numEdges));
+
+		ints.put(0, MAGIC);
+		ints.put(1, VERSION);
+		ints.put(2, numNodes);
+		ints.put(3, numEdges);
+		ints.put(4, entrance);
+		ints.put(5, exit);
+
+		return ints;
+	}
+
+	/**
+	 *
+	 * Moves a fully written graph file into place as the graph of a maze.
+	 *
+	 * @param temp
+	 *            the written file.
+	 * @param hash
+	 *            hash of the maze file.
+	 * @throws IOException
+	 *             if the file can't be moved.
+	 */
+	void commit(File temp, String hash) throws IOException {
+
+		Files.move(temp.toPath(), getFile(hash).toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 *
+	 * Returns the number of ints in the file of a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param numEdges
+	 *            number of edges of the graph.
+	 * @return number of ints in the file.
+	 */
+	static long size(int numNodes, int numEdges) {
+
+		return HEADER_INTS + numNodes * 3L + 1 + numEdges * 2L;
+	}
+
+	/**
+	 *
+	 * Returns where the edge offsets start in the file of a graph.
+	 *
+	 * @return index of the first offset.
+	 */
+	static long offsetsStart() {
+
+		return HEADER_INTS;
+	}
+
+	/**
+	 *
+	 * Returns where the edge targets start in the file of a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @return index of the first target.
+	 */
+	static long targetsStart(int numNodes) {
+
+		return HEADER_INTS + numNodes + 1L;
+	}
+
+	/**
+	 *
+	 * Returns where the edge weights start in the file of a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param numEdges
+	 *            number of edges of the graph.
+	 * @return index of the first weight.
+	 */
+	static long weightsStart(int numNodes, int numEdges) {
+
+		return targetsStart(numNodes) + numEdges;
+	}
+
+	/**
+	 *
+	 * Returns where the node rows start in the file of a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param numEdges
+	 *            number of edges of the graph.
+	 * @return index of the first row.
+	 */
+	static long rowsStart(int numNodes, int numEdges) {
+
+		return weightsStart(numNodes, numEdges) + numEdges;
+	}
+
+	/**
+	 *
+	 * Returns where the node columns start in the file of a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param numEdges
+	 *            number of edges of the graph.
+	 * @return index of the first column.
+	 */
+	static long colsStart(int numNodes, int numEdges) {
+
+		return rowsStart(numNodes, numEdges) + numNodes;
+	}
+}
@@ -1,16 +1,31 @@
 package my.project.dijkstra;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
 
 /**
  * Class that contains methods helpful for computing Dijkstra's Algorithm.
@@ -20,12 +35,59 @@ import javax.imageio.ImageIO;
  */
 public class Helper {
 
+	/**
+	 * Console that throws away everything printed to it, for helpers that
+	 * should work without saying anything.
+	 */
+	public static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+	// bytes of the maze file, the image is only decoded once it is needed
+	private byte[] content;
+	private String contentHash = null;
+
+	// the maze as it was read, it is never drawn on
 	private BufferedImage image = null;
-	private BufferedImage imageCopy = null;
 	private int black = -16777216;
-	private int white = -1;
-	private HashMap<String, Node> map = new HashMap<String, Node>();
-	public double timeSpentPrinting;
+
+	/*
+	 * 1 for every pixel that can be walked on and 0 for every wall, with a
+	 * border of wall around the maze so that looking past the edge never
+	 * leaves the array. Rows run along the x axis of the image.
+	 */
+	private byte[] grid = null;
+	private int rows;
+	private int cols;
+	private int stride;
+
+	// index of the node placed on every pixel, -1 where there is no node
+	private int[] nodeAt = null;
+	private GraphBuilder builder = new GraphBuilder();
+	private Graph graph = null;
+
+	// nodes and corridors added by placeNodes, before the entrance and exit
+	private int placedNodes = 0;
+	private int placedEdges = 0;
+
+	// every opening in the border added to the graph, entrance and exit first,
+	// each with a node on every pixel of it
+	private ArrayList<ArrayList<Node>> openings = new ArrayList<ArrayList<Node>>();
+
+	// where the time spent and the size of the graph are reported
+	private SolverMetrics metrics = SolverMetrics.NONE;
+
+	// where messages about the maze are printed
+	private PrintStream console = System.out;
+
+	// how images are written, and the thread that writes them in the background
+	private ImageOutput imageOutput = ImageOutput.SYNC;
+	private ExecutorService printer = null;
+
+	// files the images are written to
+	private File nodesFile = new File("Nodes.png");
+	private File pathFile = new File("Path.png");
+
+	// pixels of maze kept around the path when only its region is printed
+	private static final int REGION_MARGIN = 10;
 
 	/**
 	 * Constructor for helper object.
@@ -37,585 +99,1491 @@ public class Helper {
 	public Helper(String s) throws IOException {
 		File file = new File(s);
 
-		image = ImageIO.read(file);
-		
-		imageCopy = ImageIO.read(file);
+		content = Files.readAllBytes(file.toPath());
+
+		// only checks that the file is an image, decoding it can wait
+		try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+
+			if (!ImageIO.getImageReaders(stream).hasNext()) {
+
+				throw new IOException(s + " is not an image.");
+			}
+		}
 	}
 
 	/**
-	 * Finds the entrance and exit of the maze and returns them as a ArrayList
-	 * where the first index is the entrance and second is the exit.
 	 * 
-	 * @return ArrayList of two nodes where the first node is the entrance and
-	 *         the second is the exit.
+	 * Decodes the maze image and reads it into the grid of walls, unless that
+	 * has been done already.
+	 */
+	private void loadImage() {
+
+		if (grid != null) {
+
+			return;
+		}
+
+		try {
+
+			image = ImageIO.read(new ByteArrayInputStream(content));
+		} catch (IOException e) {
+
+			throw new UncheckedIOException(e);
+		}
+
+		readGrid();
+	}
+
+	/**
 	 * 
+	 * Returns the hash of the maze file the graph cache knows it by.
+	 * 
+	 * @return hash of the maze file.
 	 */
-	public ArrayList<Node> setEntranceExit() {
+	public String getContentHash() {
 
-		boolean foundEntrance = false;
-		boolean foundExit = false;
+		if (contentHash == null) {
 
-		ArrayList<Node> entranceExit = new ArrayList<Node>();
+			contentHash = GraphCache.hash(content);
+		}
+
+		return contentHash;
+	}
+
+	/**
+	 * 
+	 * Loads the graph of the maze from a cache instead of placing the nodes
+	 * and linking the entrance and exit. The image isn't decoded.
+	 * 
+	 * @param cache
+	 *            cache to load the graph from.
+	 * @return true if the graph has been loaded, false if the cache doesn't
+	 *         have it.
+	 */
+	public boolean loadGraph(GraphCache cache) {
+
+		SolverMetrics.Phase phase = metrics.startPhase("loadGraph");
+
+		graph = cache.load(getContentHash());
+		nodeAt = null;
+		phase.end();
+
+		if (graph == null) {
+
+			console.println("No graph in cache for this maze.\n");
+			return false;
+		}
+
+		console.println(graph.getNumNodes() + " nodes have been loaded from the cache.\n");
+
+		return true;
+	}
+
+	/**
+	 * 
+	 * Saves the graph of the maze in a cache.
+	 * 
+	 * @param cache
+	 *            cache to save the graph in.
+	 */
+	public void saveGraph(GraphCache cache) {
+
+		try {
+
+			cache.save(getContentHash(), getGraph());
+		} catch (IOException e) {
+
+			console.println("Could not save graph to cache- " + e.getMessage());
+		}
+	}
+
+	/**
+	 * 
+	 * Returns the maze image, decoding it if that hasn't been done yet.
+	 * 
+	 * @return the maze image.
+	 * @throws IllegalStateException
+	 *             if the image has been released.
+	 */
+	private BufferedImage decodedImage() {
+
+		loadImage();
+
+		if (image == null) {
+
+			throw new IllegalStateException("The image of the maze has been released.");
+		}
+
+		return image;
+	}
+
+	/**
+	 * 
+	 * Frees everything that was only needed to decode the maze and build its
+	 * graph, which is the file, the image and the nodes and corridors as they
+	 * were added. The grid, the graph and the node on every pixel are kept, so
+	 * the graph can still be searched between any pixels, but nothing can be
+	 * drawn or placed any more. Meant for helpers kept around for many
+	 * searches, which otherwise hold several times the memory of the graph.
+	 */
+	public void release() {
+
+		getGrid();
+		nodeLookup();
+
+		content = null;
+		image = null;
+		builder = null;
+	}
+
+	/**
+	 * 
+	 * Returns a copy of the maze that can be drawn on without changing the
+	 * original. Copies the pixel data instead of reading the file again.
+	 * 
+	 * @return copy of the maze image.
+	 */
+	private BufferedImage copyImage() {
+
+		BufferedImage image = decodedImage();
+
+		if (!canDrawRed(image)) {
+
+			return copyToRgb(image, 0, 0, image.getWidth(), image.getHeight());
+		}
+
+		return new BufferedImage(image.getColorModel(), image.copyData(null), image.isAlphaPremultiplied(), null);
+	}
+
+	/**
+	 * 
+	 * Returns a copy of a rectangle of the maze that can be drawn on without
+	 * changing the original.
+	 * 
+	 * @param row
+	 *            first row of the rectangle.
+	 * @param col
+	 *            first column of the rectangle.
+	 * @param numRows
+	 *            number of rows of the rectangle.
+	 * @param numCols
+	 *            number of columns of the rectangle.
+	 * @return copy of the rectangle, with its first row and column at 0.
+	 */
+	private BufferedImage copyImage(int row, int col, int numRows, int numCols) {
+
+		BufferedImage image = decodedImage();
+
+		if (!canDrawRed(image)) {
+
+			return copyToRgb(image, row, col, numRows, numCols);
+		}
+
+		WritableRaster raster = image.getColorModel().createCompatibleWritableRaster(numRows, numCols);
+		raster.setRect(-row, -col, image.getRaster());
+
+		return new BufferedImage(image.getColorModel(), raster, image.isAlphaPremultiplied(), null);
+	}
 
-		// loops through image pixel data
-		for (int i = 0; i < image.getHeight(); i++) {
-			for (int j = 0; j < image.getWidth(); j++) {
+	/**
+	 * 
+	 * Returns whether red can be drawn on an image as it is. Gray and
+	 * palette images, such as the 1 bit mazes MazeGenerator writes, would
+	 * turn the red of the nodes and path into one of their own colors.
+	 * 
+	 * @param image
+	 *            image to draw on.
+	 * @return true if the image has a red, green and blue of its own for
+	 *         every pixel.
+	 */
+	private static boolean canDrawRed(BufferedImage image) {
+
+		ColorModel colorModel = image.getColorModel();
+
+		return !(colorModel instanceof IndexColorModel) && colorModel.getNumColorComponents() >= 3;
+	}
+
+	/**
+	 * 
+	 * Returns a copy of a rectangle of an image in full color, so that red
+	 * can be drawn on it.
+	 * 
+	 * @param image
+	 *            image to copy.
+	 * @param row
+	 *            first row of the rectangle.
+	 * @param col
+	 *            first column of the rectangle.
+	 * @param numRows
+	 *            number of rows of the rectangle.
+	 * @param numCols
+	 *            number of columns of the rectangle.
+	 * @return copy of the rectangle, with its first row and column at 0.
+	 */
+	private static BufferedImage copyToRgb(BufferedImage image, int row, int col, int numRows, int numCols) {
+
+		BufferedImage copy = new BufferedImage(numRows, numCols, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = copy.createGraphics();
+
+		graphics.drawImage(image, -row, -col, null);
+		graphics.dispose();
+
+		return copy;
+	}
+
+	/**
+	 * 
+	 * Reads the pixels of the image once into the grid of walls. Reads the
+	 * pixel data straight out of the image for the formats ImageIO gives back
+	 * for mazes and asks the image for one line of colors at a time otherwise.
+	 */
+	private void readGrid() {
+
+		rows = image.getWidth();
+		cols = image.getHeight();
+		stride = cols + 2;
+		grid = new byte[(rows + 2) * stride];
+
+		WritableRaster raster = image.getRaster();
+		boolean plainRaster = raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+		int type = image.getType();
+
+		// 4 bytes per pixel (alpha, blue, green, red), black is 255, 0, 0, 0
+		if (plainRaster && type == BufferedImage.TYPE_4BYTE_ABGR) {
+
+			byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			int p = 0;
+
+			for (int y = 0; y < cols; y++) {
+				for (int x = 0; x < rows; x++, p += 4) {
+
+					if (data[p] != -1 || data[p + 1] != 0 || data[p + 2] != 0 || data[p + 3] != 0) {
+
+						grid[pixelIndex(x, y)] = 1;
+					}
+				}
+			}
+		}
+
+		// one int per pixel, with or without alpha
+		else if (plainRaster && (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)) {
+
+			int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+			int alpha = type == BufferedImage.TYPE_INT_RGB ? black : 0;
+			int p = 0;
+
+			for (int y = 0; y < cols; y++) {
+				for (int x = 0; x < rows; x++, p++) {
+
+					if ((data[p] | alpha) != black) {
+
+						grid[pixelIndex(x, y)] = 1;
+					}
+				}
+			}
+		}
+
+		// any other format goes through the color model a line at a time
+		else {
+
+			int[] line = new int[rows];
+
+			for (int y = 0; y < cols; y++) {
+
+				image.getRGB(0, y, rows, 1, line, 0, rows);
+
+				for (int x = 0; x < rows; x++) {
+
+					if (line[x] != black) {
+
+						grid[pixelIndex(x, y)] = 1;
+					}
+				}
+			}
+		}
+	}
 
-				// if the current pixel being examined isn't on the edge of the
-				// image
-				if (isNotEdgeOfMap(i, j)) {
+	/**
+	 * Finds every opening in the border of the maze, adds them to the graph
+	 * and returns them as a ArrayList where the first index is the entrance,
+	 * second is the exit and any other openings follow. Every pixel of an
+	 * opening gets a node, and the graph's entrance and exit are the first
+	 * pixels of the first two openings. Calling it again replaces the
+	 * openings added before.
+	 * 
+	 * @return ArrayList of the openings, each a list of the nodes on its
+	 *         pixels, where the first opening is the entrance and the second
+	 *         is the exit. There are fewer than two if the border doesn't have
+	 *         an entrance and an exit.
+	 * 
+	 */
+	public ArrayList<ArrayList<Node>> setEntranceExit() {
+
+		ArrayList<ArrayList<Node>> entranceExit = new ArrayList<ArrayList<Node>>();
+
+		SolverMetrics.Phase phase = metrics.startPhase("linkEntranceExit");
+
+		// an entrance and exit linked before are replaced
+		builder.truncate(placedNodes, placedEdges);
+		graph = null;
+
+		ArrayList<ArrayList<Node>> found = findOpenings();
+
+		// adds the entrance, the exit and every other opening to the graph
+		for (int k = 0; k < found.size(); k++) {
+
+			ArrayList<Node> opening = new ArrayList<Node>();
+
+			if (k == 0) {
+
+				makeEntrance(found.get(k).get(0).getRow(), found.get(k).get(0).getCol());
+			}
+
+			else if (k == 1) {
+
+				makeExit(found.get(k).get(0).getRow(), found.get(k).get(0).getCol());
+			}
+
+			for (Node n : found.get(k)) {
+
+				opening.add(addNode(n.getRow(), n.getCol()));
+			}
+
+			entranceExit.add(opening);
+		}
+
+		if (found.size() < 2) {
+
+			reportMissingOpenings(found.size());
+		}
+
+		else if (found.size() > 2) {
+
+			console.println((found.size() - 2) + " more openings found");
+		}
+
+		/*
+		 * passes the entrance and exit nodes to a helper method that links them
+		 * to to other nodes in the maze
+		 */
+		entranceExit = linkEntranceExit(entranceExit);
+		openings = entranceExit;
+		phase.end();
+
+		return entranceExit;
+	}
+
+	/**
+	 * 
+	 * Returns the openings added to the graph by setEntranceExit(), in the
+	 * order the border was scanned in.
+	 * 
+	 * @return ArrayList of the openings, each a list of the nodes on its
+	 *         pixels, where the first opening is the entrance and the second
+	 *         is the exit, empty if the openings haven't been added.
+	 */
+	public ArrayList<ArrayList<Node>> getOpenings() {
+
+		return openings;
+	}
+
+	/**
+	 * Finds the nodes a pixel of the maze would be joined to, so that a path
+	 * can start or end at it without adding it to the graph. A pixel with a
+	 * node on it is joined to that node, and any other pixel to the nodes at
+	 * the ends of the corridor it lies on. Must be called after the nodes have
+	 * been placed or the graph has been loaded from a cache. Only reads the
+	 * maze, so any number of threads can call it at once.
+	 * 
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return the pixel with the nodes it is joined to.
+	 * @throws IllegalArgumentException
+	 *             if the pixel is a wall or outside the maze.
+	 */
+	public Endpoint getEndpoint(int row, int col) {
+
+		int[] nodeAt = nodeLookup();
+		int start = openPixel(row, col);
+
+		if (nodeAt[start] != -1) {
+
+			return new Endpoint(row, col, new int[] { nodeAt[start] }, new int[] { 0 });
+		}
+
+		// steps to the pixel right, left, down and up of a pixel
+		int[] directions = { stride, -stride, 1, -1 };
+		int[] nodes = new int[directions.length];
+		int[] distances = new int[directions.length];
+		int numNodes = 0;
+
+		// looks along the corridor both ways for the nodes at its ends, the
+		// border around the grid stops the search at the edge of the maze
+		for (int d = 0; d < directions.length; d++) {
+
+			int distance = 0;
+
+			for (int p = start + directions[d]; grid[p] != 0; p += directions[d]) {
+
+				distance++;
+
+				if (nodeAt[p] != -1) {
+
+					nodes[numNodes] = nodeAt[p];
+					distances[numNodes++] = distance;
+					break;
+				}
+			}
+		}
+
+		return new Endpoint(row, col, Arrays.copyOf(nodes, numNodes), Arrays.copyOf(distances, numNodes));
+	}
+
+	/**
+	 * 
+	 * Returns the index of the node placed on every pixel. A graph loaded from
+	 * a cache comes without it, so it is then found from the nodes of the
+	 * graph, the first node on a pixel winning as it does when they are
+	 * placed.
+	 * 
+	 * @return index of the node on every pixel of the grid, -1 where there is
+	 *         none.
+	 */
+	private synchronized int[] nodeLookup() {
+
+		loadImage();
+
+		if (nodeAt == null) {
+
+			Graph graph = getGraph();
+			int[] lookup = new int[grid.length];
+
+			Arrays.fill(lookup, -1);
+
+			for (int i = 0; i < graph.getNumNodes(); i++) {
+
+				int p = pixelIndex(graph.getRow(i), graph.getCol(i));
+
+				if (lookup[p] == -1) {
+
+					lookup[p] = i;
+				}
+			}
+
+			nodeAt = lookup;
+		}
+
+		return nodeAt;
+	}
+
+	/**
+	 * 
+	 * Returns the index in the grid of a pixel that can be walked on.
+	 * 
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return index of the pixel.
+	 * @throws IllegalArgumentException
+	 *             if the pixel is a wall or outside the maze.
+	 */
+	private int openPixel(int row, int col) {
+
+		if (row < 0 || row >= rows || col < 0 || col >= cols || grid[pixelIndex(row, col)] == 0) {
+
+			throw new IllegalArgumentException("(" + row + ", " + col + ") is not an open pixel of the maze");
+		}
+
+		return pixelIndex(row, col);
+	}
+
+	/**
+	 * Finds every opening in the border of the maze without adding them to
+	 * the graph. An opening is a run of pixels next to each other in the
+	 * border that can all be walked on, so a gap several pixels wide is one
+	 * opening. The border is taken in the same order the maze is scanned in
+	 * everywhere else, and the openings are ordered by their first pixel, so
+	 * the first two openings are the entrance and the exit. The nodes
+	 * returned have an index of -1.
+	 * 
+	 * @return ArrayList of the openings, each a list of its pixels starting
+	 *         with the first one scanned.
+	 */
+	public ArrayList<ArrayList<Node>> findOpenings() {
+
+		loadImage();
+
+		ArrayList<ArrayList<Node>> found = new ArrayList<ArrayList<Node>>();
+
+		// opening of every pixel of the border found so far, by its index in
+		// the grid
+		HashMap<Integer, ArrayList<Node>> openingAt = new HashMap<Integer, ArrayList<Node>>();
+
+		for (int i = 0; i < rows; i++) {
+
+			// only the first and last rows are on the edge all the way along,
+			// every other row only at its ends
+			int step = i == 0 || i == rows - 1 ? 1 : Math.max(1, cols - 1);
+
+			for (int j = 0; j < cols; j += step) {
+
+				int p = pixelIndex(i, j);
+
+				if (grid[p] == 0) {
 
 					continue;
 				}
 
-				// if the pixel is on the edge and is white, and the entrance
-				// hasn't been found yet
-				if (image.getRGB(i, j) == white && !foundEntrance) {
+				// the pixels before this one in the row and in the column have
+				// already been scanned, and the pixel joins their openings
+				ArrayList<Node> opening = null;
+
+				for (int before : new int[] { p - stride, p - 1 }) {
+
+					ArrayList<Node> other = openingAt.get(before);
+
+					if (other == null || other == opening) {
+
+						continue;
+					}
+
+					if (opening == null) {
+
+						opening = other;
+						continue;
+					}
 
-					// adds a node to the list of entrance and exit nodes
-					entranceExit.add(new Node(i, j));
+					// two openings found apart meet here, such as the two
+					// ends of a gap around a corner of the last row, and the
+					// one found later is merged into the one found first
+					ArrayList<Node> first = found.indexOf(opening) < found.indexOf(other) ? opening : other;
+					ArrayList<Node> later = first == opening ? other : opening;
+
+					for (Node n : later) {
+
+						first.add(n);
+						openingAt.put(pixelIndex(n.getRow(), n.getCol()), first);
+					}
 
-					foundEntrance = makeEntrance(i, j);
+					found.remove(later);
+					opening = first;
 				}
 
-				// if the pixel is on the edge and is white, and the entrance
-				// has been found already
-				else if (image.getRGB(i, j) == white && foundEntrance) {
+				if (opening == null) {
+
+					opening = new ArrayList<Node>();
+					found.add(opening);
+				}
+
+				opening.add(new Node(-1, i, j));
+				openingAt.put(p, opening);
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Finds the entrance and exit of the maze without adding them to the graph
+	 * and returns them as a ArrayList where the first index is the entrance
+	 * and second is the exit. They are the first pixels of the first two
+	 * openings, see findOpenings(). The nodes returned have an index of -1.
+	 * 
+	 * @return ArrayList of two nodes where the first node is the entrance and
+	 *         the second is the exit, fewer if the border doesn't have an
+	 *         entrance and an exit.
+	 * 
+	 */
+	public ArrayList<Node> findEntranceExit() {
+
+		ArrayList<ArrayList<Node>> found = findOpenings();
+		ArrayList<Node> entranceExit = new ArrayList<Node>();
+
+		if (found.size() < 2) {
+
+			reportMissingOpenings(found.size());
+			return entranceExit;
+		}
+
+		entranceExit.add(found.get(0).get(0));
+		entranceExit.add(found.get(1).get(0));
+
+		makeEntrance(entranceExit.get(0).getRow(), entranceExit.get(0).getCol());
+		makeExit(entranceExit.get(1).getRow(), entranceExit.get(1).getCol());
+
+		return entranceExit;
+	}
+
+	/**
+	 *
+	 * Reports that the maze can't be solved because its border doesn't have
+	 * an entrance and an exit.
+	 *
+	 * @param numOpenings
+	 *            number of openings found, 0 or 1.
+	 */
+	private void reportMissingOpenings(int numOpenings) {
+
+		console.println("The maze needs an entrance and an exit, but its border has "
+				+ (numOpenings == 0 ? "no openings" : "only one opening") + ".");
+	}
+
+	/**
+	 *
+	 * Reports where the exit is.
+	 *
+	 * @param x x coordinate of the exit pixel.
+	 * @param y y coordinate of the exit pixel.
+	 * @return true that an exit has been made.
+	 */
+	private boolean makeExit(int x, int y){
+
+		console.println("Exit at (" + x + ", " + y + ")");
+
+		return true;
+	}
+
+	/**
+	 *
+	 * Reports where the entrance is.
+	 *
+	 * @param x x coordinate of the entrance pixel.
+	 * @param y y coordinate of the entrance pixel.
+	 * @return true that an entrance has been made.
+	 */
+	private boolean makeEntrance(int x, int y){
+
+		console.println("Entrance at (" + x + ", " + y + ")");
+
+		return true;
+	}
+
+	/**
+	 * 
+	 * Helper method that links the entrance, exit and other opening nodes to
+	 * other nodes. The pixels of an opening are also linked to the pixels
+	 * next to them in the same opening, so a path can walk along a wide
+	 * opening to its first pixel.
+	 * 
+	 * @param entranceExit
+	 *            ArrayList that contains the entrance and exit openings
+	 *            followed by any other openings.
+	 * @return ArrayList that contains the entrance and exit openings, but has
+	 *         connected them to surrounding nodes.
+	 * 
+	 */
+	private ArrayList<ArrayList<Node>> linkEntranceExit(ArrayList<ArrayList<Node>> entranceExit) {
+
+		// steps to the pixel right, left, down and up of a pixel
+		int[] directions = { stride, -stride, 1, -1 };
+
+		int start;
+		int p;
+		int target = -1;
+		int distance = 0;
+
+		if (entranceExit.size() > 0) {
+
+			builder.setEntrance(entranceExit.get(0).get(0).getId());
+		}
+
+		if (entranceExit.size() > 1) {
+
+			builder.setExit(entranceExit.get(1).get(0).getId());
+		}
+
+		// goes over the entrance and exit openings
+		for (int a = 0; a < entranceExit.size(); a++) {
+
+			// node on every pixel of the opening, by its index in the grid
+			HashMap<Integer, Integer> pixelNode = new HashMap<Integer, Integer>();
+
+			for (Node n : entranceExit.get(a)) {
+
+				pixelNode.put(pixelIndex(n.getRow(), n.getCol()), n.getId());
+			}
+
+			for (Node n : entranceExit.get(a)) {
+
+				start = pixelIndex(n.getRow(), n.getCol());
+
+				// looks in every direction of the opening node for a node to
+				// connect to, the border around the grid stops the search at
+				// the edge of the maze
+				for (int d = 0; d < directions.length && target == -1; d++) {
+
+					distance = 0;
+
+					for (p = start + directions[d]; grid[p] != 0; p += directions[d]) {
+
+						distance++;
+
+						if (nodeAt[p] != -1) {
+
+							target = nodeAt[p];
+							break;
+						}
+					}
+				}
+
+				// connects to the node that was found
+				if (target != -1) {
+
+					// connects entrance node
+					if (a == 0) {
+
+						builder.addEdge(n.getId(), target, distance);
+					}
+
+					// connects exit node and any other opening
+					else {
+
+						builder.addEdge(target, n.getId(), distance);
+					}
+				}
+
+				target = -1;
+
+				// links the pixel to the ones right of and below it in the
+				// opening, which links every pair next to each other once
+				for (int next : new int[] { start + stride, start + 1 }) {
+
+					if (pixelNode.containsKey(next)) {
+
+						builder.addEdge(n.getId(), pixelNode.get(next), 1);
+					}
+				}
+			}
+		}
+
+		return entranceExit;
+	}
+
+	/**
+	 * 
+	 * Places a node where there is either a corner or an intersection and
+	 * links it to the nodes it has a straight corridor to.
+	 */
+	public void placeNodes() {
+
+		placeNodes(false);
+	}
+
+	/**
+	 * 
+	 * Places a node where there is either a corner or an intersection and
+	 * links it to the nodes it has a straight corridor to. The maze is split
+	 * into bands of rows which can be worked on at the same time. Nodes are
+	 * found in every band first, then numbered in the same order a single
+	 * pass over the maze would number them, and only then linked, so a
+	 * corridor that crosses from one band into another always finds the node
+	 * at its other end. The graph is the same whether or not the bands are
+	 * worked on in parallel.
+	 * 
+	 * @param parallel
+	 *            whether the bands should be worked on by the fork-join
+	 *            common pool or one after the other on this thread.
+	 */
+	public void placeNodes(boolean parallel) {
+
+		loadImage();
+
+		nodeAt = new int[grid.length];
+		Arrays.fill(nodeAt, -1);
+
+		// placing the nodes again starts over
+		builder = new GraphBuilder();
+		graph = null;
+
+		SolverMetrics.Phase phase = metrics.startPhase("placeNodes");
+
+		// one band when working on one thread, a few per thread otherwise
+		int numBands = 1;
+
+		if (parallel) {
+
+			numBands = Math.max(1, Math.min(rows - 2, ForkJoinPool.getCommonPoolParallelism() * 4));
+		}
+
+		Band[] bands = new Band[numBands];
+		int bandSize = (Math.max(0, rows - 2) + numBands - 1) / numBands;
+
+		for (int b = 0; b < numBands; b++) {
+
+			bands[b] = new Band(Math.min(rows - 1, 1 + b * bandSize), Math.min(rows - 1, 1 + (b + 1) * bandSize));
+		}
+
+		// a single band can add its nodes and corridors to the graph directly
+		if (numBands == 1) {
+
+			bands[0].builder = builder;
+		}
+
+		// finds the nodes in every band
+		forEachBand(bands, parallel, this::findNodes);
+
+		// the nodes of a band are numbered after the nodes of all bands above it
+		int numNodes = 0;
+
+		for (int b = 0; b < numBands; b++) {
+
+			bands[b].firstId = builder.getNumNodes() + numNodes;
+			numNodes += bands[b].numNodes;
+		}
 
-					// adds a node to the list of entrance and exit nodes
-					entranceExit.add(new Node(i, j));
+		forEachBand(bands, parallel, this::numberNodes);
 
-					foundExit = makeExit(i, j);
-					break;
-				}
-			}
+		// links the nodes once every node has its number
+		forEachBand(bands, parallel, this::linkNodes);
 
-			// entrance and exit has been found, then break
-			if (foundExit) {
+		for (int b = 0; b < numBands && numBands > 1; b++) {
 
-				break;
-			}
+			builder.append(bands[b].builder);
 		}
 
-		/*
-		 * passes the entrance and exit nodes to a helper method that links them
-		 * to to other nodes in the maze
-		 */
-		return linkEntranceExit(entranceExit);
+		placedNodes = builder.getNumNodes();
+		placedEdges = builder.getNumEdges();
+
+		phase.end();
 	}
 
 	/**
-	 *
-	 * Determines if the x, y coordinate pair is at the edge of the maze.
-	 *
-	 * @param x x coordinate of the pixel in the maze
-	 * @param y y coordinate of the pixel in the maze
-	 * @return whether or not the coordinate pair is at the edge of the maze.
+	 * 
+	 * Rows of the maze that are worked on together when placing nodes, along
+	 * with the nodes and corridors found in them.
 	 */
-	private boolean isNotEdgeOfMap(int x, int y){
+	private static class Band {
+
+		private int firstRow;
+		private int lastRow;
+		private int numNodes = 0;
+		private int firstId;
+		private GraphBuilder builder = new GraphBuilder();
+
+		/**
+		 * 
+		 * Constructor for a band of rows.
+		 * 
+		 * @param firstRow
+		 *            first row of the band.
+		 * @param lastRow
+		 *            row just past the last row of the band.
+		 */
+		private Band(int firstRow, int lastRow) {
 
-		return x != 0 && y != 0 && x != image.getHeight() - 1 && y != image.getWidth() - 1;
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+		}
 	}
 
 	/**
-	 *
-	 * Colors the exit pixel red.
-	 *
-	 * @param x x coordinate of the exit pixel.
-	 * @param y y coordinate of the exit pixel.
-	 * @return true that an exit has been made.
+	 * 
+	 * Runs a task on every band, either on the fork-join common pool or one
+	 * band after the other.
+	 * 
+	 * @param bands
+	 *            bands to run the task on.
+	 * @param parallel
+	 *            whether the bands can be worked on at the same time.
+	 * @param task
+	 *            task to run on every band.
 	 */
-	private boolean makeExit(int x, int y){
+	private void forEachBand(Band[] bands, boolean parallel, Consumer<Band> task) {
 
-		System.out.println("Exit at (" + y + ", " + x + ")");
+		if (parallel) {
 
-		// sets the pixel to red
-		image.setRGB(x, y, Color.RED.getRGB());
-		imageCopy.setRGB(x, y, Color.RED.getRGB());
+			Arrays.stream(bands).parallel().forEach(task);
+		}
 
-		return true;
+		else {
+
+			Arrays.stream(bands).forEach(task);
+		}
 	}
 
 	/**
-	 *
-	 * Colors the entrance pixel red.
-	 *
-	 * @param x x coordinate of the entrance pixel.
-	 * @param y y coordinate of the entrance pixel.
-	 * @return true that an entrance has been made.
+	 * 
+	 * Marks every pixel of a band that is a valid place for a node and counts
+	 * them.
+	 * 
+	 * @param band
+	 *            band to look for nodes in.
 	 */
-	private boolean makeEntrance(int x, int y){
+	private void findNodes(Band band) {
 
-		System.out.println("Entrance at (" + y + ", " + x + ")");
+		int p;
 
-		// sets the pixel to red
-		image.setRGB(x, y, Color.RED.getRGB());
-		imageCopy.setRGB(x, y, Color.RED.getRGB());
+		for (int i = band.firstRow; i < band.lastRow; i++) {
+			for (int j = 1; j < cols - 1; j++) {
 
-		return true;
+				p = pixelIndex(i, j);
+
+				if (grid[p] != 0 && validNode(p)) {
+
+					nodeAt[p] = -2;
+					band.numNodes++;
+				}
+			}
+		}
 	}
 
 	/**
 	 * 
-	 * Helper method that links the entrance and exit nodes to other nodes.
-	 * 
-	 * @param entranceExit
-	 *            ArrayList that contains the entrance and exit nodes.
-	 * @return ArrayList that contains the entrance and exit nodes, but has
-	 *         connected them to surrounding nodes.
+	 * Gives every node marked in a band its index in the graph.
 	 * 
+	 * @param band
+	 *            band whose nodes will be numbered.
 	 */
-	private ArrayList<Node> linkEntranceExit(ArrayList<Node> entranceExit) {
-
-		Node entrance = entranceExit.get(0);
-
-		int currRow;
-		int currCol;
-		int targetRow = 0;
-		int targetCol = 0;
-
-		boolean foundNode = false;
-		int counter = 0;
-		boolean connected = false;
-
-		// goes over the entrance and exit nodes
-		for (int a = 0; a < entranceExit.size(); a++) {
+	private void numberNodes(Band band) {
 
-			currRow = entranceExit.get(a).getRow();
-			currCol = entranceExit.get(a).getCol();
+		int p;
+		int id = band.firstId;
 
-			// looks right of entrance or exit node for a node to connect to
-			try {
-				for (int j = currRow + 1; true; j++) {
+		for (int i = band.firstRow; i < band.lastRow; i++) {
+			for (int j = 1; j < cols - 1; j++) {
 
-					if (image.getRGB(j, currCol) == black) {
-						break;
-					}
+				p = pixelIndex(i, j);
 
-					if (image.getRGB(j, currCol) == Color.RED.getRGB()) {
+				if (nodeAt[p] == -2) {
 
-						targetRow = j;
-						targetCol = currCol;
-						foundNode = true;
-						break;
-					}
+					band.builder.addNode(i, j);
+					nodeAt[p] = id++;
 				}
-			} catch (ArrayIndexOutOfBoundsException oob) {
-
 			}
+		}
+	}
 
-			// looks left of entrance or exit node for a node to connect to
-			if (!foundNode) {
+	/**
+	 * 
+	 * Links every node of a band to the node before it in the same row and to
+	 * the node above it, if there is a straight corridor between them.
+	 * 
+	 * @param band
+	 *            band whose nodes will be linked.
+	 */
+	private void linkNodes(Band band) {
 
-				try {
-					for (int j = currRow - 1; true; j--) {
+		int counter = 0;
+		int prevNode = -1;
+		int prevCol = 0;
+		int id;
+		int p;
 
-						if (image.getRGB(j, currCol) == black) {
-							break;
-						}
+		// loops over the band
+		for (int i = band.firstRow; i < band.lastRow; i++) {
 
-						if (image.getRGB(j, currCol) == Color.RED.getRGB()) {
+			for (int j = 1; j < cols - 1; j++) {
 
-							targetRow = j;
-							targetCol = currCol;
-							foundNode = true;
-							break;
-						}
-					}
-				} catch (ArrayIndexOutOfBoundsException oob) {
+				p = pixelIndex(i, j);
 
-				}
-			}
+				// if the pixel is black, there can't be a connection to be made
+				// to a node above
+				if (grid[p] == 0) {
 
-			// looks down of entrance or exit node for a node to connect to
-			if (!foundNode) {
+					prevNode = -1;
+					continue;
+				}
 
-				try {
-					for (int j = currCol + 1; true; j++) {
+				// valid node position
+				if (nodeAt[p] != -1) {
 
-						if (image.getRGB(currRow, j) == black) {
-							break;
-						}
+					id = nodeAt[p];
 
-						if (image.getRGB(currRow, j) == Color.RED.getRGB()) {
+					// available node connection to the above
+					if (prevNode != -1) {
 
-							targetRow = currRow;
-							targetCol = j;
-							foundNode = true;
-							break;
-						}
+						// links the discovered node to a node above (if
+						// possible), the corridor is as long as the gap
+						// between the two nodes
+						band.builder.addEdge(prevNode, id, j - prevCol);
 					}
-				} catch (ArrayIndexOutOfBoundsException oob) {
 
-				}
-			}
+					prevNode = id;
+					prevCol = j;
+
+					// looks left for another node connection, which may be
+					// in another band
+					for (int up = p - stride; up >= stride * 2; up -= stride) {
 
-			// looks up of entrance or exit node for a node to connect to
-			if (!foundNode) {
+						counter++;
 
-				try {
-					for (int j = currCol - 1; true; j--) {
+						// search encountered a wall before it found a node to
+						// the left
+						if (grid[up] == 0) {
 
-						if (image.getRGB(currRow, j) == black) {
 							break;
 						}
 
-						if (image.getRGB(currRow, j) == Color.RED.getRGB()) {
+						// found a node to the left of the new discovered node
+						if (nodeAt[up] != -1) {
+
+							// make a node connection
+							band.builder.addEdge(nodeAt[up], id, counter);
 
-							targetRow = currRow;
-							targetCol = j;
-							foundNode = true;
 							break;
 						}
+
 					}
-				} catch (ArrayIndexOutOfBoundsException oob) {
 
+					counter = 0;
 				}
 			}
 
-			// finds proper key of the node to connect to
-			for (int i = 1; i < image.getHeight() - 1; i++) {
-				for (int j = 1; j < image.getWidth() - 1; j++) {
-
-					counter++;
-
-					if (i != targetRow || j != targetCol) {
+			prevNode = -1;
+		}
+	}
 
-						continue;
-					}
+	/**
+	 * 
+	 * Returns the index of a pixel in the grid, going row by row.
+	 * 
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return index of the pixel.
+	 */
+	private int pixelIndex(int row, int col) {
 
-					// connects entrance node
-					if (a == 0) {
+		return (row + 1) * stride + col + 1;
+	}
 
-						entrance.addNodeDistancePair(1, map.get(Integer.toString(counter)));
-						map.get(Integer.toString(counter)).addNodeDistancePair(1, entrance);
-						connected = true;
-						break;
-					}
+	/**
+	 * 
+	 * Makes a new node in the graph.
+	 * 
+	 * @param row
+	 *            row of the pixel where the node is placed.
+	 * @param col
+	 *            column of the pixel where the node is placed.
+	 * @return the new node.
+	 */
+	private Node addNode(int row, int col) {
 
-					// connects exit node
-					else {
+		return new Node(builder.addNode(row, col), row, col);
+	}
 
-						map.get(Integer.toString(counter)).setHasExit();
-						connected = true;
-						break;
-					}
-				}
+	/**
+	 * 
+	 * Returns the graph of the maze. Must be called after the nodes have been
+	 * placed and the entrance and exit have been linked.
+	 * 
+	 * @return graph of the nodes and corridors of the maze.
+	 */
+	public Graph getGraph() {
 
-				if (connected) {
-					connected = false;
-					break;
-				}
-			}
+		if (graph == null) {
 
-			counter = 0;
-			foundNode = false;
+			graph = builder.build();
+			metrics.graphBuilt(graph.getNumNodes(), graph.getNumEdges() / 2);
 		}
 
-		return entranceExit;
+		return graph;
 	}
 
 	/**
 	 * 
-	 * Places a node where there is either a corner or an intersection and
-	 * colors that pixel red.
+	 * Returns the grid of walls, with 1 for every pixel that can be walked on
+	 * and 0 for every wall. Pixel (row, col) is at (row + 1) * (getCols() + 2)
+	 * + col + 1, and the grid has a border of wall around the maze.
+	 * 
+	 * @return grid of walls of the maze.
 	 */
-	public void placeNodes() {
+	public byte[] getGrid() {
 
-		int key = 0;
-		int secondKey = 0;
-		int counter = 0;
-		int rightCounter;
-		Node prevNode = null;
+		loadImage();
 
-		int numNodes = 0;
+		return grid;
+	}
 
-		// starts timer
-		System.out.println("Creating nodes...");
-		long currTime = System.nanoTime();
+	/**
+	 * 
+	 * Returns the number of rows of the maze.
+	 * 
+	 * @return number of rows of the maze.
+	 */
+	public int getRows() {
 
-		// loops over image
-		for (int i = 1; i < image.getHeight() - 1; i++) {
+		loadImage();
 
-			rightCounter = -1;
+		return rows;
+	}
 
-			for (int j = 1; j < image.getWidth() - 1; j++) {
+	/**
+	 * 
+	 * Returns the number of columns of the maze.
+	 * 
+	 * @return number of columns of the maze.
+	 */
+	public int getCols() {
 
-				rightCounter++;
-				key++;
+		loadImage();
 
-				// if the pixel is black, there can't be a connection to be made
-				// to a node above
-				if (image.getRGB(i, j) == black) {
+		return cols;
+	}
 
-					rightCounter = -1;
-					prevNode = null;
-					continue;
-				}
+	/**
+	 * 
+	 * Helper method that determines if the pixel under consideration is a valid
+	 * place for a node.
+	 * 
+	 * @param p
+	 *            index in the grid of the pixel under consideration.
+	 * @return whether or not this pixel is a valid position for a node.
+	 */
+	private boolean validNode(int p) {
 
-				// valid node position
-				if (image.getRGB(i, j) == white && validNode(i, j)) {
+		// looks above and below
+		boolean up = grid[p - stride] != 0;
+		boolean down = grid[p + stride] != 0;
 
-					numNodes++;
+		// looks left and right
+		boolean left = grid[p - 1] != 0;
+		boolean right = grid[p + 1] != 0;
 
-					image.setRGB(i, j, Color.RED.getRGB());
+		boolean vertical = up || down;
+		boolean horizontal = left || right;
 
-					// makes a new node and places it in a hashmap
-					map.put(Integer.toString(key), new Node(i, j));
+		int numMoves = (up ? 1 : 0) + (down ? 1 : 0) + (left ? 1 : 0) + (right ? 1 : 0);
 
-					// available node connection to the above
-					if (rightCounter != 0 && prevNode != null) {
+		return numMoves > 2 || (vertical && horizontal);
+	}
 
-						// links the discovered node to a node above (if
-						// possible)
-						prevNode.addNodeDistancePair(rightCounter, map.get(Integer.toString(key)));
-						map.get(Integer.toString(key)).addNodeDistancePair(rightCounter, prevNode);
-					}
+	/**
+	 * 
+	 * Sets how Nodes.png and Path.png are written from now on. SYNC unless
+	 * set otherwise.
+	 * 
+	 * @param imageOutput
+	 *            how the images are written.
+	 */
+	public void setImageOutput(ImageOutput imageOutput) {
 
-					prevNode = map.get(Integer.toString(key));
+		this.imageOutput = imageOutput;
+	}
 
-					secondKey = key;
+	/**
+	 * 
+	 * Sets the files the images are written to from now on, so that mazes
+	 * solved at the same time don't write over each other's images.
+	 * Nodes.png and Path.png in the working directory unless set otherwise.
+	 * 
+	 * @param nodesFile
+	 *            file the nodes are drawn to.
+	 * @param pathFile
+	 *            file the path is drawn to.
+	 */
+	public void setImageFiles(File nodesFile, File pathFile) {
 
-					// looks left for another node connection
-					for (int up = i - 1; up > 0; up--) {
+		this.nodesFile = nodesFile;
+		this.pathFile = pathFile;
+	}
 
-						counter++;
-						secondKey -= (image.getHeight() - 2);
+	/**
+	 * 
+	 * Sets where the time spent on every phase and the size of the graph are
+	 * reported from now on. Nothing is reported unless set.
+	 * 
+	 * @param metrics
+	 *            metrics to report to.
+	 */
+	public void setMetrics(SolverMetrics metrics) {
 
-						// search encountered a wall before it found a node to
-						// the left
-						if (image.getRGB(up, j) == black) {
+		this.metrics = metrics;
+	}
 
-							break;
-						}
+	/**
+	 * 
+	 * Sets where messages about the maze, such as where the entrance and exit
+	 * are, are printed from now on. System.out unless set, QUIET to print
+	 * nothing.
+	 * 
+	 * @param console
+	 *            stream to print to.
+	 */
+	public void setConsole(PrintStream console) {
 
-						// found a node to the left of the new discovered node
-						if (image.getRGB(up, j) == Color.RED.getRGB()) {
+		this.console = console;
+	}
 
-							// make a node connection
-							prevNode.addNodeDistancePair(counter, map.get(Integer.toString(secondKey)));
-							map.get(Integer.toString(secondKey)).addNodeDistancePair(counter, prevNode);
+	/**
+	 * 
+	 * Waits for the images still being written on the background thread, if
+	 * any, and stops the thread.
+	 */
+	public void finishPrinting() {
 
-							break;
-						}
+		if (printer == null) {
 
-					}
+			return;
+		}
 
-					counter = 0;
-				}
-			}
+		printer.shutdown();
 
-			prevNode = null;
+		try {
+
+			printer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
 		}
 
-		// stops timer
-		System.out.println("\n" + numNodes + " nodes have been created. ("
-				+ ((double) (System.nanoTime() - currTime) / 1000000000) + " seconds)\n");
+		printer = null;
 	}
 
 	/**
 	 * 
-	 * Helper method that determines if the pixel under consideration is a valid
-	 * place for a node.
+	 * Returns the thread images are written on in the background, starting
+	 * it if it isn't running yet. It doesn't keep the program running, so
+	 * finishPrinting() has to be called before exiting.
 	 * 
-	 * @param row
-	 *            row of the image where a pixel under consideration is.
-	 * @param col
-	 *            column of the image where a pixel under consideration is.
-	 * @return whether or not this pixel is a valid position for a node.
+	 * @return executor of the background thread.
 	 */
-	private boolean validNode(int row, int col) {
+	private ExecutorService printer() {
 
-		boolean horizontal = false;
-		boolean vertical = false;
+		if (printer == null) {
 
-		int numMoves = 0;
+			printer = Executors.newSingleThreadExecutor(task -> {
 
+				Thread thread = new Thread(task, "image-printer");
+				thread.setDaemon(true);
 
-		for (int i = -1; i < 2; i += 2){
+				return thread;
+			});
+		}
 
-			// Looks above and below
-			try {
-				if (image.getRGB(row + i, col) == white || image.getRGB(row + i, col) == Color.RED.getRGB()) {
+		return printer;
+	}
 
-					vertical = true;
-					numMoves++;
-				}
-			} catch (ArrayIndexOutOfBoundsException oob) {
+	/**
+	 * 
+	 * Creates a png of the maze passed in, but colors the pixels red where a
+	 * node has been placed. With ASYNC output the png is created on the
+	 * background thread and this returns right away; with NONE and REGION it
+	 * isn't created at all.
+	 */
+	public void printNodes() {
 
-			}
+		if (imageOutput == ImageOutput.NONE || imageOutput == ImageOutput.REGION) {
 
-			// Looks left and right
-			try {
-				if (image.getRGB(row, col + i) == white || image.getRGB(row, col + i) == Color.RED.getRGB()) {
+			return;
+		}
 
-					horizontal = true;
-					numMoves++;
-				}
-			} catch (ArrayIndexOutOfBoundsException oob) {
+		// the graph and image are ready before the background thread sees them
+		Graph graph = getGraph();
+		loadImage();
 
-			}
+		if (imageOutput == ImageOutput.ASYNC) {
+
+			printer().execute(() -> drawNodes(graph));
+			return;
 		}
 
-		return numMoves > 2 || (vertical && horizontal);
+		drawNodes(graph);
 	}
 
 	/**
 	 * 
-	 * Creates a png of the maze passed in, but colors the pixels red where a
-	 * node has been placed.
+	 * Draws the nodes on a copy of the maze and writes it to Nodes.png.
+	 * 
+	 * @param graph
+	 *            graph whose nodes are drawn.
 	 */
-	public void printNodes() {
+	private void drawNodes(Graph graph) {
+
+		SolverMetrics.Phase phase = metrics.startPhase("printNodes");
+
+		BufferedImage bi = copyImage();
+
+		// colors the pixels where a node has been placed
+		for (int i = 0; i < graph.getNumNodes(); i++) {
 
-		// starts timer
-		System.out.println("\nGenerating Nodes.png...");
-		long currTime = System.nanoTime();
+			bi.setRGB(graph.getRow(i), graph.getCol(i), Color.RED.getRGB());
+		}
 
 		try {
 
-			BufferedImage bi = image;
-			File outputfile = new File("Nodes.png");
-			ImageIO.write(bi, "png", outputfile);
+			ImageIO.write(bi, "png", nodesFile);
 		} catch (IOException e) {
 
+			console.println("Could not write " + nodesFile + "- " + e.getMessage());
 		}
 
-		// stops timer
-		double timeSpent = (double) (System.nanoTime() - currTime) / 1000000000;
-		timeSpentPrinting += timeSpent;
-
-		System.out.println("Nodes.png has been generated (" + timeSpent + " seconds)\n");
+		phase.end();
 	}
 
 	/**
 	 * 
-	 * Sorts the list passed in with an Insertion Sort algorithm based on their
-	 * distance instance variable.
+	 * Backpropogates path from the exit back to the entrance. Colors the path
+	 * red between the nodes.
 	 * 
-	 * @param list
-	 *            list of nodes to be sorted according to their distance
-	 *            instance variable.
-	 * @return sorted list of nodes.
+	 * @param prevNode
+	 *            index of the node through which the path has to go to reach
+	 *            each node, -1 for the entrance.
 	 */
-	public LinkedList<Node> sort(List<Node> list) {
+	public void backpropogate(int[] prevNode) {
 
-		Node[] nodeSort = list.toArray(new Node[list.size()]);
+		Path path = Path.fromPrevNode(getGraph(), prevNode);
 
-		Node temp;
-
-		boolean foundMistake = false;
+		backpropogate(path.getRowsFromExit(), path.getColsFromExit());
+	}
 
-		//loops over unsorted portion
-		for (int i = 0; i < list.size(); i++){
+	/**
+	 * 
+	 * Colors the path red between the points it turns at and prints it. The
+	 * points go from the exit back to the entrance and every point must be in
+	 * the same row or column as the one after it. With ASYNC output the path
+	 * is drawn and printed on the background thread and this returns right
+	 * away; with REGION only the part of the maze around the path is printed.
+	 * 
+	 * @param pathRows
+	 *            row of every point on the path, not changed afterwards.
+	 * @param pathCols
+	 *            column of every point on the path, not changed afterwards.
+	 */
+	public void backpropogate(int[] pathRows, int[] pathCols) {
 
-			//loops over sorted portion
-			for (int j = i; j > 0; j--){
+		if (imageOutput == ImageOutput.NONE) {
 
-				//if unsorted element is to be inserted before or into this index
-				if (list.get(j).getDistance() < list.get(j - 1).getDistance()){
+			return;
+		}
 
-					//swap into this index
-					temp = list.get(j);
-					list.add(j, list.get(j - 1));
-					list.add(j - 1, temp);
-				}
+		loadImage();
 
-				else{
+		if (imageOutput == ImageOutput.ASYNC) {
 
-					break;
-				}
-			}
+			printer().execute(() -> drawPath(pathRows, pathCols));
+			return;
 		}
 
-		return new LinkedList (Arrays.asList(nodeSort));
+		drawPath(pathRows, pathCols);
 	}
 
 	/**
 	 * 
-	 * Backpropogates path from the exit back to the entrance. Colors the path
-	 * red between the nodes.
+	 * Draws the path on a copy of the maze, or of the part of it around the
+	 * path, and writes it to Path.png.
 	 * 
-	 * @param n
-	 *            the exit node from which backpropogation will begin.
+	 * @param pathRows
+	 *            row of every point on the path.
+	 * @param pathCols
+	 *            column of every point on the path.
 	 */
-	public void backpropogate(Node n) {
+	private void drawPath(int[] pathRows, int[] pathCols) {
 
-		Node printNode = n;
+		// corner of the part of the maze that is printed
+		int firstRow = 0;
+		int firstCol = 0;
+		BufferedImage imageCopy;
 
-		// starts timer
-		System.out.println("Starting backpropogation...");
-		long currTime = System.nanoTime();
-		int sign;
+		if (imageOutput == ImageOutput.REGION && pathRows.length > 0) {
 
-		// while there is another node through which the path continues
-		while (printNode.hasPrevNode()) {
+			int lastRow = pathRows[0];
+			int lastCol = pathCols[0];
 
-			imageCopy.setRGB(printNode.getRow(), printNode.getCol(), Color.RED.getRGB());
+			firstRow = pathRows[0];
+			firstCol = pathCols[0];
 
-			// draws lines between nodes
-			sign = printNode.getCol() - printNode.getPrevNode().getCol();
-			sign = sign / Math.abs(sign);
+			for (int p = 1; p < pathRows.length; p++) {
+
+				firstRow = Math.min(firstRow, pathRows[p]);
+				firstCol = Math.min(firstCol, pathCols[p]);
+				lastRow = Math.max(lastRow, pathRows[p]);
+				lastCol = Math.max(lastCol, pathCols[p]);
+			}
 
+			firstRow = Math.max(0, firstRow - REGION_MARGIN);
+			firstCol = Math.max(0, firstCol - REGION_MARGIN);
+			lastRow = Math.min(rows - 1, lastRow + REGION_MARGIN);
+			lastCol = Math.min(cols - 1, lastCol + REGION_MARGIN);
+
+			imageCopy = copyImage(firstRow, firstCol, lastRow - firstRow + 1, lastCol - firstCol + 1);
+		}
+
+		else {
+
+			imageCopy = copyImage();
+		}
+
+		int row;
+		int col;
+		int prevRow;
+		int prevCol;
+
+		SolverMetrics.Phase phase = metrics.startPhase("backpropogate");
+
+		// while there is another point through which the path continues
+		for (int p = 0; p < pathRows.length - 1; p++) {
+
+			row = pathRows[p] - firstRow;
+			col = pathCols[p] - firstCol;
+			prevRow = pathRows[p + 1] - firstRow;
+			prevCol = pathCols[p + 1] - firstCol;
+
+			imageCopy.setRGB(row, col, Color.RED.getRGB());
+
+			// draws lines between nodes
 
 			// if the previous node is left of the current node
-			if (printNode.getCol() > printNode.getPrevNode().getCol()) {
+			if (col > prevCol) {
 
-				for (int i = printNode.getCol() - 1; i > printNode.getPrevNode().getCol(); i--) {
+				for (int i = col - 1; i > prevCol; i--) {
 
-					imageCopy.setRGB(printNode.getRow(), i, Color.RED.getRGB());
+					imageCopy.setRGB(row, i, Color.RED.getRGB());
 				}
 			}
 
 			// if the previous node is right of the current node
-			else if (printNode.getCol() < printNode.getPrevNode().getCol()) {
+			else if (col < prevCol) {
 
-				for (int i = printNode.getCol() + 1; i < printNode.getPrevNode().getCol(); i++) {
+				for (int i = col + 1; i < prevCol; i++) {
 
-					imageCopy.setRGB(printNode.getRow(), i, Color.RED.getRGB());
+					imageCopy.setRGB(row, i, Color.RED.getRGB());
 				}
 			}
 
 			// if the previous node is above the current node
-			else if (printNode.getRow() > printNode.getPrevNode().getRow()) {
+			else if (row > prevRow) {
 
-				for (int i = printNode.getRow() - 1; i > printNode.getPrevNode().getRow(); i--) {
+				for (int i = row - 1; i > prevRow; i--) {
 
-					imageCopy.setRGB(i, printNode.getCol(), Color.RED.getRGB());
+					imageCopy.setRGB(i, col, Color.RED.getRGB());
 				}
 			}
 
 			// if the previous node is below the current node
-			else if (printNode.getRow() < printNode.getPrevNode().getRow()) {
+			else if (row < prevRow) {
 
-				for (int i = printNode.getRow() + 1; i < printNode.getPrevNode().getRow(); i++) {
+				for (int i = row + 1; i < prevRow; i++) {
 
-					imageCopy.setRGB(i, printNode.getCol(), Color.RED.getRGB());
+					imageCopy.setRGB(i, col, Color.RED.getRGB());
 				}
 			}
-
-			printNode = printNode.getPrevNode();
 		}
 
-		System.out.println("Backpropogation has finished " + ((double) (System.nanoTime() - currTime) / 1000000000)
-				+ " seconds)\n");
+		// colors the entrance
+		if (pathRows.length > 0) {
+
+			imageCopy.setRGB(pathRows[pathRows.length - 1] - firstRow, pathCols[pathCols.length - 1] - firstCol,
+					Color.RED.getRGB());
+		}
 
-		System.out.println("Generating Path.png...");
-		currTime = System.nanoTime();
+		phase.end();
+		phase = metrics.startPhase("printPath");
 
 		// prints the png with the solution to the maze
 		try {
 
-			BufferedImage printing = imageCopy;
-			File outputfile = new File("Path.png");
-			ImageIO.write(printing, "png", outputfile);
+			ImageIO.write(imageCopy, "png", pathFile);
 		} catch (IOException e) {
 
+			console.println("Could not write " + pathFile + "- " + e.getMessage());
 		}
 
-		double timeSpent = (double) (System.nanoTime() - currTime) / 1000000000;
-		timeSpentPrinting += timeSpent;
-
-		System.out.println("Path.png has been generated (" + timeSpent + " seconds)\n");
+		phase.end();
 	}
 
 }
@@ -0,0 +1,34 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * How Helper writes Nodes.png and Path.png.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public enum ImageOutput {
+
+	/**
+	 * No images are drawn or written.
+	 */
+	NONE,
+
+	/**
+	 * Both images are drawn and written right away, before the method that
+	 * asked for them returns.
+	 */
+	SYNC,
+
+	/**
+	 * Both images are drawn and written on a background thread while solving
+	 * goes on, Helper.finishPrinting() waits for them.
+	 */
+	ASYNC,
+
+	/**
+	 * Only Path.png is written, cut down to the part of the maze around the
+	 * path.
+	 */
+	REGION
+}
@@ -0,0 +1,288 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Binary min-heap of node ids ordered by an integer key. Every id keeps track
+ * of its position in the heap, so the key of a node that is already under
+ * consideration can be lowered in place instead of adding the node twice.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class IndexedHeap implements Frontier {
+
+	// heap[i] is the id of the node stored at position i of the heap
+	private int[] heap;
+
+	// position[id] is where the node with this id sits in the heap, -1 if absent
+	private int[] position;
+
+	// key[id] is the value the node with this id is ordered by
+	private int[] key;
+
+	private int size = 0;
+
+	// nodes added or moved up, nodes removed and the most nodes held at once
+	private int numPushes = 0;
+	private int numPolls = 0;
+	private int maxSize = 0;
+
+	/**
+	 *
+	 * Constructor for a heap that can hold the ids 0 to capacity - 1.
+	 *
+	 * @param capacity
+	 *            number of distinct ids that can be stored in the heap.
+	 */
+	public IndexedHeap(int capacity) {
+
+		heap = new int[capacity];
+		position = new int[capacity];
+		key = new int[capacity];
+
+		Arrays.fill(position, -1);
+	}
+
+	/**
+	 *
+	 * Returns if there are no more nodes in the heap.
+	 *
+	 * @return true if the heap is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+
+		return size == 0;
+	}
+
+	/**
+	 *
+	 * Returns the number of nodes in the heap.
+	 *
+	 * @return number of nodes in the heap.
+	 */
+	public int size() {
+
+		return size;
+	}
+
+	/**
+	 *
+	 * Returns how many times a node has been added or had its key lowered.
+	 *
+	 * @return number of adds and key decreases.
+	 */
+	public int getNumPushes() {
+
+		return numPushes;
+	}
+
+	/**
+	 *
+	 * Returns how many nodes have been removed from the heap.
+	 *
+	 * @return number of polls.
+	 */
+	public int getNumPolls() {
+
+		return numPolls;
+	}
+
+	/**
+	 *
+	 * Returns the most nodes the heap has held at once.
+	 *
+	 * @return largest size of the heap.
+	 */
+	public int getMaxSize() {
+
+		return maxSize;
+	}
+
+	/**
+	 *
+	 * Removes every node and sets the counts back to 0, so the heap can be
+	 * used again. Only costs as much as the nodes that were left in it.
+	 */
+	public void clear() {
+
+		for (int i = 0; i < size; i++) {
+
+			position[heap[i]] = -1;
+		}
+
+		size = 0;
+		numPushes = 0;
+		numPolls = 0;
+		maxSize = 0;
+	}
+
+	/**
+	 *
+	 * Returns if the node with this id is currently in the heap.
+	 *
+	 * @param id
+	 *            id of the node.
+	 * @return true if the node is in the heap, false otherwise.
+	 */
+	public boolean contains(int id) {
+
+		return position[id] != -1;
+	}
+
+	/**
+	 *
+	 * Adds a node to the heap.
+	 *
+	 * @param id
+	 *            id of the node, must not already be in the heap.
+	 * @param value
+	 *            key the node is ordered by.
+	 */
+	public void add(int id, int value) {
+
+		key[id] = value;
+		heap[size] = id;
+		position[id] = size;
+		size++;
+		numPushes++;
+		maxSize = Math.max(maxSize, size);
+
+		siftUp(size - 1);
+	}
+
+	/**
+	 *
+	 * Lowers the key of a node that is already in the heap.
+	 *
+	 * @param id
+	 *            id of the node.
+	 * @param value
+	 *            new key of the node, must not be larger than the old one.
+	 */
+	public void decreaseKey(int id, int value) {
+
+		key[id] = value;
+		numPushes++;
+		siftUp(position[id]);
+	}
+
+	/**
+	 *
+	 * Returns the id of the node with the smallest key without removing it.
+	 *
+	 * @return id of the node with the smallest key.
+	 */
+	public int peek() {
+
+		return heap[0];
+	}
+
+	/**
+	 *
+	 * Returns the smallest key in the heap.
+	 *
+	 * @return smallest key in the heap.
+	 */
+	public int peekKey() {
+
+		return key[heap[0]];
+	}
+
+	/**
+	 *
+	 * Removes the node with the smallest key and returns its id.
+	 *
+	 * @return id of the node with the smallest key.
+	 */
+	public int poll() {
+
+		int top = heap[0];
+
+		size--;
+		numPolls++;
+		position[top] = -1;
+
+		// moves the last node to the top and lets it sink into place
+		if (size > 0) {
+
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+
+		return top;
+	}
+
+	/**
+	 *
+	 * Moves the node at index i up until its parent has a smaller key.
+	 *
+	 * @param i
+	 *            index in the heap of the node to move.
+	 */
+	private void siftUp(int i) {
+
+		int id = heap[i];
+		int value = key[id];
+
+		while (i > 0) {
+
+			int parent = (i - 1) >>> 1;
+
+			if (key[heap[parent]] <= value) {
+
+				break;
+			}
+
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+
+		heap[i] = id;
+		position[id] = i;
+	}
+
+	/**
+	 *
+	 * Moves the node at index i down until both children have larger keys.
+	 *
+	 * @param i
+	 *            index in the heap of the node to move.
+	 */
+	private void siftDown(int i) {
+
+		int id = heap[i];
+		int value = key[id];
+
+		while (true) {
+
+			int child = 2 * i + 1;
+
+			if (child >= size) {
+
+				break;
+			}
+
+			// picks the smaller of the two children
+			if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+
+				child++;
+			}
+
+			if (key[heap[child]] >= value) {
+
+				break;
+			}
+
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+
+		heap[i] = id;
+		position[id] = i;
+	}
+}
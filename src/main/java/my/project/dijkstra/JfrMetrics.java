@@ -0,0 +1,124 @@
+package my.project.dijkstra;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ *
+ * Turns every metric into a Java Flight Recorder event, so that solving can
+ * be looked at in JDK Mission Control next to everything else the JVM
+ * records. The events are only recorded while a recording that has them
+ * enabled is running, for example one started with
+ * -XX:StartFlightRecording, and cost next to nothing otherwise.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class JfrMetrics implements SolverMetrics {
+
+	/**
+	 *
+	 * A phase of solving, lasting as long as the phase did.
+	 */
+	@Name("my.project.dijkstra.Phase")
+	@Label("Solver Phase")
+	@Category("Dijkstra")
+	static class PhaseEvent extends Event {
+
+		@Label("Phase")
+		String phase;
+	}
+
+	/**
+	 *
+	 * The graph of a maze once it has been built.
+	 */
+	@Name("my.project.dijkstra.Graph")
+	@Label("Graph Built")
+	@Category("Dijkstra")
+	static class GraphEvent extends Event {
+
+		@Label("Nodes")
+		int nodes;
+
+		@Label("Corridors")
+		int edges;
+	}
+
+	/**
+	 *
+	 * The work a search did.
+	 */
+	@Name("my.project.dijkstra.Search")
+	@Label("Search Finished")
+	@Category("Dijkstra")
+	static class SearchEvent extends Event {
+
+		@Label("Search")
+		String search;
+
+		@Label("Frontier Pushes")
+		int pushes;
+
+		@Label("Frontier Pops")
+		int pops;
+
+		@Label("Relaxations")
+		@Description("Corridors looked at from the nodes taken off the frontier")
+		int relaxations;
+
+		@Label("Largest Frontier")
+		int maxFrontier;
+	}
+
+	public Phase startPhase(String name) {
+
+		final PhaseEvent event = new PhaseEvent();
+
+		if (!event.isEnabled()) {
+
+			return Phase.NONE;
+		}
+
+		event.phase = name;
+		event.begin();
+
+		return new Phase() {
+
+			public void end() {
+
+				event.commit();
+			}
+		};
+	}
+
+	public void graphBuilt(int numNodes, int numEdges) {
+
+		GraphEvent event = new GraphEvent();
+
+		if (event.isEnabled()) {
+
+			event.nodes = numNodes;
+			event.edges = numEdges;
+			event.commit();
+		}
+	}
+
+	public void searchFinished(String search, int pushes, int pops, int relaxations, int maxFrontier) {
+
+		SearchEvent event = new SearchEvent();
+
+		if (event.isEnabled()) {
+
+			event.search = search;
+			event.pushes = pushes;
+			event.pops = pops;
+			event.relaxations = relaxations;
+			event.maxFrontier = maxFrontier;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,554 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ *
+ * Jump Point Search straight on the grid of walls, without placing any nodes.
+ * Of all the shortest paths between two pixels it only looks for the ones
+ * that move along a column whenever they can and only move along a row until
+ * a column opens up that they couldn't have reached earlier. That lets the
+ * search jump over every pixel in between, so only the pixels where such a
+ * path can turn are ever put on the heap. The pixels are ordered by distance
+ * travelled plus the Manhattan distance left to the exit, like A*.
+ *
+ * Where the jumps stop comes from JumpTables, which can be shared by every
+ * search on a maze. A search itself only keeps the jump points it reaches.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class JumpPointSearch {
+
+	private JumpTables jumps;
+	private byte[] grid;
+	private int stride;
+	private int start;
+	private int goal;
+
+	// first and last pixel of the stretch of the exit's row the exit can be
+	// reached along without crossing a wall
+	private int goalFirst;
+	private int goalLast;
+
+	// steps to the next pixel along a row and along a column
+	private int[] rowSteps = { 1, -1 };
+	private int[] colSteps;
+
+	// every pixel the search has reached, by its index in the grid. Only jump
+	// points are ever reached, so this stays small next to the maze
+	private HashMap<Integer, JumpPoint> points = new HashMap<Integer, JumpPoint>();
+
+	// heap of pixels under consideration, each entry is key << 32 | pixel
+	private long[] heap = new long[64];
+	private int heapSize = 0;
+
+	private int numExpanded = 0;
+	private int numPushes = 0;
+	private int numPops = 0;
+	private int numJumps = 0;
+	private int maxHeapSize = 0;
+
+	/**
+	 *
+	 * What the search knows about a pixel it has reached.
+	 */
+	private static final class JumpPoint {
+
+		// distance to the pixel, the pixel the path jumped from and the step
+		// it arrived with (0 for the entrance)
+		private int distance;
+		private int parent;
+		private int arrival;
+		private boolean closed = false;
+
+		private JumpPoint(int distance, int parent, int arrival) {
+
+			this.distance = distance;
+			this.parent = parent;
+			this.arrival = arrival;
+		}
+	}
+
+	/**
+	 *
+	 * Constructor for a search over the grid of walls of a maze, which works
+	 * out the jumps of the maze for itself.
+	 *
+	 * @param grid
+	 *            grid of walls with a border of wall around the maze, see
+	 *            Helper.getGrid().
+	 * @param cols
+	 *            number of columns of the maze.
+	 * @param entrance
+	 *            entrance of the maze.
+	 * @param exit
+	 *            exit of the maze.
+	 */
+	public JumpPointSearch(byte[] grid, int cols, Node entrance, Node exit) {
+
+		this(new JumpTables(grid, cols), entrance, exit);
+	}
+
+	/**
+	 *
+	 * Constructor for a search that uses jumps worked out before, so that
+	 * searches on the same maze don't each work them out again.
+	 *
+	 * @param jumps
+	 *            jumps of the maze.
+	 * @param entrance
+	 *            where the path starts.
+	 * @param exit
+	 *            where the path ends.
+	 */
+	public JumpPointSearch(JumpTables jumps, Node entrance, Node exit) {
+
+		this.jumps = jumps;
+		this.grid = jumps.getGrid();
+		this.stride = jumps.getStride();
+		this.start = pixelIndex(entrance.getRow(), entrance.getCol());
+		this.goal = pixelIndex(exit.getRow(), exit.getCol());
+
+		colSteps = new int[] { stride, -stride };
+	}
+
+	/**
+	 *
+	 * Looks for the shortest path from the entrance to the exit.
+	 *
+	 * @return true if a path has been found, false otherwise.
+	 */
+	public boolean run() {
+
+		goalFirst = goal;
+		goalLast = goal;
+
+		// an exit in a wall can't be reached along any row
+		if (grid[goal] == 0) {
+
+			goalFirst = goal + 1;
+		}
+
+		else {
+
+			while (grid[goalFirst - 1] != 0) {
+
+				goalFirst--;
+			}
+
+			while (grid[goalLast + 1] != 0) {
+
+				goalLast++;
+			}
+		}
+
+		points.put(start, new JumpPoint(0, -1, 0));
+		push(estimate(start), start);
+
+		int topPixel;
+		JumpPoint top;
+
+		while (heapSize > 0) {
+
+			topPixel = (int) pop();
+			top = points.get(topPixel);
+			numPops++;
+
+			// an older entry for a pixel that has already been expanded
+			if (top.closed) {
+
+				continue;
+			}
+
+			top.closed = true;
+			numExpanded++;
+
+			if (topPixel == goal) {
+
+				return true;
+			}
+
+			// the entrance can go anywhere
+			if (top.arrival == 0) {
+
+				for (int d = 0; d < 2; d++) {
+
+					addJumpPoint(topPixel, top, jumpAlongRow(topPixel, rowSteps[d]), rowSteps[d]);
+					addJumpPoint(topPixel, top, jumpAlongCol(topPixel, colSteps[d]), colSteps[d]);
+				}
+			}
+
+			// arrived moving along a row, keeps going and turns into a column
+			// only where the pixel before couldn't have turned into it
+			else if (top.arrival == 1 || top.arrival == -1) {
+
+				int step = top.arrival;
+
+				addJumpPoint(topPixel, top, jumpAlongRow(topPixel, step), step);
+
+				for (int d = 0; d < 2; d++) {
+
+					if (jumps.forced(topPixel, step, colSteps[d])) {
+
+						addJumpPoint(topPixel, top, jumpAlongCol(topPixel, colSteps[d]), colSteps[d]);
+					}
+				}
+			}
+
+			// arrived moving along a column, keeps going or turns into the row
+			else {
+
+				int step = top.arrival;
+
+				addJumpPoint(topPixel, top, jumpAlongCol(topPixel, step), step);
+
+				for (int d = 0; d < 2; d++) {
+
+					addJumpPoint(topPixel, top, jumpAlongRow(topPixel, rowSteps[d]), rowSteps[d]);
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 *
+	 * Returns where a move along a row from a pixel stops: at the exit or at
+	 * a pixel where a column opens up that the pixel before it didn't have.
+	 *
+	 * @param from
+	 *            pixel to start moving from.
+	 * @param step
+	 *            1 or -1.
+	 * @return the pixel the jump stopped at, -1 if it ran into a wall.
+	 */
+	private int jumpAlongRow(int from, int step) {
+
+		int stop = jumps.rowJump(from, step);
+
+		// the exit is ahead on the same stretch of row, before any other stop
+		if (from >= goalFirst && from <= goalLast && ahead(from, goal, step)
+				&& (stop == -1 || !ahead(stop, goal, step))) {
+
+			return goal;
+		}
+
+		return stop;
+	}
+
+	/**
+	 *
+	 * Returns where a move along a column from a pixel stops: at the exit or
+	 * at a pixel from which a jump along its row finds something.
+	 *
+	 * @param from
+	 *            pixel to start moving from.
+	 * @param step
+	 *            number of columns plus 2, or its negative.
+	 * @return the pixel the jump stopped at, -1 if it ran into a wall.
+	 */
+	private int jumpAlongCol(int from, int step) {
+
+		int stop = jumps.colJump(from, step);
+
+		// end of the move, the stop or the wall it runs into
+		int end = stop >= 0 ? stop : -1 - stop;
+
+		// pixel of the column in the exit's row, from which a jump along the
+		// row finds the exit
+		int crossing = goal - goal % stride + from % stride;
+
+		if (crossing >= goalFirst && crossing <= goalLast && ahead(from, crossing, step)
+				&& (ahead(crossing, end, step) || end == crossing && stop >= 0)) {
+
+			return crossing;
+		}
+
+		return stop >= 0 ? stop : -1;
+	}
+
+	/**
+	 *
+	 * Returns if a pixel comes after another when moving with a step. The
+	 * difference of two pixels times a step along a column can be too big
+	 * for an int, so they are compared instead.
+	 *
+	 * @param p
+	 *            pixel moved from.
+	 * @param q
+	 *            pixel to check.
+	 * @param step
+	 *            step moved with.
+	 * @return true if q is further along than p.
+	 */
+	private static boolean ahead(int p, int q, int step) {
+
+		return step > 0 ? q > p : q < p;
+	}
+
+	/**
+	 *
+	 * Puts a pixel found by a jump on the heap if it is reached with a shorter
+	 * distance than before.
+	 *
+	 * @param from
+	 *            pixel the jump started at.
+	 * @param fromPoint
+	 *            what the search knows about that pixel.
+	 * @param to
+	 *            pixel the jump stopped at, -1 if it found nothing.
+	 * @param step
+	 *            step the jump was made with.
+	 */
+	private void addJumpPoint(int from, JumpPoint fromPoint, int to, int step) {
+
+		numJumps++;
+
+		if (to == -1) {
+
+			return;
+		}
+
+		JumpPoint point = points.get(to);
+		int newDistance = fromPoint.distance + Math.abs(to - from) / Math.abs(step);
+
+		if (point == null) {
+
+			points.put(to, new JumpPoint(newDistance, from, step));
+			push(newDistance + estimate(to), to);
+		}
+
+		else if (!point.closed && newDistance < point.distance) {
+
+			point.distance = newDistance;
+			point.parent = from;
+			point.arrival = step;
+			push(newDistance + estimate(to), to);
+		}
+	}
+
+	/**
+	 *
+	 * Returns the Manhattan distance from a pixel to the exit.
+	 *
+	 * @param p
+	 *            pixel.
+	 * @return lower bound on the distance left to the exit.
+	 */
+	private int estimate(int p) {
+
+		return Math.abs(p / stride - goal / stride) + Math.abs(p % stride - goal % stride);
+	}
+
+	/**
+	 *
+	 * Adds an entry to the heap.
+	 *
+	 * @param key
+	 *            value the entry is ordered by.
+	 * @param p
+	 *            pixel of the entry.
+	 */
+	private void push(int key, int p) {
+
+		if (heapSize == heap.length) {
+
+			heap = Arrays.copyOf(heap, heapSize * 2);
+		}
+
+		long entry = (long) key << 32 | p;
+		int i = heapSize++;
+
+		numPushes++;
+		maxHeapSize = Math.max(maxHeapSize, heapSize);
+
+		while (i > 0 && heap[(i - 1) >>> 1] > entry) {
+
+			heap[i] = heap[(i - 1) >>> 1];
+			i = (i - 1) >>> 1;
+		}
+
+		heap[i] = entry;
+	}
+
+	/**
+	 *
+	 * Removes the entry with the smallest key from the heap.
+	 *
+	 * @return the removed entry.
+	 */
+	private long pop() {
+
+		long top = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+		int child;
+
+		while ((child = 2 * i + 1) < heapSize) {
+
+			if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+
+				child++;
+			}
+
+			if (heap[child] >= last) {
+
+				break;
+			}
+
+			heap[i] = heap[child];
+			i = child;
+		}
+
+		heap[i] = last;
+
+		return top;
+	}
+
+	/**
+	 *
+	 * Returns the index of a pixel in the grid.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return index of the pixel.
+	 */
+	private int pixelIndex(int row, int col) {
+
+		return (row + 1) * stride + col + 1;
+	}
+
+	/**
+	 *
+	 * Returns the length of the path that has been found.
+	 *
+	 * @return length of the path in pixels.
+	 */
+	public int getPathLength() {
+
+		JumpPoint point = points.get(goal);
+
+		return point != null ? point.distance : Integer.MAX_VALUE;
+	}
+
+	/**
+	 *
+	 * Returns how many pixels were taken off the heap while looking for the
+	 * path.
+	 *
+	 * @return number of jump points expanded.
+	 */
+	public int getNumExpanded() {
+
+		return numExpanded;
+	}
+
+	/**
+	 *
+	 * Returns how many entries were put on the heap, counting a pixel again
+	 * every time a shorter way to it was found.
+	 *
+	 * @return number of heap pushes.
+	 */
+	public int getNumPushes() {
+
+		return numPushes;
+	}
+
+	/**
+	 *
+	 * Returns how many entries were taken off the heap, including old entries
+	 * of pixels that had already been expanded.
+	 *
+	 * @return number of heap pops.
+	 */
+	public int getNumPops() {
+
+		return numPops;
+	}
+
+	/**
+	 *
+	 * Returns how many jumps were made from the expanded pixels.
+	 *
+	 * @return number of jumps.
+	 */
+	public int getNumJumps() {
+
+		return numJumps;
+	}
+
+	/**
+	 *
+	 * Returns the most entries the heap held at once.
+	 *
+	 * @return largest size of the heap.
+	 */
+	public int getMaxHeapSize() {
+
+		return maxHeapSize;
+	}
+
+	/**
+	 *
+	 * Returns the rows of the jump points on the path, from the exit back to
+	 * the entrance.
+	 *
+	 * @return row of every jump point on the path.
+	 */
+	public int[] getPathRows() {
+
+		int[] pathRows = new int[countJumpPoints()];
+		int k = 0;
+
+		for (int p = goal; p != -1; p = points.get(p).parent) {
+
+			pathRows[k++] = p / stride - 1;
+		}
+
+		return pathRows;
+	}
+
+	/**
+	 *
+	 * Returns the columns of the jump points on the path, from the exit back
+	 * to the entrance.
+	 *
+	 * @return column of every jump point on the path.
+	 */
+	public int[] getPathCols() {
+
+		int[] pathCols = new int[countJumpPoints()];
+		int k = 0;
+
+		for (int p = goal; p != -1; p = points.get(p).parent) {
+
+			pathCols[k++] = p % stride - 1;
+		}
+
+		return pathCols;
+	}
+
+	/**
+	 *
+	 * Counts the jump points on the path.
+	 *
+	 * @return number of jump points on the path.
+	 */
+	private int countJumpPoints() {
+
+		int count = 0;
+
+		for (int p = goal; p != -1; p = points.get(p).parent) {
+
+			count++;
+		}
+
+		return count;
+	}
+}
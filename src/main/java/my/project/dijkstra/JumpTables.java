@@ -0,0 +1,224 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Where every jump of Jump Point Search stops on the grid of a maze, worked
+ * out once for the maze and shared by every search on it, whatever pixels
+ * they go between. A jump along a row stops at a pixel where a column opens
+ * up that the pixel before it didn't have, and a jump along a column stops
+ * at a pixel from which a jump along its row stops somewhere. The exit a
+ * search is looking for stops jumps too, but that depends on the search, so
+ * JumpPointSearch looks for it on top of these stops.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class JumpTables {
+
+	private byte[] grid;
+	private int stride;
+
+	// pixel every jump along a row stops at from each pixel, -1 if it runs
+	// into a wall, for steps of 1 and -1
+	private int[][] rowJumps;
+
+	// pixel every jump along a column stops at from each pixel, or -1 - w if
+	// it runs into the wall at pixel w, for steps of stride and -stride
+	private int[][] colJumps;
+
+	/**
+	 *
+	 * Constructor for the jumps over the grid of walls of a maze.
+	 *
+	 * @param grid
+	 *            grid of walls with a border of wall around the maze, see
+	 *            Helper.getGrid().
+	 * @param cols
+	 *            number of columns of the maze.
+	 */
+	public JumpTables(byte[] grid, int cols) {
+
+		this.grid = grid;
+		this.stride = cols + 2;
+
+		build();
+	}
+
+	/**
+	 *
+	 * Works out where every jump stops. A jump from a pixel stops wherever the
+	 * jump from the next pixel stops, unless the next pixel is a wall or a
+	 * stop itself, so each table is filled in one sweep against the direction
+	 * of its jumps. Finding where a jump along a column stops takes one look
+	 * up per row instead of moving along the row from every pixel it passes,
+	 * which made open rooms quadratic.
+	 */
+	private void build() {
+
+		int size = grid.length;
+
+		rowJumps = new int[2][size];
+		colJumps = new int[2][size];
+
+		for (int d = 0; d < 2; d++) {
+
+			Arrays.fill(rowJumps[d], -1);
+			Arrays.fill(colJumps[d], -1);
+		}
+
+		// the jumps along a column need the ones along the rows
+		for (int p = size - 2; p >= 0; p--) {
+
+			rowJumps[0][p] = nextRowJump(p, 1, rowJumps[0]);
+		}
+
+		for (int p = 1; p < size; p++) {
+
+			rowJumps[1][p] = nextRowJump(p, -1, rowJumps[1]);
+		}
+
+		for (int p = size - 1 - stride; p >= 0; p--) {
+
+			colJumps[0][p] = nextColJump(p, stride, colJumps[0]);
+		}
+
+		for (int p = stride; p < size; p++) {
+
+			colJumps[1][p] = nextColJump(p, -stride, colJumps[1]);
+		}
+	}
+
+	/**
+	 *
+	 * Returns where a jump along a row stops, given where the jump from the
+	 * next pixel stops.
+	 *
+	 * @param p
+	 *            pixel the jump starts at.
+	 * @param step
+	 *            1 or -1.
+	 * @param jumps
+	 *            stops of the jumps with the same step.
+	 * @return the pixel the jump stops at, -1 if it runs into a wall.
+	 */
+	private int nextRowJump(int p, int step, int[] jumps) {
+
+		int next = p + step;
+
+		if (grid[next] == 0) {
+
+			return -1;
+		}
+
+		if (forced(next, step, stride) || forced(next, step, -stride)) {
+
+			return next;
+		}
+
+		return jumps[next];
+	}
+
+	/**
+	 *
+	 * Returns where a jump along a column stops, given where the jump from
+	 * the next pixel stops.
+	 *
+	 * @param p
+	 *            pixel the jump starts at.
+	 * @param step
+	 *            number of columns plus 2, or its negative.
+	 * @param jumps
+	 *            stops of the jumps with the same step.
+	 * @return the pixel the jump stops at, or -1 - w if it runs into the
+	 *         wall at pixel w.
+	 */
+	private int nextColJump(int p, int step, int[] jumps) {
+
+		int next = p + step;
+
+		if (grid[next] == 0) {
+
+			return -1 - next;
+		}
+
+		if (rowJumps[0][next] != -1 || rowJumps[1][next] != -1) {
+
+			return next;
+		}
+
+		return jumps[next];
+	}
+
+	/**
+	 *
+	 * Returns if a pixel reached along a row can turn into a column that the
+	 * pixel before it couldn't turn into.
+	 *
+	 * @param p
+	 *            pixel reached.
+	 * @param step
+	 *            step along the row it was reached with.
+	 * @param turn
+	 *            step along the column it would turn into.
+	 * @return true if the turn has to be looked at from this pixel.
+	 */
+	boolean forced(int p, int step, int turn) {
+
+		return grid[p + turn] != 0 && grid[p - step + turn] == 0;
+	}
+
+	/**
+	 *
+	 * Returns where a jump along a row stops, leaving the exit aside.
+	 *
+	 * @param from
+	 *            pixel to start moving from.
+	 * @param step
+	 *            1 or -1.
+	 * @return the pixel the jump stops at, -1 if it runs into a wall.
+	 */
+	int rowJump(int from, int step) {
+
+		return rowJumps[step == 1 ? 0 : 1][from];
+	}
+
+	/**
+	 *
+	 * Returns where a jump along a column stops, leaving the exit aside.
+	 *
+	 * @param from
+	 *            pixel to start moving from.
+	 * @param step
+	 *            number of columns plus 2, or its negative.
+	 * @return the pixel the jump stops at, or -1 - w if it runs into the wall
+	 *         at pixel w.
+	 */
+	int colJump(int from, int step) {
+
+		return colJumps[step == stride ? 0 : 1][from];
+	}
+
+	/**
+	 *
+	 * Returns the grid the jumps were worked out on.
+	 *
+	 * @return grid of walls with a border of wall around the maze.
+	 */
+	byte[] getGrid() {
+
+		return grid;
+	}
+
+	/**
+	 *
+	 * Returns how far apart two pixels above each other are in the grid.
+	 *
+	 * @return number of columns plus 2.
+	 */
+	int getStride() {
+
+		return stride;
+	}
+}
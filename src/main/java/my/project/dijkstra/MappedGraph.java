@@ -0,0 +1,89 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * A graph read straight from its memory-mapped file in the cache, see
+ * GraphCache.map(String). Nothing of the graph is copied onto the heap, so
+ * a search only reads in the pages of the file it touches and the operating
+ * system can drop them again when memory runs short.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class MappedGraph extends Graph {
+
+	private final MappedInts ints;
+
+	// where every array of the Graph starts in the file
+	private final long offsets;
+	private final long targets;
+	private final long weights;
+	private final long rows;
+	private final long cols;
+
+	/**
+	 *
+	 * Constructor for a graph over the ints of a graph file. The file must
+	 * already have been checked to hold a whole graph.
+	 *
+	 * @param ints
+	 *            ints of the graph file.
+	 * @param numNodes
+	 *            number of nodes, from the header of the file.
+	 * @param numEdges
+	 *            number of edges, from the header of the file.
+	 * @param maxWeight
+	 *            length of the longest edge.
+	 * @param entrance
+	 *            index of the entrance node.
+	 * @param exit
+	 *            index of the exit node.
+	 */
+	MappedGraph(MappedInts ints, int numNodes, int numEdges, int maxWeight, int entrance, int exit) {
+
+		super(numNodes, numEdges, maxWeight, entrance, exit);
+
+		this.ints = ints;
+		this.offsets = GraphCache.offsetsStart();
+		this.targets = GraphCache.targetsStart(numNodes);
+		this.weights = GraphCache.weightsStart(numNodes, numEdges);
+		this.rows = GraphCache.rowsStart(numNodes, numEdges);
+		this.cols = GraphCache.colsStart(numNodes, numEdges);
+	}
+
+	@Override
+	public int getRow(int id) {
+
+		return ints.get(rows + id);
+	}
+
+	@Override
+	public int getCol(int id) {
+
+		return ints.get(cols + id);
+	}
+
+	@Override
+	public int getFirstEdge(int id) {
+
+		return ints.get(offsets + id);
+	}
+
+	@Override
+	public int getLastEdge(int id) {
+
+		return ints.get(offsets + id + 1);
+	}
+
+	@Override
+	public int getTarget(int edge) {
+
+		return ints.get(targets + edge);
+	}
+
+	@Override
+	public int getWeight(int edge) {
+
+		return ints.get(weights + edge);
+	}
+}
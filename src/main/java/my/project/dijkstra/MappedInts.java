@@ -0,0 +1,148 @@
+package my.project.dijkstra;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *
+ * A file of little-endian ints that is memory-mapped a segment at a time, so
+ * that files larger than a single mapping allows can still be read and
+ * written by index.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class MappedInts {
+
+	// 2^26 ints, 256 MB, per mapping
+	private static final int SEGMENT_SHIFT = 26;
+	private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+	private IntBuffer[] segments;
+	private long size;
+
+	/**
+	 *
+	 * Maps the ints of a file.
+	 *
+	 * @param channel
+	 *            channel of the file, opened for writing if the mode is
+	 *            READ_WRITE.
+	 * @param mode
+	 *            READ_ONLY or READ_WRITE.
+	 * @param size
+	 *            number of ints to map, the file grows to fit them when
+	 *            writing.
+	 * @throws IOException
+	 *             if the file can't be mapped.
+	 */
+	public MappedInts(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+
+		this.size = size;
+
+		int numSegments = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		segments = new IntBuffer[numSegments];
+
+		for (int s = 0; s < numSegments; s++) {
+
+			long first = (long) s << SEGMENT_SHIFT;
+			long length = Math.min(size - first, 1L << SEGMENT_SHIFT);
+
+			segments[s] = channel.map(mode, first * 4, length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		}
+	}
+
+	/**
+	 *
+	 * Returns the number of ints mapped.
+	 *
+	 * @return number of ints mapped.
+	 */
+	public long size() {
+
+		return size;
+	}
+
+	/**
+	 *
+	 * Returns the int at an index.
+	 *
+	 * @param index
+	 *            index of the int.
+	 * @return the int at the index.
+	 */
+	public int get(long index) {
+
+		return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+	}
+
+	/**
+	 *
+	 * Sets the int at an index.
+	 *
+	 * @param index
+	 *            index of the int.
+	 * @param value
+	 *            new value of the int.
+	 */
+	public void put(long index, int value) {
+
+		segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+	}
+
+	/**
+	 *
+	 * Copies ints starting at an index into an array, filling the array.
+	 *
+	 * @param index
+	 *            index of the first int to copy.
+	 * @param dst
+	 *            array to copy into.
+	 */
+	public void get(long index, int[] dst) {
+
+		int done = 0;
+
+		while (done < dst.length) {
+
+			IntBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)].duplicate();
+			segment.position((int) (index & SEGMENT_MASK));
+
+			int length = Math.min(dst.length - done, segment.remaining());
+			segment.get(dst, done, length);
+
+			done += length;
+			index += length;
+		}
+	}
+
+	/**
+	 *
+	 * Copies an array into the ints starting at an index.
+	 *
+	 * @param index
+	 *            index the first int of the array goes to.
+	 * @param src
+	 *            array to copy from.
+	 * @param length
+	 *            number of ints of the array to copy.
+	 */
+	public void put(long index, int[] src, int length) {
+
+		int done = 0;
+
+		while (done < length) {
+
+			IntBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)].duplicate();
+			segment.position((int) (index & SEGMENT_MASK));
+
+			int count = Math.min(length - done, segment.remaining());
+			segment.put(src, done, count);
+
+			done += count;
+			index += count;
+		}
+	}
+}
@@ -0,0 +1,567 @@
+package my.project.dijkstra;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ *
+ * Makes mazes of any size, one row of pixels at a time, with Eller's
+ * algorithm. Only the row of cells being worked on is kept, so even mazes far
+ * too big for memory can be written straight to a PNG file. The same style,
+ * size and seed always give the same maze.
+ *
+ * The maze is a grid of square cells with a wall of one pixel between them.
+ * The entrance is at the top left corner and the exit at the bottom right.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class MazeGenerator {
+
+	/**
+	 *
+	 * Kinds of maze that can be made.
+	 */
+	public enum Style {
+
+		/**
+		 * Corridors one pixel wide with exactly one path between any two
+		 * places.
+		 */
+		PERFECT,
+
+		/**
+		 * Corridors one pixel wide with no dead ends. Every cell that would be
+		 * one has another of its walls knocked down, across or down, so there
+		 * are loops everywhere and many paths to choose from.
+		 */
+		BRAIDED,
+
+		/**
+		 * Large open rooms joined by doors of different widths, with loops.
+		 */
+		OPEN_ROOM
+	}
+
+	// size of a room in pixels, and how often walls that would make a loop
+	// are knocked down anyway
+	private static final int ROOM_SIZE = 16;
+	private static final double ROOM_LOOPS = 0.5;
+
+	private Random random;
+	private int cellSize;
+	private double loopChance;
+
+	// whether dead ends are opened up
+	private boolean braid;
+
+	private int cellsWide;
+	private int cellsHigh;
+	private int width;
+	private int height;
+
+	// set of every cell of the current row of cells, and the union-find
+	// parent of every set
+	private int[] cellSet;
+	private int[] parent;
+
+	// whether every cell of the current row opens to the cell right of it and
+	// the cell below it, and where the door in that wall is
+	private boolean[] east;
+	private boolean[] south;
+	private int[] eastDoor;
+	private int[] eastDoorLength;
+	private int[] southDoor;
+	private int[] southDoorLength;
+
+	private int cellRow = -1;
+	private int y = 0;
+
+	/**
+	 *
+	 * Constructor for a generator of one maze. The maze is made as close to
+	 * the size asked for as the cells allow, never bigger.
+	 *
+	 * @param style
+	 *            kind of maze to make.
+	 * @param width
+	 *            width of the maze in pixels, at least 3.
+	 * @param height
+	 *            height of the maze in pixels, at least 3.
+	 * @param seed
+	 *            seed of the random choices.
+	 */
+	public MazeGenerator(Style style, int width, int height, long seed) {
+
+		random = new Random(seed);
+		cellSize = style == Style.OPEN_ROOM ? ROOM_SIZE : 1;
+		loopChance = style == Style.OPEN_ROOM ? ROOM_LOOPS : 0;
+		braid = style == Style.BRAIDED;
+
+		cellsWide = Math.max(1, (width - 1) / (cellSize + 1));
+		cellsHigh = Math.max(1, (height - 1) / (cellSize + 1));
+		this.width = cellsWide * (cellSize + 1) + 1;
+		this.height = cellsHigh * (cellSize + 1) + 1;
+
+		cellSet = new int[cellsWide];
+		parent = new int[cellsWide];
+		east = new boolean[cellsWide];
+		south = new boolean[cellsWide];
+		eastDoor = new int[cellsWide];
+		eastDoorLength = new int[cellsWide];
+		southDoor = new int[cellsWide];
+		southDoorLength = new int[cellsWide];
+
+		// every cell of the first row starts in a set of its own
+		for (int c = 0; c < cellsWide; c++) {
+
+			cellSet[c] = c;
+		}
+	}
+
+	/**
+	 *
+	 * Returns the width of the maze.
+	 *
+	 * @return width of the maze in pixels.
+	 */
+	public int getWidth() {
+
+		return width;
+	}
+
+	/**
+	 *
+	 * Returns the height of the maze.
+	 *
+	 * @return height of the maze in pixels.
+	 */
+	public int getHeight() {
+
+		return height;
+	}
+
+	/**
+	 *
+	 * Makes the next row of pixels of the maze.
+	 *
+	 * @param open
+	 *            array of at least getWidth() entries, set to 1 for every
+	 *            pixel of the row that can be walked on and 0 for every wall.
+	 */
+	public void nextRow(byte[] open) {
+
+		Arrays.fill(open, 0, width, (byte) 0);
+
+		// the top edge only has the entrance
+		if (y == 0) {
+
+			open[1] = 1;
+		}
+
+		// the bottom edge only has the exit
+		else if (y == height - 1) {
+
+			open[width - 2] = 1;
+		}
+
+		else {
+
+			int inCell = (y - 1) % (cellSize + 1);
+
+			// the first row of pixels of a row of cells
+			if (inCell == 0) {
+
+				nextCellRow();
+			}
+
+			// a row of pixels through the cells
+			if (inCell < cellSize) {
+
+				for (int c = 0; c < cellsWide; c++) {
+
+					int x = 1 + c * (cellSize + 1);
+
+					Arrays.fill(open, x, x + cellSize, (byte) 1);
+
+					if (east[c] && inCell >= eastDoor[c] && inCell < eastDoor[c] + eastDoorLength[c]) {
+
+						open[x + cellSize] = 1;
+					}
+				}
+			}
+
+			// the wall below the cells, with the doors down
+			else {
+
+				for (int c = 0; c < cellsWide; c++) {
+
+					if (south[c]) {
+
+						int x = 1 + c * (cellSize + 1) + southDoor[c];
+
+						Arrays.fill(open, x, x + southDoorLength[c], (byte) 1);
+					}
+				}
+			}
+		}
+
+		y++;
+	}
+
+	/**
+	 *
+	 * Moves on to the next row of cells and decides which of its walls are
+	 * knocked down. Cells in different sets aren't connected yet, so knocking
+	 * down the wall between them never makes a loop. Every set has to go down
+	 * to the next row at least once so that it can still be connected to the
+	 * rest, except in the last row where every set is joined instead.
+	 */
+	private void nextCellRow() {
+
+		cellRow++;
+
+		// which cells of this row the row above opens down into
+		boolean[] north = south.clone();
+
+		boolean lastRow = cellRow == cellsHigh - 1;
+
+		// the sets of the cells that came down from the row above, see below
+		if (cellRow > 0) {
+
+			int[] setOf = new int[cellsWide];
+			int numSets = 0;
+
+			Arrays.fill(setOf, -1);
+
+			for (int c = 0; c < cellsWide; c++) {
+
+				if (south[c]) {
+
+					int root = find(cellSet[c]);
+
+					if (setOf[root] == -1) {
+
+						setOf[root] = numSets++;
+					}
+
+					cellSet[c] = setOf[root];
+				}
+
+				else {
+
+					cellSet[c] = -1;
+				}
+			}
+
+			// cells with no way down into them start a set of their own
+			for (int c = 0; c < cellsWide; c++) {
+
+				if (cellSet[c] == -1) {
+
+					cellSet[c] = numSets++;
+				}
+			}
+		}
+
+		for (int s = 0; s < cellsWide; s++) {
+
+			parent[s] = s;
+		}
+
+		// knocks down walls between neighbours
+		for (int c = 0; c < cellsWide; c++) {
+
+			east[c] = false;
+
+			if (c == cellsWide - 1) {
+
+				continue;
+			}
+
+			int a = find(cellSet[c]);
+			int b = find(cellSet[c + 1]);
+
+			if (a != b && (lastRow || random.nextBoolean())) {
+
+				parent[b] = a;
+				east[c] = true;
+			}
+
+			else if (a == b && loopChance > 0 && random.nextDouble() < loopChance) {
+
+				east[c] = true;
+			}
+
+			if (east[c]) {
+
+				placeEastDoor(c);
+			}
+		}
+
+		// knocks down walls to the row below, at least one for every set
+		boolean[] hasDown = new boolean[cellsWide];
+		int[] lastCell = new int[cellsWide];
+
+		for (int c = 0; c < cellsWide; c++) {
+
+			int root = find(cellSet[c]);
+
+			south[c] = !lastRow && random.nextBoolean();
+			hasDown[root] |= south[c];
+			lastCell[root] = c;
+		}
+
+		for (int c = 0; c < cellsWide && !lastRow; c++) {
+
+			int root = find(cellSet[c]);
+
+			if (!hasDown[root]) {
+
+				south[lastCell[root]] = true;
+				hasDown[root] = true;
+			}
+		}
+
+		if (braid) {
+
+			// the bottom left cell has no wall left to knock down in the last
+			// row if it only opens to the right, so it is opened into from
+			// above
+			if (cellRow == cellsHigh - 2) {
+
+				south[0] = true;
+			}
+
+			openDeadEnds(north, lastRow);
+		}
+
+		for (int c = 0; c < cellsWide; c++) {
+
+			if (south[c]) {
+
+				southDoor[c] = random.nextInt(cellSize);
+				southDoorLength[c] = 1 + random.nextInt(cellSize - southDoor[c]);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Knocks down one more wall of every cell of the row that only opens one
+	 * way, picked at random from the walls to its right, its left and below
+	 * it. The wall above it was decided with the row above, so it is left
+	 * alone. Knocking down a wall only ever adds a way out of the cell on the
+	 * other side, so no cell is made a dead end by it.
+	 *
+	 * @param north
+	 *            which cells the row above opens down into.
+	 * @param lastRow
+	 *            whether this is the last row, which can't open down.
+	 */
+	private void openDeadEnds(boolean[] north, boolean lastRow) {
+
+		int[] walls = new int[3];
+
+		for (int c = 0; c < cellsWide; c++) {
+
+			boolean west = c > 0 && east[c - 1];
+			int ways = (north[c] ? 1 : 0) + (west ? 1 : 0) + (east[c] ? 1 : 0) + (south[c] ? 1 : 0);
+
+			if (ways > 1) {
+
+				continue;
+			}
+
+			// 0 for the wall to the right, 1 to the left and 2 below
+			int numWalls = 0;
+
+			if (c < cellsWide - 1 && !east[c]) {
+
+				walls[numWalls++] = 0;
+			}
+
+			if (c > 0 && !west) {
+
+				walls[numWalls++] = 1;
+			}
+
+			if (!lastRow && !south[c]) {
+
+				walls[numWalls++] = 2;
+			}
+
+			if (numWalls == 0) {
+
+				continue;
+			}
+
+			int wall = walls[random.nextInt(numWalls)];
+
+			if (wall == 0) {
+
+				east[c] = true;
+				placeEastDoor(c);
+			}
+
+			else if (wall == 1) {
+
+				east[c - 1] = true;
+				placeEastDoor(c - 1);
+			}
+
+			else {
+
+				south[c] = true;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Picks where the door in the wall to the right of a cell is and how long
+	 * it is.
+	 *
+	 * @param c
+	 *            column of the cell.
+	 */
+	private void placeEastDoor(int c) {
+
+		eastDoor[c] = random.nextInt(cellSize);
+		eastDoorLength[c] = 1 + random.nextInt(cellSize - eastDoor[c]);
+	}
+
+	/**
+	 *
+	 * Returns the set a set has been joined into.
+	 *
+	 * @param s
+	 *            a set.
+	 * @return the set every set joined with it is part of.
+	 */
+	private int find(int s) {
+
+		while (parent[s] != s) {
+
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+
+		return s;
+	}
+
+	/**
+	 *
+	 * Makes the whole maze and writes it to a PNG file.
+	 *
+	 * @param file
+	 *            file to write the maze to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public void write(File file) throws IOException {
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+
+			PngRowWriter writer = new PngRowWriter(out, width, height);
+			byte[] open = new byte[width];
+
+			for (int row = 0; row < height; row++) {
+
+				nextRow(open);
+				writer.writeRow(open);
+			}
+
+			writer.finish();
+		}
+	}
+
+	/**
+	 *
+	 * Writes a maze to a PNG file.
+	 *
+	 * @param args
+	 *            style (perfect, braided or open-room), width, height, seed
+	 *            and the file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	/**
+	 *
+	 * Reads the kind of maze as it is given on the command line, such as
+	 * open-room.
+	 *
+	 * @param name
+	 *            name of the kind of maze, in any case.
+	 * @return the kind of maze, or null if there is none by that name.
+	 */
+	static Style parseStyle(String name) {
+
+		try {
+
+			return Style.valueOf(name.trim().toUpperCase().replace('-', '_'));
+		} catch (IllegalArgumentException e) {
+
+			return null;
+		}
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length != 5) {
+
+			System.out.println("Usage: MazeGenerator <perfect|braided|open-room> <width> <height> <seed> <file>");
+			return;
+		}
+
+		Style style = parseStyle(args[0]);
+		int width = Dijkstra.parsePositive(args[1]);
+		int height = Dijkstra.parsePositive(args[2]);
+		long seed;
+
+		if (style == null) {
+
+			System.out.println("Unknown style- " + args[0] + ", it has to be perfect, braided or open-room");
+			return;
+		}
+
+		if (width < 3) {
+
+			System.out.println("Invalid width- " + args[1] + ", it has to be a number of at least 3");
+			return;
+		}
+
+		if (height < 3) {
+
+			System.out.println("Invalid height- " + args[2] + ", it has to be a number of at least 3");
+			return;
+		}
+
+		try {
+
+			seed = Long.parseLong(args[3].trim());
+		} catch (NumberFormatException e) {
+
+			System.out.println("Invalid seed- " + args[3] + ", it has to be a whole number");
+			return;
+		}
+
+		MazeGenerator generator = new MazeGenerator(style, width, height, seed);
+
+		try {
+
+			generator.write(new File(args[4]));
+		} catch (IOException e) {
+
+			System.out.println("Couldn't write the maze- " + e.getMessage());
+			return;
+		}
+
+		System.out.println("Wrote a " + generator.getWidth() + "x" + generator.getHeight() + " maze to " + args[4]);
+	}
+}
@@ -0,0 +1,287 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * The points a path through a maze turns at, in order from the entrance to
+ * the exit. Every point is in the same row or column as the one after it, so
+ * the points are all that is needed to know every pixel of the path.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class Path {
+
+	private int[] rows;
+	private int[] cols;
+
+	/**
+	 *
+	 * Constructor for a path. The arrays are kept as they are.
+	 *
+	 * @param rows
+	 *            row of every point, from the entrance to the exit.
+	 * @param cols
+	 *            column of every point, from the entrance to the exit.
+	 */
+	public Path(int[] rows, int[] cols) {
+
+		this.rows = rows;
+		this.cols = cols;
+	}
+
+	/**
+	 *
+	 * Makes the path a search has found through a graph.
+	 *
+	 * @param graph
+	 *            graph that was searched.
+	 * @param prevNode
+	 *            previous node of every node on the path, see
+	 *            Search.getPrevNode().
+	 * @return the path.
+	 */
+	public static Path fromPrevNode(Graph graph, int[] prevNode) {
+
+		int numPoints = 0;
+
+		for (int n = graph.getExit(); n != -1; n = prevNode[n]) {
+
+			numPoints++;
+		}
+
+		int[] rows = new int[numPoints];
+		int[] cols = new int[numPoints];
+		int k = numPoints;
+
+		// the chain goes from the exit back, so it is filled in from the end
+		for (int n = graph.getExit(); n != -1; n = prevNode[n]) {
+
+			rows[--k] = graph.getRow(n);
+			cols[k] = graph.getCol(n);
+		}
+
+		return new Path(rows, cols);
+	}
+
+	/**
+	 *
+	 * Makes the path a search has found between two pixels. The path goes
+	 * from the first pixel to the node it was joined to, through the graph to
+	 * the last node, and on to the second pixel. An endpoint that isn't a
+	 * pixel adds nothing, so the path starts or ends on the node itself.
+	 *
+	 * @param graph
+	 *            graph that was searched.
+	 * @param prevNode
+	 *            previous node of every node on the path, ending with -1 at
+	 *            the node the first pixel was joined to.
+	 * @param last
+	 *            node the second pixel was reached from, or -1 if the path
+	 *            goes straight from one pixel to the other.
+	 * @param from
+	 *            pixel the path starts at.
+	 * @param to
+	 *            pixel the path ends at.
+	 * @return the path.
+	 */
+	public static Path fromPrevNode(Graph graph, int[] prevNode, int last, Endpoint from, Endpoint to) {
+
+		int numNodes = 0;
+
+		for (int n = last; n != -1; n = prevNode[n]) {
+
+			numNodes++;
+		}
+
+		int first = from.isPixel() ? 1 : 0;
+		int numPoints = first + numNodes + (to.isPixel() ? 1 : 0);
+		int[] rows = new int[numPoints];
+		int[] cols = new int[numPoints];
+		int k = first + numNodes;
+
+		if (from.isPixel()) {
+
+			rows[0] = from.getRow();
+			cols[0] = from.getCol();
+		}
+
+		if (to.isPixel()) {
+
+			rows[k] = to.getRow();
+			cols[k] = to.getCol();
+		}
+
+		// the chain goes from the last node back, so it is filled in from the end
+		for (int n = last; n != -1; n = prevNode[n]) {
+
+			rows[--k] = graph.getRow(n);
+			cols[k] = graph.getCol(n);
+		}
+
+		return new Path(rows, cols).withoutRepeats();
+	}
+
+	/**
+	 *
+	 * Returns the path without points that are the same as the point before
+	 * them, which is where a pixel of a path has a node on it.
+	 *
+	 * @return this path if no point repeats, a shorter copy otherwise.
+	 */
+	private Path withoutRepeats() {
+
+		int numPoints = rows.length > 0 ? 1 : 0;
+
+		for (int p = 1; p < rows.length; p++) {
+
+			if (rows[p] != rows[p - 1] || cols[p] != cols[p - 1]) {
+
+				numPoints++;
+			}
+		}
+
+		if (numPoints == rows.length) {
+
+			return this;
+		}
+
+		int[] newRows = new int[numPoints];
+		int[] newCols = new int[numPoints];
+		int k = 0;
+
+		for (int p = 0; p < rows.length; p++) {
+
+			if (p == 0 || rows[p] != rows[p - 1] || cols[p] != cols[p - 1]) {
+
+				newRows[k] = rows[p];
+				newCols[k++] = cols[p];
+			}
+		}
+
+		return new Path(newRows, newCols);
+	}
+
+	/**
+	 *
+	 * Makes a path out of points that go from the exit back to the entrance.
+	 *
+	 * @param pathRows
+	 *            row of every point, from the exit to the entrance.
+	 * @param pathCols
+	 *            column of every point, from the exit to the entrance.
+	 * @return the path.
+	 */
+	public static Path fromExitBack(int[] pathRows, int[] pathCols) {
+
+		int numPoints = pathRows.length;
+		int[] rows = new int[numPoints];
+		int[] cols = new int[numPoints];
+
+		for (int p = 0; p < numPoints; p++) {
+
+			rows[p] = pathRows[numPoints - 1 - p];
+			cols[p] = pathCols[numPoints - 1 - p];
+		}
+
+		return new Path(rows, cols);
+	}
+
+	/**
+	 *
+	 * Returns the number of points on the path.
+	 *
+	 * @return number of points.
+	 */
+	public int getNumPoints() {
+
+		return rows.length;
+	}
+
+	/**
+	 *
+	 * Returns the row of a point.
+	 *
+	 * @param p
+	 *            index of the point, 0 for the entrance.
+	 * @return row of the point.
+	 */
+	public int getRow(int p) {
+
+		return rows[p];
+	}
+
+	/**
+	 *
+	 * Returns the column of a point.
+	 *
+	 * @param p
+	 *            index of the point, 0 for the entrance.
+	 * @return column of the point.
+	 */
+	public int getCol(int p) {
+
+		return cols[p];
+	}
+
+	/**
+	 *
+	 * Returns the length of the path.
+	 *
+	 * @return length of the path in pixels.
+	 */
+	public int getLength() {
+
+		int length = 0;
+
+		for (int p = 1; p < rows.length; p++) {
+
+			length += Math.abs(rows[p] - rows[p - 1]) + Math.abs(cols[p] - cols[p - 1]);
+		}
+
+		return length;
+	}
+
+	/**
+	 *
+	 * Returns the rows of the points from the exit back to the entrance, the
+	 * order Helper.backpropogate() takes them in.
+	 *
+	 * @return row of every point, from the exit to the entrance.
+	 */
+	public int[] getRowsFromExit() {
+
+		return reversed(rows);
+	}
+
+	/**
+	 *
+	 * Returns the columns of the points from the exit back to the entrance,
+	 * the order Helper.backpropogate() takes them in.
+	 *
+	 * @return column of every point, from the exit to the entrance.
+	 */
+	public int[] getColsFromExit() {
+
+		return reversed(cols);
+	}
+
+	/**
+	 *
+	 * Returns a reversed copy of an array.
+	 *
+	 * @param a
+	 *            array to reverse.
+	 * @return reversed copy.
+	 */
+	private static int[] reversed(int[] a) {
+
+		int[] b = new int[a.length];
+
+		for (int i = 0; i < a.length; i++) {
+
+			b[i] = a[a.length - 1 - i];
+		}
+
+		return b;
+	}
+}
@@ -0,0 +1,238 @@
+package my.project.dijkstra;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ *
+ * Writes a path to a file without drawing the maze, so the cost depends on
+ * the length of the path and not on the size of the maze. There are three
+ * formats:
+ *
+ * Binary, a big-endian int magic number "DJKP", the format version, the
+ * number of points and the row and column of the entrance, followed by the
+ * change in row and column to every next point as zig-zag varints.
+ *
+ * Run-length text, "start row col" on the first line and then one line for
+ * every straight run, a direction (R and L along rows, D and U along columns,
+ * matching right, left, down and up in the image) and the number of pixels.
+ *
+ * SVG, a red polyline through the centers of the points, in the pixel
+ * coordinates of the maze so it can be laid over the image.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PathWriter {
+
+	// "DJKP"
+	private static final int MAGIC = 0x444A4B50;
+	private static final int VERSION = 1;
+
+	/**
+	 *
+	 * Writes a path in the format its file name ends with: .svg for SVG, .txt
+	 * for run-length text and binary for anything else.
+	 *
+	 * @param path
+	 *            path to write.
+	 * @param file
+	 *            file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public static void write(Path path, File file) throws IOException {
+
+		String name = file.getName().toLowerCase();
+
+		if (name.endsWith(".svg")) {
+
+			writeSvg(path, file);
+		}
+
+		else if (name.endsWith(".txt")) {
+
+			writeRunLength(path, file);
+		}
+
+		else {
+
+			writeBinary(path, file);
+		}
+	}
+
+	/**
+	 *
+	 * Writes a path in the binary format.
+	 *
+	 * @param path
+	 *            path to write.
+	 * @param file
+	 *            file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public static void writeBinary(Path path, File file) throws IOException {
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(path.getNumPoints());
+
+			if (path.getNumPoints() == 0) {
+
+				return;
+			}
+
+			out.writeInt(path.getRow(0));
+			out.writeInt(path.getCol(0));
+
+			for (int p = 1; p < path.getNumPoints(); p++) {
+
+				writeVarint(out, path.getRow(p) - path.getRow(p - 1));
+				writeVarint(out, path.getCol(p) - path.getCol(p - 1));
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Writes a signed int in as few bytes as it needs, 7 bits per byte with
+	 * the top bit set on every byte but the last. Small negative numbers are
+	 * kept small by zig-zagging them first.
+	 *
+	 * @param out
+	 *            stream to write to.
+	 * @param value
+	 *            int to write.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 */
+	static void writeVarint(DataOutputStream out, int value) throws IOException {
+
+		int zigzag = (value << 1) ^ (value >> 31);
+
+		while ((zigzag & ~0x7F) != 0) {
+
+			out.writeByte((zigzag & 0x7F) | 0x80);
+			zigzag >>>= 7;
+		}
+
+		out.writeByte(zigzag);
+	}
+
+	/**
+	 *
+	 * Writes a path in the run-length text format. Points the path goes
+	 * straight through are joined into a single run.
+	 *
+	 * @param path
+	 *            path to write.
+	 * @param file
+	 *            file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public static void writeRunLength(Path path, File file) throws IOException {
+
+		try (Writer out = new BufferedWriter(new FileWriter(file))) {
+
+			if (path.getNumPoints() == 0) {
+
+				return;
+			}
+
+			out.write("start " + path.getRow(0) + " " + path.getCol(0) + "\n");
+
+			char direction = 0;
+			int run = 0;
+
+			for (int p = 1; p < path.getNumPoints(); p++) {
+
+				int dRow = path.getRow(p) - path.getRow(p - 1);
+				int dCol = path.getCol(p) - path.getCol(p - 1);
+				char next;
+
+				if (dRow > 0) {
+
+					next = 'R';
+				}
+
+				else if (dRow < 0) {
+
+					next = 'L';
+				}
+
+				else if (dCol > 0) {
+
+					next = 'D';
+				}
+
+				else {
+
+					next = 'U';
+				}
+
+				// the path turns, so the run so far is done
+				if (next != direction && run > 0) {
+
+					out.write(direction + " " + run + "\n");
+					run = 0;
+				}
+
+				direction = next;
+				run += Math.abs(dRow) + Math.abs(dCol);
+			}
+
+			if (run > 0) {
+
+				out.write(direction + " " + run + "\n");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Writes a path as an SVG image as big as the part of the maze the path
+	 * reaches into.
+	 *
+	 * @param path
+	 *            path to write.
+	 * @param file
+	 *            file to write to.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	public static void writeSvg(Path path, File file) throws IOException {
+
+		int width = 0;
+		int height = 0;
+
+		for (int p = 0; p < path.getNumPoints(); p++) {
+
+			width = Math.max(width, path.getRow(p) + 1);
+			height = Math.max(height, path.getCol(p) + 1);
+		}
+
+		try (Writer out = new BufferedWriter(new FileWriter(file))) {
+
+			out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+					+ "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+			out.write("<polyline fill=\"none\" stroke=\"red\" stroke-width=\"1\" stroke-linecap=\"square\" points=\"");
+
+			for (int p = 0; p < path.getNumPoints(); p++) {
+
+				out.write((p > 0 ? " " : "") + path.getRow(p) + ".5," + path.getCol(p) + ".5");
+			}
+
+			out.write("\"/>\n</svg>\n");
+		}
+	}
+}
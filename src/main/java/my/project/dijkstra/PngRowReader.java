@@ -0,0 +1,667 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ *
+ * Reads a PNG file one row of pixels at a time and only tells which pixels
+ * are walls, so that a maze never has to be in memory all at once. A pixel is
+ * a wall if it is fully opaque black, the same as a black pixel read through
+ * ImageIO.
+ *
+ * Interlaced files can't be read a row at a time, and ImageIO scales 16 bit
+ * samples down to 8 bits before a pixel is compared with black, so a sample
+ * this reader would see as not quite black can be black to ImageIO. Files
+ * like these are read whole through ImageIO instead, which takes as much
+ * memory as Helper does but gives the same maze.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PngRowReader {
+
+	private static final long SIGNATURE = 0x89504E470D0A1A0AL;
+
+	private static final int GRAY = 0;
+	private static final int RGB = 2;
+	private static final int PALETTE = 3;
+	private static final int GRAY_ALPHA = 4;
+
+	// color of a wall as ImageIO gives it back
+	private static final int BLACK = 0xFF000000;
+
+	private DataInputStream in;
+	private InputStream pixels;
+
+	private int width;
+	private int height;
+	private int bitDepth;
+	private int colorType;
+	private int channels;
+
+	// bytes per complete pixel (at least 1) and per row, without the filter byte
+	private int bytesPerPixel;
+	private int rowBytes;
+
+	// the row being read and the row before it, for undoing the filters
+	private byte[] row;
+	private byte[] prevRow;
+	private int rowsRead = 0;
+
+	// the whole image for the files that are read through ImageIO, null
+	// otherwise
+	private BufferedImage image;
+	private int[] line;
+
+	// which palette entries are walls
+	private boolean[] blackEntries = new boolean[0];
+
+	// a single color that is fully transparent, -1 if there is none
+	private int transparentGray = -1;
+	private int[] transparentRgb = null;
+
+	/**
+	 *
+	 * Constructor for a reader, reads everything up to the first row of
+	 * pixels.
+	 *
+	 * @param in
+	 *            stream of the PNG file.
+	 * @throws IOException
+	 *             if the stream isn't a PNG file this reader can read.
+	 */
+	public PngRowReader(InputStream in) throws IOException {
+
+		// keeps what is read before the pixels in case ImageIO needs it
+		Recorder recorder = new Recorder(in);
+
+		this.in = new DataInputStream(recorder);
+
+		if (this.in.readLong() != SIGNATURE) {
+
+			throw new IOException("Not a PNG file.");
+		}
+
+		int[] palette = new int[0];
+		int[] paletteAlpha = null;
+		boolean interlaced = false;
+
+		// reads chunks until the pixel data starts
+		while (true) {
+
+			int length = this.in.readInt();
+			String type = readType();
+
+			if (type.equals("IDAT")) {
+
+				pixels = new InflaterInputStream(new IdatStream(length));
+				break;
+			}
+
+			byte[] data = new byte[length];
+			this.in.readFully(data);
+			this.in.readInt();
+
+			if (type.equals("IHDR")) {
+
+				width = readInt(data, 0);
+				height = readInt(data, 4);
+				bitDepth = data[8] & 0xFF;
+				colorType = data[9] & 0xFF;
+
+				interlaced = data[12] != 0;
+			}
+
+			else if (type.equals("PLTE")) {
+
+				palette = new int[length / 3];
+
+				for (int i = 0; i < palette.length; i++) {
+
+					palette[i] = (data[i * 3] & 0xFF) << 16 | (data[i * 3 + 1] & 0xFF) << 8 | data[i * 3 + 2] & 0xFF;
+				}
+			}
+
+			else if (type.equals("tRNS")) {
+
+				if (colorType == PALETTE) {
+
+					paletteAlpha = new int[length];
+
+					for (int i = 0; i < length; i++) {
+
+						paletteAlpha[i] = data[i] & 0xFF;
+					}
+				}
+
+				else if (colorType == GRAY) {
+
+					transparentGray = readShort(data, 0);
+				}
+
+				else if (colorType == RGB) {
+
+					transparentRgb = new int[] { readShort(data, 0), readShort(data, 2), readShort(data, 4) };
+				}
+			}
+
+			else if (type.equals("IEND")) {
+
+				throw new IOException("PNG file has no pixel data.");
+			}
+		}
+
+		if (interlaced || bitDepth == 16) {
+
+			readWhole(recorder.recorded(), in);
+			return;
+		}
+
+		recorder.stop();
+
+		// a palette entry is a wall if it is black and not see-through at all
+		blackEntries = new boolean[palette.length];
+
+		for (int i = 0; i < palette.length; i++) {
+
+			blackEntries[i] = palette[i] == 0 && (paletteAlpha == null || i >= paletteAlpha.length
+					|| paletteAlpha[i] == 255);
+		}
+
+		switch (colorType) {
+
+		case GRAY:
+		case PALETTE:
+			channels = 1;
+			break;
+		case GRAY_ALPHA:
+			channels = 2;
+			break;
+		case RGB:
+			channels = 3;
+			break;
+		default:
+			channels = 4;
+		}
+
+		int bitsPerPixel = channels * bitDepth;
+
+		bytesPerPixel = Math.max(1, bitsPerPixel / 8);
+		rowBytes = (int) (((long) width * bitsPerPixel + 7) / 8);
+		row = new byte[rowBytes];
+		prevRow = new byte[rowBytes];
+	}
+
+	/**
+	 *
+	 * Returns the width of the image.
+	 *
+	 * @return width of the image in pixels.
+	 */
+	public int getWidth() {
+
+		return width;
+	}
+
+	/**
+	 *
+	 * Returns the height of the image.
+	 *
+	 * @return height of the image in pixels.
+	 */
+	public int getHeight() {
+
+		return height;
+	}
+
+	/**
+	 *
+	 * Returns if the file had to be read whole through ImageIO, because it is
+	 * interlaced or has 16 bit samples.
+	 *
+	 * @return true if the whole image is in memory.
+	 */
+	public boolean isReadWhole() {
+
+		return image != null;
+	}
+
+	/**
+	 *
+	 * Reads the next row of the image.
+	 *
+	 * @param open
+	 *            array of at least getWidth() entries, set to 1 for every
+	 *            pixel of the row that can be walked on and 0 for every wall.
+	 * @throws IOException
+	 *             if the file ends early or can't be read.
+	 */
+	public void readRow(byte[] open) throws IOException {
+
+		if (rowsRead == height) {
+
+			throw new EOFException("All rows have been read.");
+		}
+
+		if (image != null) {
+
+			image.getRGB(0, rowsRead++, width, 1, line, 0, width);
+
+			for (int x = 0; x < width; x++) {
+
+				open[x] = (byte) (line[x] != BLACK ? 1 : 0);
+			}
+
+			return;
+		}
+
+		byte[] swap = prevRow;
+		prevRow = row;
+		row = swap;
+
+		int filter = pixels.read();
+
+		if (filter == -1) {
+
+			throw new EOFException("PNG file ended early.");
+		}
+
+		readFully(row);
+		unfilter(filter);
+		rowsRead++;
+
+		for (int x = 0; x < width; x++) {
+
+			open[x] = (byte) (isWall(x) ? 0 : 1);
+		}
+	}
+
+	/**
+	 *
+	 * Reads the whole image through ImageIO, for the files whose rows can't
+	 * be read one at a time to give the same walls.
+	 *
+	 * @param header
+	 *            every byte of the file read so far.
+	 * @param rest
+	 *            stream of the rest of the file.
+	 * @throws IOException
+	 *             if ImageIO can't read the file.
+	 */
+	private void readWhole(byte[] header, InputStream rest) throws IOException {
+
+		image = ImageIO.read(new SequenceInputStream(new ByteArrayInputStream(header), rest));
+
+		if (image == null) {
+
+			throw new IOException("PNG file can't be read.");
+		}
+
+		width = image.getWidth();
+		height = image.getHeight();
+		line = new int[width];
+	}
+
+	/**
+	 *
+	 * Undoes the filter the encoder applied to the current row.
+	 *
+	 * @param filter
+	 *            filter type of the row.
+	 * @throws IOException
+	 *             if the filter type is unknown.
+	 */
+	private void unfilter(int filter) throws IOException {
+
+		int left;
+		int up;
+		int upLeft;
+
+		for (int i = 0; i < rowBytes; i++) {
+
+			left = i >= bytesPerPixel ? row[i - bytesPerPixel] & 0xFF : 0;
+			up = prevRow[i] & 0xFF;
+			upLeft = i >= bytesPerPixel ? prevRow[i - bytesPerPixel] & 0xFF : 0;
+
+			switch (filter) {
+
+			case 0:
+				break;
+			case 1:
+				row[i] += left;
+				break;
+			case 2:
+				row[i] += up;
+				break;
+			case 3:
+				row[i] += (left + up) >>> 1;
+				break;
+			case 4:
+				row[i] += paeth(left, up, upLeft);
+				break;
+			default:
+				throw new IOException("Unknown PNG filter type " + filter + ".");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Paeth predictor of the PNG specification.
+	 *
+	 * @param a
+	 *            byte to the left.
+	 * @param b
+	 *            byte above.
+	 * @param c
+	 *            byte above and to the left.
+	 * @return whichever of the three is closest to a + b - c.
+	 */
+	private static int paeth(int a, int b, int c) {
+
+		int p = a + b - c;
+		int pa = Math.abs(p - a);
+		int pb = Math.abs(p - b);
+		int pc = Math.abs(p - c);
+
+		if (pa <= pb && pa <= pc) {
+
+			return a;
+		}
+
+		return pb <= pc ? b : c;
+	}
+
+	/**
+	 *
+	 * Returns if a pixel of the current row is a wall.
+	 *
+	 * @param x
+	 *            column of the pixel in the image.
+	 * @return true if the pixel is fully opaque black.
+	 */
+	private boolean isWall(int x) {
+
+		if (colorType == PALETTE) {
+
+			int index = sample(x, 0);
+
+			return index < blackEntries.length && blackEntries[index];
+		}
+
+		int max = (1 << bitDepth) - 1;
+
+		// black in every color channel
+		int colorChannels = colorType == GRAY || colorType == GRAY_ALPHA ? 1 : 3;
+
+		for (int c = 0; c < colorChannels; c++) {
+
+			if (sample(x, c) != 0) {
+
+				return false;
+			}
+		}
+
+		// fully opaque
+		if (colorType == GRAY_ALPHA || colorType == 6) {
+
+			return sample(x, colorChannels) == max;
+		}
+
+		if (colorType == GRAY) {
+
+			return transparentGray != 0;
+		}
+
+		return transparentRgb == null || transparentRgb[0] != 0 || transparentRgb[1] != 0 || transparentRgb[2] != 0;
+	}
+
+	/**
+	 *
+	 * Returns one channel of a pixel of the current row.
+	 *
+	 * @param x
+	 *            column of the pixel in the image.
+	 * @param channel
+	 *            channel of the pixel.
+	 * @return value of the channel.
+	 */
+	private int sample(int x, int channel) {
+
+		if (bitDepth == 8) {
+
+			return row[x * channels + channel] & 0xFF;
+		}
+
+		if (bitDepth == 16) {
+
+			int i = (x * channels + channel) * 2;
+
+			return (row[i] & 0xFF) << 8 | row[i + 1] & 0xFF;
+		}
+
+		// several pixels packed into a byte, only one channel per pixel
+		int bit = x * bitDepth;
+		int shift = 8 - bitDepth - (bit & 7);
+
+		return (row[bit >>> 3] >>> shift) & ((1 << bitDepth) - 1);
+	}
+
+	/**
+	 *
+	 * Fills an array with the next pixel bytes.
+	 *
+	 * @param b
+	 *            array to fill.
+	 * @throws IOException
+	 *             if the file ends early.
+	 */
+	private void readFully(byte[] b) throws IOException {
+
+		int done = 0;
+
+		while (done < b.length) {
+
+			int count = pixels.read(b, done, b.length - done);
+
+			if (count == -1) {
+
+				throw new EOFException("PNG file ended early.");
+			}
+
+			done += count;
+		}
+	}
+
+	/**
+	 *
+	 * Reads the four letter type of a chunk.
+	 *
+	 * @return type of the chunk.
+	 * @throws IOException
+	 *             if the file ends early.
+	 */
+	private String readType() throws IOException {
+
+		byte[] type = new byte[4];
+		in.readFully(type);
+
+		return new String(type, "US-ASCII");
+	}
+
+	/**
+	 *
+	 * Reads a big-endian int out of chunk data.
+	 *
+	 * @param data
+	 *            chunk data.
+	 * @param i
+	 *            index of the first byte.
+	 * @return the int.
+	 */
+	private static int readInt(byte[] data, int i) {
+
+		return (data[i] & 0xFF) << 24 | (data[i + 1] & 0xFF) << 16 | (data[i + 2] & 0xFF) << 8 | data[i + 3] & 0xFF;
+	}
+
+	/**
+	 *
+	 * Reads a big-endian two byte value out of chunk data.
+	 *
+	 * @param data
+	 *            chunk data.
+	 * @param i
+	 *            index of the first byte.
+	 * @return the value.
+	 */
+	private static int readShort(byte[] data, int i) {
+
+		return (data[i] & 0xFF) << 8 | data[i + 1] & 0xFF;
+	}
+
+	/**
+	 *
+	 * Stream that keeps a copy of every byte read through it until it is
+	 * stopped.
+	 */
+	private static class Recorder extends FilterInputStream {
+
+		private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+		/**
+		 *
+		 * Constructor for a stream that starts recording right away.
+		 *
+		 * @param in
+		 *            stream to read from.
+		 */
+		private Recorder(InputStream in) {
+
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			int b = in.read();
+
+			if (b != -1 && copy != null) {
+
+				copy.write(b);
+			}
+
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			int count = in.read(b, off, len);
+
+			if (count > 0 && copy != null) {
+
+				copy.write(b, off, count);
+			}
+
+			return count;
+		}
+
+		/**
+		 *
+		 * Returns every byte read so far.
+		 *
+		 * @return the bytes read.
+		 */
+		private byte[] recorded() {
+
+			return copy.toByteArray();
+		}
+
+		/**
+		 *
+		 * Stops keeping copies of the bytes read.
+		 */
+		private void stop() {
+
+			copy = null;
+		}
+	}
+
+	/**
+	 *
+	 * The data of all IDAT chunks one after the other, which together make up
+	 * the compressed pixels.
+	 */
+	private class IdatStream extends InputStream {
+
+		// bytes left in the current chunk, -1 once the last one is done
+		private int left;
+
+		/**
+		 *
+		 * Constructor for the stream, starting in the data of the first chunk.
+		 *
+		 * @param length
+		 *            length of the first chunk.
+		 */
+		private IdatStream(int length) {
+
+			left = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			byte[] b = new byte[1];
+
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			// moves on to the next chunk when this one is used up
+			while (left == 0) {
+
+				in.readInt();
+
+				int length = in.readInt();
+
+				if (!readType().equals("IDAT")) {
+
+					left = -1;
+					break;
+				}
+
+				left = length;
+			}
+
+			if (left == -1) {
+
+				return -1;
+			}
+
+			int count = in.read(b, off, Math.min(len, left));
+
+			if (count == -1) {
+
+				throw new EOFException("PNG file ended early.");
+			}
+
+			left -= count;
+
+			return count;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package my.project.dijkstra;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ *
+ * Writes a black and white PNG file one row of pixels at a time, so that a
+ * maze never has to be in memory all at once. Every pixel takes a single
+ * bit, black for walls and white for pixels that can be walked on, which
+ * PngRowReader and ImageIO both read back as the same maze.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PngRowWriter {
+
+	private static final long SIGNATURE = 0x89504E470D0A1A0AL;
+
+	private DataOutputStream out;
+	private DeflaterOutputStream pixels;
+	private Deflater deflater = new Deflater();
+
+	private int width;
+	private int height;
+	private int rowsWritten = 0;
+
+	// filter byte followed by the bits of the row
+	private byte[] row;
+
+	/**
+	 *
+	 * Constructor for a writer, writes everything up to the first row of
+	 * pixels.
+	 *
+	 * @param out
+	 *            stream to write the PNG file to.
+	 * @param width
+	 *            width of the image in pixels.
+	 * @param height
+	 *            height of the image in pixels.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 */
+	public PngRowWriter(OutputStream out, int width, int height) throws IOException {
+
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+
+		row = new byte[1 + (width + 7) / 8];
+
+		this.out.writeLong(SIGNATURE);
+
+		// 1 bit gray, no interlacing
+		byte[] header = new byte[13];
+		writeInt(header, 0, width);
+		writeInt(header, 4, height);
+		header[8] = 1;
+
+		writeChunk("IHDR", header, header.length);
+
+		pixels = new DeflaterOutputStream(new IdatStream(), deflater, 1 << 16);
+	}
+
+	/**
+	 *
+	 * Writes the next row of the image.
+	 *
+	 * @param open
+	 *            array of at least the width of the image entries, 0 for
+	 *            every wall and anything else for a pixel that can be walked
+	 *            on.
+	 * @throws IOException
+	 *             if the stream can't be written or all rows have been
+	 *             written already.
+	 */
+	public void writeRow(byte[] open) throws IOException {
+
+		if (rowsWritten == height) {
+
+			throw new IOException("All rows have been written.");
+		}
+
+		Arrays.fill(row, (byte) 0);
+
+		for (int x = 0; x < width; x++) {
+
+			if (open[x] != 0) {
+
+				row[1 + (x >>> 3)] |= 0x80 >>> (x & 7);
+			}
+		}
+
+		pixels.write(row);
+		rowsWritten++;
+	}
+
+	/**
+	 *
+	 * Finishes the file. Doesn't close the stream it was written to.
+	 *
+	 * @throws IOException
+	 *             if the stream can't be written or some rows haven't been
+	 *             written.
+	 */
+	public void finish() throws IOException {
+
+		if (rowsWritten != height) {
+
+			throw new IOException("Only " + rowsWritten + " of " + height + " rows have been written.");
+		}
+
+		pixels.finish();
+		deflater.end();
+
+		writeChunk("IEND", new byte[0], 0);
+		out.flush();
+	}
+
+	/**
+	 *
+	 * Writes a chunk of the PNG file.
+	 *
+	 * @param type
+	 *            four letter type of the chunk.
+	 * @param data
+	 *            data of the chunk.
+	 * @param length
+	 *            number of bytes of data.
+	 * @throws IOException
+	 *             if the stream can't be written.
+	 */
+	private void writeChunk(String type, byte[] data, int length) throws IOException {
+
+		byte[] typeBytes = type.getBytes("US-ASCII");
+		CRC32 crc = new CRC32();
+
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	/**
+	 *
+	 * Writes a big-endian int into chunk data.
+	 *
+	 * @param data
+	 *            chunk data.
+	 * @param i
+	 *            index of the first byte.
+	 * @param value
+	 *            the int.
+	 */
+	private static void writeInt(byte[] data, int i, int value) {
+
+		data[i] = (byte) (value >>> 24);
+		data[i + 1] = (byte) (value >>> 16);
+		data[i + 2] = (byte) (value >>> 8);
+		data[i + 3] = (byte) value;
+	}
+
+	/**
+	 *
+	 * Turns whatever the deflater writes into IDAT chunks.
+	 */
+	private class IdatStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+
+			if (len == 0) {
+
+				return;
+			}
+
+			byte[] data = off == 0 ? b : Arrays.copyOfRange(b, off, off + len);
+
+			writeChunk("IDAT", data, len);
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+/**
+ *
+ * Solves generated mazes of growing size and prints how fast every part of
+ * solving goes at each size, so it can be seen whether anything grows faster
+ * than the maze does. Every maze goes through the whole pipeline: decoding
+ * the file, placing and linking the nodes, and the search. No images are
+ * written. The first maze also pays for warming up the JIT, so the sweep is
+ * best started with a small size.
+ *
+ * Usage: ScalingHarness [--style perfect|braided|open-room] [--seed n]
+ * [--mode dijkstra|astar|bidirectional|delta] [--delta n] [--frontier heap|buckets]
+ * [--stream] [size ...]
+ *
+ * Every size is the width and height of a square maze in pixels. With
+ * --stream the graph is built by StreamingGraphBuilder instead of Helper.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class ScalingHarness {
+
+	public static void main(String[] args) throws IOException {
+
+		MazeGenerator.Style style = MazeGenerator.Style.PERFECT;
+		long seed = 1;
+		String mode = "dijkstra";
+		int delta = DeltaSteppingSearch.DEFAULT_DELTA;
+		FrontierType frontier = FrontierType.HEAP;
+		boolean stream = false;
+		ArrayList<Integer> sizes = new ArrayList<Integer>();
+
+		for (int i = 0; i < args.length; i++) {
+
+			if (args[i].equals("--style") && i + 1 < args.length) {
+
+				style = MazeGenerator.parseStyle(args[++i]);
+
+				if (style == null) {
+
+					System.out.println("Unknown style- " + args[i] + ", it has to be perfect, braided or open-room");
+					return;
+				}
+			}
+
+			else if (args[i].equals("--seed") && i + 1 < args.length) {
+
+				try {
+
+					seed = Long.parseLong(args[++i].trim());
+				} catch (NumberFormatException e) {
+
+					System.out.println("Invalid seed- " + args[i] + ", it has to be a whole number");
+					return;
+				}
+			}
+
+			else if (args[i].equals("--mode") && i + 1 < args.length) {
+
+				mode = args[++i];
+
+				if (!mode.equals("dijkstra") && !mode.equals("astar") && !mode.equals("bidirectional")
+						&& !mode.equals("delta")) {
+
+					System.out.println("Unknown search mode- " + mode);
+					return;
+				}
+			}
+
+			else if (args[i].equals("--delta") && i + 1 < args.length) {
+
+				delta = Dijkstra.parsePositive(args[++i]);
+
+				if (delta == -1) {
+
+					System.out.println("Invalid delta- " + args[i] + ", it has to be a number above 0");
+					return;
+				}
+			}
+
+			else if (args[i].equals("--frontier") && i + 1 < args.length) {
+
+				try {
+
+					frontier = FrontierType.valueOf(args[++i].toUpperCase());
+				} catch (IllegalArgumentException e) {
+
+					System.out.println("Unknown frontier- " + args[i]);
+					return;
+				}
+			}
+
+			else if (args[i].equals("--stream")) {
+
+				stream = true;
+			}
+
+			else {
+
+				int size = Dijkstra.parsePositive(args[i]);
+
+				if (size < 3) {
+
+					System.out.println("Invalid size- " + args[i] + ", it has to be a number of at least 3");
+					return;
+				}
+
+				sizes.add(size);
+			}
+		}
+
+		if (sizes.isEmpty()) {
+
+			sizes.add(1001);
+			sizes.add(2001);
+			sizes.add(4001);
+			sizes.add(8001);
+		}
+
+		System.out.printf("%-11s %10s %10s %9s %12s %12s %9s %14s %10s %9s%n", "size", "nodes", "edges",
+				"build s", "nodes/s", "edges/s", "search s", "expansions/s", "ns/pixel", "peak MB");
+
+		for (int size : sizes) {
+
+			File maze = File.createTempFile("maze", ".png");
+
+			try {
+
+				MazeGenerator generator = new MazeGenerator(style, size, size, seed);
+				generator.write(maze);
+
+				run(maze, generator.getWidth(), generator.getHeight(), mode, delta, frontier, stream);
+			} finally {
+
+				maze.delete();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Solves one maze and prints a line of the table.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @param width
+	 *            width of the maze in pixels.
+	 * @param height
+	 *            height of the maze in pixels.
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or delta.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the search keeps its nodes in.
+	 * @param stream
+	 *            whether the graph is built by StreamingGraphBuilder.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private static void run(File maze, int width, int height, String mode, int delta, FrontierType frontier,
+			boolean stream) throws IOException {
+
+		resetPeakHeap();
+
+		long currTime = System.nanoTime();
+		Graph graph = stream ? streamGraph(maze) : helperGraph(maze);
+		long buildTime = System.nanoTime() - currTime;
+
+		Search search = Dijkstra.newSearch(mode, graph, delta, frontier);
+
+		if (search == null) {
+
+			throw new IllegalArgumentException("Unknown search mode- " + mode);
+		}
+
+		currTime = System.nanoTime();
+		search.run();
+		long searchTime = System.nanoTime() - currTime;
+
+		double buildSeconds = buildTime / 1e9;
+		double searchSeconds = searchTime / 1e9;
+		int numEdges = graph.getNumEdges() / 2;
+
+		System.out.printf("%-11s %10d %10d %9.3f %12.0f %12.0f %9.3f %14.0f %10.1f %9.1f%n", width + "x" + height,
+				graph.getNumNodes(), numEdges, buildSeconds, graph.getNumNodes() / buildSeconds,
+				numEdges / buildSeconds, searchSeconds, search.getNumExpanded() / searchSeconds,
+				(double) (buildTime + searchTime) / ((long) width * height), peakHeap() / 1048576.0);
+	}
+
+	/**
+	 *
+	 * Builds the graph of a maze with Helper.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return graph of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private static Graph helperGraph(File maze) throws IOException {
+
+		Helper helper = new Helper(maze.getPath());
+
+		// the helper's own messages would only get in the way of the table
+		helper.setConsole(Helper.QUIET);
+		helper.placeNodes();
+		helper.setEntranceExit();
+
+		return helper.getGraph();
+	}
+
+	/**
+	 *
+	 * Builds the graph of a maze with StreamingGraphBuilder in a temporary
+	 * directory and loads it.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return graph of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read or the graph can't be written.
+	 */
+	private static Graph streamGraph(File maze) throws IOException {
+
+		File directory = Files.createTempDirectory("dijkstra").toFile();
+		GraphCache cache = new GraphCache(directory);
+		String hash = GraphCache.hash(maze);
+
+		try {
+
+			new StreamingGraphBuilder(cache).build(maze, hash);
+
+			return cache.load(hash);
+		} finally {
+
+			cache.getFile(hash).delete();
+			directory.delete();
+		}
+	}
+
+	/**
+	 *
+	 * Collects garbage and starts counting the peak heap use from here.
+	 */
+	private static void resetPeakHeap() {
+
+		System.gc();
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+			if (pool.getType() == MemoryType.HEAP) {
+
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Returns the most heap used since resetPeakHeap(), adding up the peaks of
+	 * every heap pool. The pools don't all peak at the same moment, so this
+	 * can be a little more than was ever used at once.
+	 *
+	 * @return peak heap use in bytes.
+	 */
+	private static long peakHeap() {
+
+		long peak = 0;
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+			if (pool.getType() == MemoryType.HEAP) {
+
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+
+		return peak;
+	}
+}
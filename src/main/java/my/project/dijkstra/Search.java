@@ -0,0 +1,89 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * A way of finding the shortest path from the entrance to the exit of a maze
+ * graph, or between any two pixels of it.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public interface Search {
+
+	/**
+	 *
+	 * Looks for the shortest path from the entrance to the exit.
+	 *
+	 * @return true if a path has been found, false otherwise.
+	 */
+	boolean run();
+
+	/**
+	 *
+	 * Returns the length of the path that has been found.
+	 *
+	 * @return length of the path in pixels.
+	 */
+	int getPathLength();
+
+	/**
+	 *
+	 * Returns the node through which the path has to go to reach each node
+	 * on the path, starting from the exit and ending with -1 at the entrance.
+	 *
+	 * @return index of the previous node of every node on the path.
+	 */
+	int[] getPrevNode();
+
+	/**
+	 *
+	 * Returns the path that has been found, from where it starts to where it
+	 * ends.
+	 *
+	 * @return the path.
+	 */
+	Path getPath();
+
+	/**
+	 *
+	 * Returns how many nodes were taken off the frontier while looking for the
+	 * path.
+	 *
+	 * @return number of nodes expanded.
+	 */
+	int getNumExpanded();
+
+	/**
+	 *
+	 * Returns how many times a node was put on the frontier or had its place
+	 * on it improved.
+	 *
+	 * @return number of frontier pushes.
+	 */
+	int getNumPushes();
+
+	/**
+	 *
+	 * Returns how many times a node was taken off the frontier.
+	 *
+	 * @return number of frontier pops.
+	 */
+	int getNumPops();
+
+	/**
+	 *
+	 * Returns how many corridors were looked at from the nodes taken off the
+	 * frontier.
+	 *
+	 * @return number of edge relaxations.
+	 */
+	int getNumRelaxations();
+
+	/**
+	 *
+	 * Returns the most nodes the frontier held at once.
+	 *
+	 * @return largest size of the frontier.
+	 */
+	int getMaxFrontier();
+}
@@ -0,0 +1,209 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Everything a search writes while it runs: the distance travelled to every
+ * node, the node the path to it comes from, which nodes have been reached or
+ * finished, and the frontier of nodes under consideration. Keeping it apart
+ * from the graph lets any number of searches run on the same graph at once,
+ * each with a state of its own.
+ *
+ * A state can be used for one search after another without clearing its
+ * arrays. Every node is stamped with the search that last touched it, so a
+ * node stamped by an earlier search simply counts as not reached, and
+ * starting the next search only costs as much as the nodes left on the
+ * frontier.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class SearchState {
+
+	private int[] distance;
+	private int[] prevNode;
+
+	// 2 * generation for nodes reached by the current search and one more for
+	// nodes it has finished, anything smaller for nodes it hasn't reached
+	private int[] stamp;
+	private int generation = 0;
+
+	private Frontier frontier;
+
+	/**
+	 *
+	 * Constructor for a state that can be used to search graphs of up to
+	 * numNodes nodes, with an IndexedHeap as the frontier.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 */
+	public SearchState(int numNodes) {
+
+		this(numNodes, new IndexedHeap(numNodes));
+	}
+
+	/**
+	 *
+	 * Constructor for a state to search a graph with.
+	 *
+	 * @param graph
+	 *            graph that will be searched.
+	 * @param type
+	 *            kind of frontier to keep the nodes under consideration in.
+	 */
+	public SearchState(Graph graph, FrontierType type) {
+
+		// an A* key can grow by a corridor travelled plus a corridor's worth of
+		// estimate
+		this(graph.getNumNodes(), type == FrontierType.BUCKETS
+				? new BucketQueue(graph.getNumNodes(), 2 * graph.getMaxWeight() + 1)
+				: new IndexedHeap(graph.getNumNodes()));
+	}
+
+	/**
+	 *
+	 * Constructor for a state with a frontier of its own.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 * @param frontier
+	 *            empty frontier that can hold the ids 0 to numNodes - 1.
+	 */
+	public SearchState(int numNodes, Frontier frontier) {
+
+		distance = new int[numNodes];
+		prevNode = new int[numNodes];
+		stamp = new int[numNodes];
+		this.frontier = frontier;
+	}
+
+	/**
+	 *
+	 * Returns how many nodes the graphs searched with this state can have.
+	 *
+	 * @return number of nodes.
+	 */
+	public int getCapacity() {
+
+		return distance.length;
+	}
+
+	/**
+	 *
+	 * Forgets everything about the last search, so that no node counts as
+	 * reached and the frontier is empty.
+	 */
+	public void reset() {
+
+		generation++;
+
+		// the stamps would overflow, so they are cleared for real once
+		if (generation > Integer.MAX_VALUE / 2 - 1) {
+
+			Arrays.fill(stamp, 0);
+			generation = 1;
+		}
+
+		frontier.clear();
+	}
+
+	/**
+	 *
+	 * Returns if the current search has reached a node.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return true if the node has a distance, false otherwise.
+	 */
+	public boolean isReached(int id) {
+
+		return stamp[id] >= 2 * generation;
+	}
+
+	/**
+	 *
+	 * Returns if the current search has finished a node, so that the shortest
+	 * way to it is known.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return true if the node has been finished, false otherwise.
+	 */
+	public boolean isFinished(int id) {
+
+		return stamp[id] == 2 * generation + 1;
+	}
+
+	/**
+	 *
+	 * Sets the distance to a node and where the path to it comes from, and
+	 * counts the node as reached.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @param newDistance
+	 *            distance travelled to the node.
+	 * @param prev
+	 *            node the path comes from, -1 if the path starts at it.
+	 */
+	public void reach(int id, int newDistance, int prev) {
+
+		distance[id] = newDistance;
+		prevNode[id] = prev;
+
+		if (stamp[id] < 2 * generation) {
+
+			stamp[id] = 2 * generation;
+		}
+	}
+
+	/**
+	 *
+	 * Counts a reached node as finished.
+	 *
+	 * @param id
+	 *            index of the node.
+	 */
+	public void finish(int id) {
+
+		stamp[id] = 2 * generation + 1;
+	}
+
+	/**
+	 *
+	 * Returns the distance travelled to a node that has been reached.
+	 *
+	 * @param id
+	 *            index of the node.
+	 * @return distance to the node.
+	 */
+	public int getDistance(int id) {
+
+		return distance[id];
+	}
+
+	/**
+	 *
+	 * Returns the node the path to every node comes from. Only the entries of
+	 * nodes reached by the current search mean anything.
+	 *
+	 * @return index of the previous node of every node.
+	 */
+	public int[] getPrevNode() {
+
+		return prevNode;
+	}
+
+	/**
+	 *
+	 * Returns the frontier of nodes under consideration.
+	 *
+	 * @return the frontier.
+	 */
+	public Frontier getFrontier() {
+
+		return frontier;
+	}
+}
@@ -0,0 +1,57 @@
+package my.project.dijkstra;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ *
+ * Search states for one graph that are handed out to searches and given back
+ * once the search and everything read from it are done with, so that a query
+ * doesn't have to allocate arrays as big as the graph. Any number of threads
+ * can take and give back states at the same time.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class SearchStatePool {
+
+	private int numNodes;
+	private ConcurrentLinkedQueue<SearchState> states = new ConcurrentLinkedQueue<SearchState>();
+
+	/**
+	 *
+	 * Constructor for an empty pool of states for a graph.
+	 *
+	 * @param numNodes
+	 *            number of nodes of the graph.
+	 */
+	public SearchStatePool(int numNodes) {
+
+		this.numNodes = numNodes;
+	}
+
+	/**
+	 *
+	 * Takes a state out of the pool, making a new one if none are left.
+	 *
+	 * @return a state no other search is using.
+	 */
+	public SearchState take() {
+
+		SearchState state = states.poll();
+
+		return state != null ? state : new SearchState(numNodes);
+	}
+
+	/**
+	 *
+	 * Gives a state back to the pool. Nothing read from the state, such as
+	 * the previous nodes of a search, may be used afterwards.
+	 *
+	 * @param state
+	 *            state taken from this pool.
+	 */
+	public void giveBack(SearchState state) {
+
+		states.add(state);
+	}
+}
@@ -0,0 +1,95 @@
+package my.project.dijkstra;
+
+/**
+ *
+ * Receives what happens while a maze is being solved: how long every phase
+ * takes, how big the graph is and how much work the search does. Every
+ * method does nothing unless an implementation overrides it, and NONE is an
+ * implementation that overrides nothing, so solving without metrics costs
+ * next to nothing.
+ *
+ * The phases used are loadGraph, placeNodes, linkEntranceExit, streamGraph,
+ * reduceGraph, labelComponents, search, distanceField, writeDistances,
+ * printNodes, backpropogate, printPath and solve, which covers all of them.
+ * The image phases may run on a background thread, see ImageOutput.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public interface SolverMetrics {
+
+	/**
+	 * Metrics that are thrown away.
+	 */
+	SolverMetrics NONE = new SolverMetrics() {
+	};
+
+	/**
+	 *
+	 * A phase that has been started and has to be ended.
+	 */
+	interface Phase {
+
+		/**
+		 * A phase nobody is timing.
+		 */
+		Phase NONE = new Phase() {
+
+			public void end() {
+
+			}
+		};
+
+		/**
+		 *
+		 * Ends the phase.
+		 */
+		void end();
+	}
+
+	/**
+	 *
+	 * Starts timing a phase of solving.
+	 *
+	 * @param name
+	 *            name of the phase.
+	 * @return the phase, whose end() has to be called once it is done.
+	 */
+	default Phase startPhase(String name) {
+
+		return Phase.NONE;
+	}
+
+	/**
+	 *
+	 * Reports the graph of the maze once it has been built.
+	 *
+	 * @param numNodes
+	 *            number of nodes created.
+	 * @param numEdges
+	 *            number of corridors created, each counted once.
+	 */
+	default void graphBuilt(int numNodes, int numEdges) {
+
+	}
+
+	/**
+	 *
+	 * Reports how much work a search did once it is done.
+	 *
+	 * @param search
+	 *            name of the search.
+	 * @param pushes
+	 *            number of times a node was put on the frontier or had its
+	 *            place on it improved.
+	 * @param pops
+	 *            number of times a node was taken off the frontier.
+	 * @param relaxations
+	 *            number of corridors looked at.
+	 * @param maxFrontier
+	 *            most nodes the frontier held at once.
+	 */
+	default void searchFinished(String search, int pushes, int pops, int relaxations, int maxFrontier) {
+
+	}
+}
@@ -0,0 +1,586 @@
+package my.project.dijkstra;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ *
+ * Keeps mazes loaded between queries and answers them over a socket, so a
+ * query only pays for the search instead of starting a JVM, decoding the
+ * maze and placing its nodes. Only the most recently used mazes are kept, no
+ * more of them than a set number and no more than fit in a set amount of
+ * memory, and only what their searches need is kept of them. The answers to the most recent queries on every maze are kept along
+ * with it, so asking the same thing again is answered straight away. Every
+ * maze is labelled with its connected parts when it is loaded, so a query
+ * between pixels with no path between them is answered without searching.
+ *
+ * The server listens on the loopback address only. Every request is a line
+ * of text and gets a line back:
+ *
+ * LOAD maze, loads a maze if it isn't loaded yet and replies "OK nodes
+ * corridors".
+ *
+ * SOLVE maze [fromRow fromCol toRow toCol], looks for the path from the
+ * entrance to the exit, or between the two pixels given, and replies "OK
+ * length expanded", or "NONE" if there is no path.
+ *
+ * PATH maze [fromRow fromCol toRow toCol], same as SOLVE but replies "OK
+ * length" followed by the points the path turns at as "row,col".
+ *
+ * UNLOAD maze, forgets a maze and replies "OK".
+ *
+ * QUIT, closes the connection.
+ *
+ * Anything that goes wrong is replied to with "ERR" and what went wrong.
+ * Mazes are named by their file, relative to the directory the server was
+ * started in.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class SolverServer {
+
+	// answers kept for every maze
+	private static final int ANSWERS_KEPT = 256;
+
+	private int port;
+	private String mode;
+	private SolverMetrics metrics;
+	private int mazesKept;
+	private long bytesKept;
+
+	// loaded mazes by file, least recently used first
+	private LinkedHashMap<String, Maze> mazes = new LinkedHashMap<String, Maze>(16, 0.75f, true);
+
+	/**
+	 *
+	 * A loaded maze with its nodes placed, and the answers given about it.
+	 * Once it is loaded nothing changes it, so any number of queries can use
+	 * it at once.
+	 */
+	private class Maze {
+
+		private File file;
+		private Helper helper = null;
+
+		// graph of the maze, shared by every query on it, and the states the
+		// queries search it with
+		private Graph graph = null;
+		private SearchStatePool states = null;
+
+		// which part of the maze every node is in
+		private Components components = null;
+
+		// where every jump of jump point search stops, shared by every query
+		// on the maze, null unless the server uses jps
+		private JumpTables jumps = null;
+
+		// rough number of bytes the maze takes once it is loaded
+		private volatile long bytes = 0;
+
+		// replies by request, least recently used first
+		private LinkedHashMap<String, String> answers = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+
+				return size() > ANSWERS_KEPT;
+			}
+		};
+
+		private Maze(File file) {
+
+			this.file = file;
+		}
+
+		/**
+		 *
+		 * Decodes the maze and places its nodes, and works out its jumps if the
+		 * server uses jps, unless that was done already.
+		 *
+		 * @throws IOException
+		 *             if the maze can't be read or has no entrance and exit.
+		 */
+		private void load() throws IOException {
+
+			if (helper != null) {
+
+				return;
+			}
+
+			Helper helper = new Helper(file.getPath());
+
+			helper.setImageOutput(ImageOutput.NONE);
+			helper.setMetrics(metrics);
+			helper.placeNodes();
+
+			if (helper.setEntranceExit().size() < 2) {
+
+				throw new IOException("Maze has no entrance and exit.");
+			}
+
+			graph = helper.getGraph();
+			states = new SearchStatePool(graph.getNumNodes());
+			components = new Components(graph);
+
+			if (mode.equals("jps")) {
+
+				jumps = new JumpTables(helper.getGrid(), helper.getCols());
+			}
+
+			// the image and everything the graph was built from are no longer
+			// needed
+			helper.release();
+
+			this.helper = helper;
+			this.bytes = estimateBytes();
+		}
+
+		/**
+		 *
+		 * Works out roughly how much memory the loaded maze takes, counting
+		 * what grows with its pixels and nodes. A byte for every pixel of
+		 * the grid, an int for the node on every pixel and four more for the
+		 * jumps, and for every node and corridor the ints of the graph, the
+		 * part of the maze the node is in and one search state.
+		 *
+		 * @return number of bytes.
+		 */
+		private long estimateBytes() {
+
+			long pixels = helper.getGrid().length;
+			long bytes = pixels + 4 * pixels + (jumps != null ? 16 * pixels : 0);
+
+			bytes += 4L * (4 * graph.getNumNodes() + 2 * graph.getNumEdges());
+			bytes += 4L * graph.getNumNodes();
+			bytes += 12L * graph.getNumNodes();
+
+			return bytes;
+		}
+	}
+
+	/**
+	 *
+	 * Constructor for a server that hasn't started listening yet.
+	 *
+	 * @param port
+	 *            port to listen on.
+	 * @param mode
+	 *            dijkstra, astar, bidirectional or jps.
+	 * @param metrics
+	 *            metrics every query reports to, called from many threads at
+	 *            once.
+	 * @param mazesKept
+	 *            most mazes kept loaded at the same time.
+	 * @param bytesKept
+	 *            most bytes the loaded mazes take together, going by
+	 *            estimates. The maze a query is on is always kept, however
+	 *            much it takes.
+	 * @throws IllegalArgumentException
+	 *             if queries can't be searched in the given mode.
+	 */
+	public SolverServer(int port, String mode, SolverMetrics metrics, int mazesKept, long bytesKept) {
+
+		// delta-stepping spreads every search over the whole common pool, which
+		// queries running at the same time would only fight over
+		if (!mode.equals("dijkstra") && !mode.equals("astar") && !mode.equals("bidirectional")
+				&& !mode.equals("jps")) {
+
+			throw new IllegalArgumentException("The server can't search with mode " + mode
+					+ ", only dijkstra, astar, bidirectional or jps");
+		}
+
+		this.port = port;
+		this.mode = mode;
+		this.metrics = metrics;
+		this.mazesKept = Math.max(1, mazesKept);
+		this.bytesKept = bytesKept;
+	}
+
+	/**
+	 *
+	 * Listens for connections until the program is stopped, answering every
+	 * connection on a thread of its own.
+	 *
+	 * @throws IOException
+	 *             if the port can't be listened on.
+	 */
+	public void serve() throws IOException {
+
+		ExecutorService connections = Executors.newCachedThreadPool(task -> {
+
+			Thread thread = new Thread(task, "solver-connection");
+			thread.setDaemon(true);
+
+			return thread;
+		});
+
+		try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+
+			System.out.println("Listening on " + server.getLocalSocketAddress() + "\n");
+
+			while (true) {
+
+				Socket socket = server.accept();
+
+				connections.execute(() -> answer(socket));
+			}
+		} finally {
+
+			connections.shutdownNow();
+		}
+	}
+
+	/**
+	 *
+	 * Answers the requests of one connection until it is closed.
+	 *
+	 * @param socket
+	 *            the connection.
+	 */
+	private void answer(Socket socket) {
+
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(s.getOutputStream(), true)) {
+
+			String request;
+
+			while ((request = in.readLine()) != null) {
+
+				request = request.trim();
+
+				if (request.equalsIgnoreCase("QUIT")) {
+
+					break;
+				}
+
+				if (!request.isEmpty()) {
+
+					out.println(reply(request));
+				}
+			}
+		} catch (IOException e) {
+
+			// the client went away, nothing left to answer
+		}
+	}
+
+	/**
+	 *
+	 * Answers one request.
+	 *
+	 * @param request
+	 *            the request.
+	 * @return the reply.
+	 */
+	String reply(String request) {
+
+		String[] words = request.split("\\s+");
+		String command = words[0].toUpperCase();
+
+		try {
+
+			if (words.length < 2) {
+
+				return "ERR No maze given";
+			}
+
+			if (command.equals("UNLOAD")) {
+
+				synchronized (mazes) {
+
+					mazes.remove(new File(words[1]).getAbsolutePath());
+				}
+
+				return "OK";
+			}
+
+			if (!command.equals("LOAD") && !command.equals("SOLVE") && !command.equals("PATH")) {
+
+				return "ERR Unknown command- " + words[0];
+			}
+
+			if (!command.equals("LOAD") && words.length != 2 && words.length != 6) {
+
+				return "ERR Expected " + command + " maze [fromRow fromCol toRow toCol]";
+			}
+
+			for (int w = 2; w < words.length; w++) {
+
+				if (!words[w].matches("-?\\d{1,9}")) {
+
+					return "ERR Expected a whole number for a pixel, not " + words[w];
+				}
+			}
+
+			Maze maze = maze(words[1]);
+
+			// queries wait for the maze to be loaded, but not for each other
+			synchronized (maze) {
+
+				try {
+
+					maze.load();
+				} catch (IOException e) {
+
+					synchronized (mazes) {
+
+						mazes.remove(maze.file.getPath());
+					}
+
+					return "ERR Couldn't read " + words[1] + "- " + e;
+				}
+			}
+
+			evict(maze);
+
+			if (command.equals("LOAD")) {
+
+				return "OK " + maze.graph.getNumNodes() + " " + maze.graph.getNumEdges() / 2;
+			}
+
+			String key = command + " " + request.substring(words[0].length()).trim();
+			String answer;
+
+			synchronized (maze.answers) {
+
+				answer = maze.answers.get(key);
+			}
+
+			if (answer == null) {
+
+				answer = solve(maze, command.equals("PATH"), words);
+
+				synchronized (maze.answers) {
+
+					maze.answers.put(key, answer);
+				}
+			}
+
+			return answer;
+		} catch (RuntimeException e) {
+
+			return "ERR " + e.getMessage();
+		}
+	}
+
+	/**
+	 *
+	 * Returns a maze, which becomes the most recently used one. It is added
+	 * without being loaded if it isn't there, and the least recently used
+	 * maze is forgotten if too many are kept.
+	 *
+	 * @param name
+	 *            file of the maze.
+	 * @return the maze.
+	 */
+	private Maze maze(String name) {
+
+		File file = new File(name).getAbsoluteFile();
+
+		synchronized (mazes) {
+
+			Maze maze = mazes.get(file.getPath());
+
+			if (maze == null) {
+
+				maze = new Maze(file);
+				mazes.put(file.getPath(), maze);
+				evict(maze);
+			}
+
+			return maze;
+		}
+	}
+
+	/**
+	 *
+	 * Returns if a maze is kept loaded, without making it the most recently
+	 * used one.
+	 *
+	 * @param name
+	 *            file of the maze.
+	 * @return true if the maze is loaded.
+	 */
+	boolean isLoaded(String name) {
+
+		synchronized (mazes) {
+
+			for (Maze maze : mazes.values()) {
+
+				if (maze.file.equals(new File(name).getAbsoluteFile())) {
+
+					return maze.helper != null;
+				}
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 *
+	 * Forgets the least recently used mazes until no more mazes are kept
+	 * than allowed and they fit in the memory they are allowed, but never the
+	 * maze being queried. Mazes that are still loading count as taking no
+	 * memory yet.
+	 *
+	 * @param queried
+	 *            maze a query is on.
+	 */
+	private void evict(Maze queried) {
+
+		synchronized (mazes) {
+
+			long bytes = 0;
+
+			for (Maze maze : mazes.values()) {
+
+				bytes += maze.bytes;
+			}
+
+			Iterator<Maze> eldest = mazes.values().iterator();
+
+			while ((mazes.size() > mazesKept || bytes > bytesKept) && eldest.hasNext()) {
+
+				Maze maze = eldest.next();
+
+				if (maze != queried) {
+
+					bytes -= maze.bytes;
+					eldest.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Looks for a path through a loaded maze.
+	 *
+	 * @param maze
+	 *            the maze.
+	 * @param wholePath
+	 *            whether the points of the path are replied too.
+	 * @param words
+	 *            words of the request, with the endpoints from the third word
+	 *            on if any were given.
+	 * @return the reply.
+	 */
+	private String solve(Maze maze, boolean wholePath, String[] words) {
+
+		Endpoint from;
+		Endpoint to;
+		Path path;
+		int expanded;
+
+		if (words.length == 6) {
+
+			from = maze.helper.getEndpoint(Integer.parseInt(words[2]), Integer.parseInt(words[3]));
+			to = maze.helper.getEndpoint(Integer.parseInt(words[4]), Integer.parseInt(words[5]));
+		}
+
+		else {
+
+			from = Endpoint.ofNode(maze.graph, maze.graph.getEntrance());
+			to = Endpoint.ofNode(maze.graph, maze.graph.getExit());
+		}
+
+		// the pixels are in parts of the maze with no way between them
+		if (!maze.components.connected(from, to)) {
+
+			return "NONE";
+		}
+
+		// jump point search works on the grid itself, without the graph
+		if (mode.equals("jps")) {
+
+			JumpPointSearch search = new JumpPointSearch(maze.jumps, new Node(-1, from.getRow(), from.getCol()),
+					new Node(-1, to.getRow(), to.getCol()));
+			SolverMetrics.Phase phase = metrics.startPhase("search");
+
+			boolean foundPath = search.run();
+
+			phase.end();
+			metrics.searchFinished(mode, search.getNumPushes(), search.getNumPops(), search.getNumJumps(),
+					search.getMaxHeapSize());
+
+			if (!foundPath) {
+
+				return "NONE";
+			}
+
+			path = Path.fromExitBack(search.getPathRows(), search.getPathCols());
+			expanded = search.getNumExpanded();
+		}
+
+		else {
+
+			boolean bidirectional = mode.equals("bidirectional");
+
+			// every query has states of its own, so queries on the same maze
+			// can run at the same time
+			SearchState state = maze.states.take();
+			SearchState backward = bidirectional ? maze.states.take() : null;
+
+			try {
+
+				Search search = bidirectional ? new BidirectionalSearch(maze.graph, from, to, state, backward)
+						: new DijkstraSearch(maze.graph, mode.equals("astar"), from, to, state);
+				SolverMetrics.Phase phase = metrics.startPhase("search");
+
+				boolean foundPath = search.run();
+
+				phase.end();
+				metrics.searchFinished(mode, search.getNumPushes(), search.getNumPops(),
+						search.getNumRelaxations(), search.getMaxFrontier());
+
+				if (!foundPath) {
+
+					return "NONE";
+				}
+
+				path = search.getPath();
+				expanded = search.getNumExpanded();
+			} finally {
+
+				maze.states.giveBack(state);
+
+				if (backward != null) {
+
+					maze.states.giveBack(backward);
+				}
+			}
+		}
+
+		if (!wholePath) {
+
+			return "OK " + path.getLength() + " " + expanded;
+		}
+
+		StringBuilder reply = new StringBuilder("OK ").append(path.getLength());
+
+		for (int p = 0; p < path.getNumPoints(); p++) {
+
+			reply.append(' ').append(path.getRow(p)).append(',').append(path.getCol(p));
+		}
+
+		return reply.toString();
+	}
+}
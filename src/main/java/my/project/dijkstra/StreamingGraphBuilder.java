@@ -0,0 +1,519 @@
+package my.project.dijkstra;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ *
+ * Builds the graph of a maze that is too big to hold in memory. The image is
+ * read one row at a time and only the row before and after the one being
+ * looked at are kept, so the memory used depends on the width of the maze
+ * rather than on its area. Nodes and corridors are written to temporary files
+ * as they are found and then packed into a graph file of the same format as
+ * the files of GraphCache, which can be loaded from the cache afterwards.
+ *
+ * Nodes are placed the same way Helper places them. Every pixel on the edge
+ * of the maze that can be walked on also gets a node. Pixels next to each
+ * other on the edge make up one opening, and the first pixels of the first
+ * two openings are the entrance and the exit, in the same order Helper finds
+ * them in.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class StreamingGraphBuilder {
+
+	private GraphCache cache;
+
+	private int numNodes = 0;
+	private int numEdges = 0;
+	private int entrance = -1;
+	private int exit = -1;
+	private boolean readWhole = false;
+
+	// the key x * height + y of every node on the edge, and the node every
+	// edge node was merged into, which for the first pixel of an opening is
+	// itself
+	private HashMap<Integer, Long> edgeKeys = new HashMap<Integer, Long>();
+	private HashMap<Integer, Integer> mergedInto = new HashMap<Integer, Integer>();
+
+	// nodes as (row, col) pairs and corridors as (from, to, length) triples
+	private DataOutputStream nodesOut;
+	private DataOutputStream edgesOut;
+
+	/**
+	 *
+	 * Constructor for a builder that writes its graphs into a cache.
+	 *
+	 * @param cache
+	 *            cache the graph files are written into.
+	 */
+	public StreamingGraphBuilder(GraphCache cache) {
+
+		this.cache = cache;
+	}
+
+	/**
+	 *
+	 * Builds the graph of a maze and saves it in the cache.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @param hash
+	 *            hash of the maze file, see GraphCache.hash(File).
+	 * @throws IOException
+	 *             if the maze can't be read, has no entrance and exit, or the
+	 *             graph can't be written.
+	 */
+	public void build(File maze, String hash) throws IOException {
+
+		File nodesFile = File.createTempFile("nodes", ".tmp");
+		File edgesFile = File.createTempFile("edges", ".tmp");
+
+		try {
+
+			try (InputStream in = new BufferedInputStream(new FileInputStream(maze), 1 << 16);
+					DataOutputStream nodes = new DataOutputStream(
+							new BufferedOutputStream(new FileOutputStream(nodesFile), 1 << 16));
+					DataOutputStream edges = new DataOutputStream(
+							new BufferedOutputStream(new FileOutputStream(edgesFile), 1 << 16))) {
+
+				nodesOut = nodes;
+				edgesOut = edges;
+
+				PngRowReader reader = new PngRowReader(in);
+
+				readWhole = reader.isReadWhole();
+				scan(reader);
+			}
+
+			if (entrance == -1 || exit == -1) {
+
+				throw new IOException("Maze has no entrance and exit.");
+			}
+
+			File temp = cache.newTempFile();
+
+			try (RandomAccessFile raf = new RandomAccessFile(temp, "rw"); FileChannel channel = raf.getChannel()) {
+
+				pack(GraphCache.create(channel, numNodes, numEdges * 2, entrance, exit), nodesFile, edgesFile);
+			}
+
+			cache.commit(temp, hash);
+		} finally {
+
+			nodesFile.delete();
+			edgesFile.delete();
+		}
+	}
+
+	/**
+	 *
+	 * Reads the maze row by row, placing nodes and linking every node to the
+	 * node before it in the same image row and in the same image column if
+	 * there is a straight corridor between them.
+	 *
+	 * In Helper a row of the maze is a column of the image, so the image rows
+	 * read here are columns of the maze and the node at pixel (x, y) has row
+	 * x and column y.
+	 *
+	 * @param reader
+	 *            reader of the maze image.
+	 * @throws IOException
+	 *             if the image or the temporary files can't be read or
+	 *             written.
+	 */
+	private void scan(PngRowReader reader) throws IOException {
+
+		int width = reader.getWidth();
+		int height = reader.getHeight();
+
+		// the image rows above, at and below the one being looked at, with a
+		// wall on both ends
+		byte[] above = new byte[width + 2];
+		byte[] current = new byte[width + 2];
+		byte[] below = new byte[width + 2];
+		byte[] swap;
+
+		// last node in every image column since the last wall, and its y
+		int[] colNode = new int[width];
+		int[] colY = new int[width];
+
+		Arrays.fill(colNode, -1);
+
+		byte[] open = new byte[width];
+
+		if (height > 0) {
+
+			reader.readRow(open);
+			System.arraycopy(open, 0, below, 1, width);
+		}
+
+		int rowNode;
+		int rowX = 0;
+		int id;
+
+		for (int y = 0; y < height; y++) {
+
+			swap = above;
+			above = current;
+			current = below;
+			below = swap;
+
+			if (y + 1 < height) {
+
+				reader.readRow(open);
+				System.arraycopy(open, 0, below, 1, width);
+			}
+
+			else {
+
+				Arrays.fill(below, (byte) 0);
+			}
+
+			rowNode = -1;
+
+			for (int x = 0; x < width; x++) {
+
+				// a wall cuts off the corridors through this pixel
+				if (current[x + 1] == 0) {
+
+					rowNode = -1;
+					colNode[x] = -1;
+					continue;
+				}
+
+				boolean edge = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+
+				if (!edge && !validNode(above[x + 1] != 0, below[x + 1] != 0, current[x] != 0,
+						current[x + 2] != 0)) {
+
+					continue;
+				}
+
+				id = addNode(x, y);
+
+				// the pixels on the edge left of and above this one are in the
+				// same opening
+				if (edge) {
+
+					edgeKeys.put(id, (long) x * height + y);
+					mergedInto.put(id, id);
+
+					if (rowNode != -1 && rowX == x - 1 && edgeKeys.containsKey(rowNode)) {
+
+						mergeOpenings(rowNode, id);
+					}
+
+					if (colNode[x] != -1 && colY[x] == y - 1 && edgeKeys.containsKey(colNode[x])) {
+
+						mergeOpenings(colNode[x], id);
+					}
+				}
+
+				if (rowNode != -1) {
+
+					addEdge(rowNode, id, x - rowX);
+				}
+
+				if (colNode[x] != -1) {
+
+					addEdge(colNode[x], id, y - colY[x]);
+				}
+
+				rowNode = id;
+				rowX = x;
+				colNode[x] = id;
+				colY[x] = y;
+			}
+		}
+
+		// keeps the first two openings on the edge, in Helper's order
+		long entranceKey = Long.MAX_VALUE;
+		long exitKey = Long.MAX_VALUE;
+
+		for (int node : mergedInto.keySet()) {
+
+			long key = edgeKeys.get(node);
+
+			if (opening(node) != node) {
+
+				continue;
+			}
+
+			if (key < entranceKey) {
+
+				exit = entrance;
+				exitKey = entranceKey;
+				entrance = node;
+				entranceKey = key;
+			}
+
+			else if (key < exitKey) {
+
+				exit = node;
+				exitKey = key;
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Finds the first pixel of the opening an edge node is part of.
+	 *
+	 * @param id
+	 *            index of the edge node.
+	 * @return index of the node on the first pixel of its opening.
+	 */
+	private int opening(int id) {
+
+		int first = id;
+
+		while (mergedInto.get(first) != first) {
+
+			first = mergedInto.get(first);
+		}
+
+		// points every node on the way straight at the first pixel
+		while (id != first) {
+
+			int next = mergedInto.get(id);
+
+			mergedInto.put(id, first);
+			id = next;
+		}
+
+		return first;
+	}
+
+	/**
+	 *
+	 * Merges the openings of two edge nodes next to each other, keeping the
+	 * pixel scanned first in Helper's order as the first pixel of both.
+	 *
+	 * @param a
+	 *            index of one edge node.
+	 * @param b
+	 *            index of the other edge node.
+	 */
+	private void mergeOpenings(int a, int b) {
+
+		a = opening(a);
+		b = opening(b);
+
+		if (a == b) {
+
+			return;
+		}
+
+		if (edgeKeys.get(a) < edgeKeys.get(b)) {
+
+			mergedInto.put(b, a);
+		}
+
+		else {
+
+			mergedInto.put(a, b);
+		}
+	}
+
+	/**
+	 *
+	 * Determines if a pixel is a valid place for a node, the same way Helper
+	 * does.
+	 *
+	 * @param up
+	 *            whether the pixel above in the image can be walked on.
+	 * @param down
+	 *            whether the pixel below in the image can be walked on.
+	 * @param left
+	 *            whether the pixel to the left can be walked on.
+	 * @param right
+	 *            whether the pixel to the right can be walked on.
+	 * @return whether or not this pixel is a valid position for a node.
+	 */
+	private static boolean validNode(boolean up, boolean down, boolean left, boolean right) {
+
+		boolean vertical = up || down;
+		boolean horizontal = left || right;
+
+		int numMoves = (up ? 1 : 0) + (down ? 1 : 0) + (left ? 1 : 0) + (right ? 1 : 0);
+
+		return numMoves > 2 || (vertical && horizontal);
+	}
+
+	/**
+	 *
+	 * Writes a node to the temporary nodes file.
+	 *
+	 * @param x
+	 *            x coordinate of the pixel of the node.
+	 * @param y
+	 *            y coordinate of the pixel of the node.
+	 * @return index of the new node.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	private int addNode(int x, int y) throws IOException {
+
+		nodesOut.writeInt(x);
+		nodesOut.writeInt(y);
+
+		return numNodes++;
+	}
+
+	/**
+	 *
+	 * Writes a corridor to the temporary edges file.
+	 *
+	 * @param from
+	 *            index of one end of the corridor.
+	 * @param to
+	 *            index of the other end of the corridor.
+	 * @param weight
+	 *            length of the corridor in pixels.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	private void addEdge(int from, int to, int weight) throws IOException {
+
+		edgesOut.writeInt(from);
+		edgesOut.writeInt(to);
+		edgesOut.writeInt(weight);
+		numEdges++;
+	}
+
+	/**
+	 *
+	 * Packs the nodes and corridors from the temporary files into the graph
+	 * file, the same way GraphBuilder.build() packs them into arrays. The
+	 * offsets in the file are used to count the corridors of every node and
+	 * then as the place the next corridor of every node goes, so nothing is
+	 * kept in memory for every node.
+	 *
+	 * @param ints
+	 *            ints of the graph file, with the header written.
+	 * @param nodesFile
+	 *            temporary nodes file.
+	 * @param edgesFile
+	 *            temporary edges file.
+	 * @throws IOException
+	 *             if the temporary files can't be read.
+	 */
+	private void pack(MappedInts ints, File nodesFile, File edgesFile) throws IOException {
+
+		long offsets = GraphCache.offsetsStart();
+		long targets = GraphCache.targetsStart(numNodes);
+		long weights = GraphCache.weightsStart(numNodes, numEdges * 2);
+		long rows = GraphCache.rowsStart(numNodes, numEdges * 2);
+		long cols = GraphCache.colsStart(numNodes, numEdges * 2);
+
+		try (DataInputStream nodes = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(nodesFile), 1 << 16))) {
+
+			for (int i = 0; i < numNodes; i++) {
+
+				ints.put(rows + i, nodes.readInt());
+				ints.put(cols + i, nodes.readInt());
+			}
+		}
+
+		// counts the edges leaving every node
+		try (DataInputStream edges = openEdges(edgesFile)) {
+
+			for (int i = 0; i < numEdges; i++) {
+
+				int from = edges.readInt();
+				int to = edges.readInt();
+				edges.readInt();
+
+				ints.put(offsets + from + 1, ints.get(offsets + from + 1) + 1);
+				ints.put(offsets + to + 1, ints.get(offsets + to + 1) + 1);
+			}
+		}
+
+		for (int i = 0; i < numNodes; i++) {
+
+			ints.put(offsets + i + 1, ints.get(offsets + i + 1) + ints.get(offsets + i));
+		}
+
+		// places every corridor in the edge lists of both of its ends, moving
+		// the offset of each end past it
+		try (DataInputStream edges = openEdges(edgesFile)) {
+
+			for (int i = 0; i < numEdges; i++) {
+
+				int from = edges.readInt();
+				int to = edges.readInt();
+				int weight = edges.readInt();
+
+				int next = ints.get(offsets + from);
+				ints.put(targets + next, to);
+				ints.put(weights + next, weight);
+				ints.put(offsets + from, next + 1);
+
+				next = ints.get(offsets + to);
+				ints.put(targets + next, from);
+				ints.put(weights + next, weight);
+				ints.put(offsets + to, next + 1);
+			}
+		}
+
+		// every offset now points at the start of the next node
+		for (int i = numNodes; i > 0; i--) {
+
+			ints.put(offsets + i, ints.get(offsets + i - 1));
+		}
+
+		ints.put(offsets, 0);
+	}
+
+	/**
+	 *
+	 * Opens the temporary edges file for reading.
+	 *
+	 * @param edgesFile
+	 *            temporary edges file.
+	 * @return stream of the file.
+	 * @throws IOException
+	 *             if the file can't be opened.
+	 */
+	private static DataInputStream openEdges(File edgesFile) throws IOException {
+
+		return new DataInputStream(new BufferedInputStream(new FileInputStream(edgesFile), 1 << 16));
+	}
+
+	/**
+	 *
+	 * Returns if the maze had to be read whole instead of row by row, see
+	 * PngRowReader.isReadWhole().
+	 *
+	 * @return true if the whole maze was in memory while the graph was built.
+	 */
+	public boolean isReadWhole() {
+
+		return readWhole;
+	}
+
+	/**
+	 *
+	 * Returns the number of nodes in the graph that was built.
+	 *
+	 * @return number of nodes.
+	 */
+	public int getNumNodes() {
+
+		return numNodes;
+	}
+}
@@ -0,0 +1,232 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks the files a batch writes, and that it solves every maze with the
+ * options it was given, as --batch solves them.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class BatchSolverTest extends TestCase {
+
+	private File inDirectory;
+	private File outDirectory;
+
+	// lengths of the shortest paths through the mazes in the input directory,
+	// -1 for the one that has none
+	private int[] expected;
+
+	@Override
+	protected void setUp() throws IOException {
+
+		inDirectory = Files.createTempDirectory("dijkstra-mazes").toFile();
+		outDirectory = new File(Files.createTempDirectory("dijkstra-results").toFile(), "results");
+
+		File[] mazes = { new File("maze1.png"), TestMazes.generate(MazeGenerator.Style.BRAIDED, 121, 81, 19),
+				TestMazes.walledOff(MazeGenerator.Style.PERFECT, 19) };
+		String[] names = { "a.png", "b.png", "c.png" };
+
+		expected = new int[mazes.length];
+
+		for (int i = 0; i < mazes.length; i++) {
+
+			Files.copy(mazes[i].toPath(), new File(inDirectory, names[i]).toPath());
+			expected[i] = MazeBfs.of(mazes[i]).shortestPath();
+		}
+
+		assertEquals(-1, expected[2]);
+	}
+
+	@Override
+	protected void tearDown() {
+
+		GraphCacheTest.delete(inDirectory);
+		GraphCacheTest.delete(outDirectory.getParentFile());
+	}
+
+	public void testFindMazes() throws IOException {
+
+		List<File> all = BatchSolver.findMazes(inDirectory.getPath());
+		List<File> glob = BatchSolver.findMazes(new File(inDirectory, "[ab].png").getPath());
+
+		assertEquals(Arrays.asList("a.png", "b.png", "c.png"), names(all));
+		assertEquals(Arrays.asList("a.png", "b.png"), names(glob));
+	}
+
+	public void testResults() throws IOException {
+
+		run("dijkstra", DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.HEAP, false, false, false, ImageOutput.NONE);
+
+		List<String> lines = Files.readAllLines(new File(outDirectory, "results.csv").toPath());
+
+		assertEquals(4, lines.size());
+		assertEquals("maze,status,nodes,corridors,length,expanded,seconds", lines.get(0));
+		assertTrue(lines.get(1), lines.get(1).startsWith("a.png,\"solved\","));
+		assertTrue(lines.get(2), lines.get(2).startsWith("b.png,\"solved\","));
+		assertTrue(lines.get(3), lines.get(3).startsWith("c.png,\"no path\","));
+
+		// only the paths are written, named after the mazes
+		assertEquals(Arrays.asList("a.txt", "b.txt", "results.csv"), sortedFiles());
+	}
+
+	public void testImages() throws IOException {
+
+		run("astar", DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.HEAP, false, false, false, ImageOutput.SYNC);
+
+		// a maze with no path still has its nodes drawn
+		assertEquals(Arrays.asList("a-nodes.png", "a-path.png", "a.txt", "b-nodes.png", "b-path.png", "b.txt",
+				"c-nodes.png", "results.csv"), sortedFiles());
+	}
+
+	public void testOptions() throws IOException {
+
+		for (boolean stream : new boolean[] { false, true }) {
+
+			run("delta", 1, FrontierType.HEAP, true, true, stream, ImageOutput.NONE);
+			run("bidirectional", DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.BUCKETS, true, false, stream,
+					ImageOutput.NONE);
+			run("dijkstra", DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.BUCKETS, false, true, stream,
+					ImageOutput.NONE);
+		}
+
+		run("jps", DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.HEAP, false, false, false, ImageOutput.NONE);
+	}
+
+	public void testRejectedOptions() {
+
+		String[] modes = { "jps", "fastest" };
+
+		for (String mode : modes) {
+
+			try {
+
+				new BatchSolver(mode, DeltaSteppingSearch.DEFAULT_DELTA, FrontierType.HEAP, false, false, true,
+						ImageOutput.NONE, SolverMetrics.NONE, outDirectory, 2);
+				fail(mode + " was taken with --stream");
+			} catch (IllegalArgumentException e) {
+
+				// expected
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Solves the mazes of the input directory and checks that every result
+	 * and every path written has the length of the shortest path.
+	 *
+	 * @param mode
+	 *            search to solve with.
+	 * @param delta
+	 *            range of distances in every bucket of delta-stepping.
+	 * @param frontier
+	 *            kind of frontier the searches keep their nodes in.
+	 * @param reduce
+	 *            whether the graphs are reduced first.
+	 * @param precheck
+	 *            whether to check that the exit can be reached first.
+	 * @param stream
+	 *            whether the graphs are built row by row.
+	 * @param imageOutput
+	 *            how the images of every maze are written.
+	 * @throws IOException
+	 *             if a file can't be read or written.
+	 */
+	private void run(String mode, int delta, FrontierType frontier, boolean reduce, boolean precheck,
+			boolean stream, ImageOutput imageOutput) throws IOException {
+
+		String what = mode + " delta " + delta + " " + frontier + (reduce ? " reduced" : "")
+				+ (precheck ? " prechecked" : "") + (stream ? " streamed" : "");
+
+		GraphCacheTest.delete(outDirectory);
+
+		new BatchSolver(mode, delta, frontier, reduce, precheck, stream, imageOutput, SolverMetrics.NONE,
+				outDirectory, 2).run(BatchSolver.findMazes(inDirectory.getPath()));
+
+		List<String> lines = Files.readAllLines(new File(outDirectory, "results.csv").toPath());
+
+		assertEquals(what, expected.length + 1, lines.size());
+
+		for (int i = 0; i < expected.length; i++) {
+
+			String[] fields = lines.get(i + 1).split(",");
+			String name = fields[0].substring(0, fields[0].length() - 4);
+
+			assertEquals(what + " " + name, expected[i], Integer.parseInt(fields[4]));
+
+			if (expected[i] != -1) {
+
+				assertEquals(what + " " + name, expected[i], runLength(new File(outDirectory, name + ".txt")));
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Adds up the runs of a path written as run-length text.
+	 *
+	 * @param file
+	 *            file of the path.
+	 * @return the length of the path.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	private static int runLength(File file) throws IOException {
+
+		int length = 0;
+
+		for (String line : Files.readAllLines(file.toPath())) {
+
+			if (!line.startsWith("start")) {
+
+				length += Integer.parseInt(line.substring(2));
+			}
+		}
+
+		return length;
+	}
+
+	/**
+	 *
+	 * Returns the names of the files written to the output directory.
+	 *
+	 * @return the names, sorted.
+	 */
+	private List<String> sortedFiles() {
+
+		String[] files = outDirectory.list();
+
+		Arrays.sort(files);
+
+		return Arrays.asList(files);
+	}
+
+	/**
+	 *
+	 * Returns the names of some files.
+	 *
+	 * @param files
+	 *            files to name.
+	 * @return the names, in the same order.
+	 */
+	private static List<String> names(List<File> files) {
+
+		String[] names = new String[files.size()];
+
+		for (int i = 0; i < names.length; i++) {
+
+			names[i] = files.get(i).getName();
+		}
+
+		return Arrays.asList(names);
+	}
+}
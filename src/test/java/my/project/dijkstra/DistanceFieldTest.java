@@ -0,0 +1,120 @@
+package my.project.dijkstra;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks the distance from the entrance to every pixel, as --distances finds
+ * it, against a breadth-first search over the pixels of the maze.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class DistanceFieldTest extends TestCase {
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertSameDistances(maze);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertSameDistances(TestMazes.generate(style, 121, 81, 3));
+		}
+	}
+
+	public void testUnreachablePixels() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertSameDistances(TestMazes.walledOff(style, 3));
+		}
+	}
+
+	public void testBinaryFile() throws IOException {
+
+		File maze = new File("maze2.png");
+		Helper helper = TestMazes.helper(maze);
+		DistanceField field = new DistanceField(helper, helper.getGraph(), FrontierType.HEAP);
+		File file = File.createTempFile("distances", ".bin");
+
+		file.deleteOnExit();
+		field.write(file, helper.getGrid());
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+			assertEquals(0x444A4B44, in.readInt());
+			assertEquals(1, in.readInt());
+			assertEquals(helper.getRows(), in.readInt());
+			assertEquals(helper.getCols(), in.readInt());
+			assertEquals(field.getMaxDistance(), in.readInt());
+
+			int prev = 0;
+
+			// every pixel in the order of the lines of the image, as the change
+			// from the distance plus one of the pixel before
+			for (int col = 0; col < helper.getCols(); col++) {
+				for (int row = 0; row < helper.getRows(); row++) {
+
+					prev += PathWriterTest.readVarint(in);
+
+					assertEquals(field.getDistance(row, col) + 1, prev);
+				}
+			}
+
+			assertEquals(-1, in.read());
+		}
+	}
+
+	/**
+	 *
+	 * Checks the distance to every pixel of a maze with either frontier.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private void assertSameDistances(File maze) throws IOException {
+
+		MazeBfs bfs = MazeBfs.of(maze);
+		int[] expected = bfs.distancesFromEntrance();
+		Helper helper = TestMazes.helper(maze);
+		int rows = helper.getRows();
+		int cols = helper.getCols();
+
+		for (FrontierType frontier : FrontierType.values()) {
+
+			String what = maze.getName() + " " + frontier;
+			DistanceField field = new DistanceField(helper, helper.getGraph(), frontier);
+			int max = 0;
+
+			for (int row = 0; row < rows; row++) {
+				for (int col = 0; col < cols; col++) {
+
+					// the message is only put together for a pixel that is wrong
+					if (field.getDistance(row, col) != expected[row * cols + col]) {
+
+						assertEquals(what + " (" + row + ", " + col + ")", expected[row * cols + col],
+								field.getDistance(row, col));
+					}
+
+					max = Math.max(max, expected[row * cols + col]);
+				}
+			}
+
+			assertEquals(what, max, field.getMaxDistance());
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package my.project.dijkstra;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks both frontiers against a plain array of keys, with the keys going up
+ * the way a search makes them go up.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class FrontierTest extends TestCase {
+
+	private static final int CAPACITY = 300;
+
+	public void testIndexedHeap() {
+
+		assertOrdered(new IndexedHeap(CAPACITY), 20);
+		assertOrdered(new IndexedHeap(CAPACITY), 5000);
+	}
+
+	public void testBucketQueue() {
+
+		assertOrdered(new BucketQueue(CAPACITY, 20), 20);
+	}
+
+	public void testBucketQueueGrows() {
+
+		// keys much further apart than the queue expected at first
+		assertOrdered(new BucketQueue(CAPACITY, 4), 5000);
+	}
+
+	public void testClear() {
+
+		Frontier[] frontiers = { new IndexedHeap(CAPACITY), new BucketQueue(CAPACITY, 20) };
+
+		for (Frontier frontier : frontiers) {
+
+			frontier.add(3, 10);
+			frontier.add(7, 4);
+			frontier.poll();
+			frontier.clear();
+
+			assertTrue(frontier.isEmpty());
+			assertFalse(frontier.contains(3));
+			assertEquals(0, frontier.getNumPushes());
+			assertEquals(0, frontier.getNumPolls());
+
+			// keys below the ones taken off before clearing still work
+			frontier.add(3, 1);
+			frontier.add(5, 0);
+
+			assertEquals(5, frontier.poll());
+			assertEquals(3, frontier.poll());
+		}
+	}
+
+	/**
+	 *
+	 * Adds, lowers and takes off nodes at random like a search would, never
+	 * adding a key smaller than the last one taken off, and checks every node
+	 * taken off has the smallest key.
+	 *
+	 * @param frontier
+	 *            empty frontier to check.
+	 * @param spread
+	 *            most a new key is above the last key taken off.
+	 */
+	private void assertOrdered(Frontier frontier, int spread) {
+
+		Random random = new Random(spread);
+		String name = frontier.getClass().getSimpleName();
+
+		// key of every node on the frontier, -1 for the others
+		int[] key = new int[CAPACITY];
+		int size = 0;
+		int last = 0;
+
+		Arrays.fill(key, -1);
+
+		for (int step = 0; step < 200000; step++) {
+
+			int id = random.nextInt(CAPACITY);
+			int choice = random.nextInt(3);
+
+			if (choice == 0 && key[id] == -1) {
+
+				key[id] = last + random.nextInt(spread);
+				frontier.add(id, key[id]);
+				size++;
+			}
+
+			else if (choice == 1 && key[id] > last) {
+
+				key[id] = last + random.nextInt(key[id] - last);
+				frontier.decreaseKey(id, key[id]);
+			}
+
+			else if (choice == 2 && size > 0) {
+
+				int smallest = Integer.MAX_VALUE;
+
+				for (int k : key) {
+
+					if (k != -1 && k < smallest) {
+
+						smallest = k;
+					}
+				}
+
+				assertEquals(name, smallest, frontier.peekKey());
+
+				int polled = frontier.poll();
+
+				assertEquals(name, smallest, key[polled]);
+
+				key[polled] = -1;
+				last = smallest;
+				size--;
+			}
+
+			assertEquals(name, size, frontier.size());
+			assertEquals(name, key[id] != -1, frontier.contains(id));
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks that a graph saved in the cache loads back the same, both as --cache
+ * loads it and mapped as --stream searches it, and that a helper can still find its way around the maze when
+ * its graph came from the cache.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class GraphCacheTest extends TestCase {
+
+	private File directory;
+	private GraphCache cache;
+
+	@Override
+	protected void setUp() throws IOException {
+
+		directory = Files.createTempDirectory("dijkstra-cache").toFile();
+		cache = new GraphCache(directory);
+	}
+
+	@Override
+	protected void tearDown() {
+
+		delete(directory);
+	}
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertLoadsTheSame(maze);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertLoadsTheSame(TestMazes.generate(style, 121, 81, 5));
+			assertLoadsTheSame(TestMazes.walledOff(style, 5));
+		}
+	}
+
+	public void testEndpointsAfterLoad() throws IOException {
+
+		File maze = new File("maze3.png");
+		Helper placed = TestMazes.helper(maze);
+
+		placed.saveGraph(cache);
+
+		Helper loaded = TestMazes.quietHelper(maze);
+
+		assertTrue(loaded.loadGraph(cache));
+
+		MazeBfs bfs = MazeBfs.of(maze);
+		int checked = 0;
+
+		for (int row = 0; row < placed.getRows(); row += 7) {
+			for (int col = 0; col < placed.getCols(); col += 3) {
+
+				if (!bfs.isOpen(row, col)) {
+
+					continue;
+				}
+
+				Endpoint expected = placed.getEndpoint(row, col);
+				Endpoint actual = loaded.getEndpoint(row, col);
+
+				assertEquals(expected.getNumNodes(), actual.getNumNodes());
+
+				for (int i = 0; i < expected.getNumNodes(); i++) {
+
+					assertEquals(expected.getNode(i), actual.getNode(i));
+					assertEquals(expected.getDistance(i), actual.getDistance(i));
+				}
+
+				checked++;
+			}
+		}
+
+		assertTrue(checked > 0);
+	}
+
+	public void testMissingGraph() throws IOException {
+
+		Helper helper = TestMazes.quietHelper(new File("maze1.png"));
+
+		assertNull(cache.load(helper.getContentHash()));
+		assertNull(cache.map(helper.getContentHash()));
+		assertFalse(helper.loadGraph(cache));
+	}
+
+	public void testBrokenFileIsIgnored() throws IOException {
+
+		Helper helper = TestMazes.helper(new File("maze2.png"));
+
+		helper.saveGraph(cache);
+
+		File file = cache.getFile(helper.getContentHash());
+
+		// the file no longer has the size its header says it has
+		try (OutputStream out = new FileOutputStream(file, true)) {
+
+			out.write(new byte[] { 1, 2, 3, 4 });
+		}
+
+		assertNull(cache.load(helper.getContentHash()));
+		assertNull(cache.map(helper.getContentHash()));
+	}
+
+	public void testHashFollowsContent() throws IOException {
+
+		File maze = new File("maze2.png");
+		byte[] content = Files.readAllBytes(maze.toPath());
+
+		assertEquals(GraphCache.hash(content), GraphCache.hash(maze));
+
+		content[content.length / 2] ^= 1;
+
+		assertFalse(GraphCache.hash(content).equals(GraphCache.hash(maze)));
+	}
+
+	/**
+	 *
+	 * Saves the graph of a maze, loads it back the way the driver does, both
+	 * copied and mapped, and checks that it is the same graph and that every
+	 * search finds the shortest path through it.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private void assertLoadsTheSame(File maze) throws IOException {
+
+		Helper placer = TestMazes.helper(maze);
+		Graph placed = placer.getGraph();
+
+		placer.saveGraph(cache);
+
+		Helper helper = TestMazes.quietHelper(maze);
+
+		assertTrue(maze.getName(), helper.loadGraph(cache));
+
+		Graph loaded = helper.getGraph();
+
+		TestMazes.assertSameGraph(maze.getName(), placed, loaded);
+
+		MazeBfs bfs = MazeBfs.of(maze);
+
+		SearchTest.assertEverySearch(maze.getName() + " cached", bfs, loaded, bfs.shortestPath());
+
+		Graph mapped = cache.map(helper.getContentHash());
+
+		TestMazes.assertSameGraph(maze.getName() + " mapped", placed, mapped);
+		assertEquals(maze.getName(), placed.getMaxWeight(), mapped.getMaxWeight());
+		SearchTest.assertEverySearch(maze.getName() + " mapped", bfs, mapped, bfs.shortestPath());
+	}
+
+	/**
+	 *
+	 * Deletes a directory and everything in it.
+	 *
+	 * @param file
+	 *            directory or file to delete.
+	 */
+	static void delete(File file) {
+
+		File[] children = file.listFiles();
+
+		if (children != null) {
+
+			for (File child : children) {
+
+				delete(child);
+			}
+		}
+
+		file.delete();
+	}
+}
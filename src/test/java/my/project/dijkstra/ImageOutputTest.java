@@ -0,0 +1,323 @@
+package my.project.dijkstra;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks the images every kind of image output writes: the nodes and the
+ * path drawn in red over the maze, the same images whether they are drawn on
+ * the background thread or not, and only the part of the maze around the
+ * path with REGION.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class ImageOutputTest extends TestCase {
+
+	private static final int RED = Color.RED.getRGB();
+
+	private File directory;
+
+	@Override
+	protected void setUp() throws IOException {
+
+		directory = Files.createTempDirectory("dijkstra-images").toFile();
+	}
+
+	@Override
+	protected void tearDown() {
+
+		GraphCacheTest.delete(directory);
+	}
+
+	public void testSync() throws IOException {
+
+		for (File maze : mazes()) {
+
+			Helper helper = TestMazes.helper(maze);
+			Path path = solve(helper);
+			BufferedImage original = ImageIO.read(maze);
+
+			draw(helper, path, ImageOutput.SYNC);
+
+			assertNodes(maze.getName(), original, helper.getGraph(), ImageIO.read(nodesFile(ImageOutput.SYNC)));
+			assertPath(maze.getName(), original, path, ImageIO.read(pathFile(ImageOutput.SYNC)));
+		}
+	}
+
+	public void testAsync() throws IOException {
+
+		for (File maze : mazes()) {
+
+			Helper helper = TestMazes.helper(maze);
+			Path path = solve(helper);
+
+			draw(helper, path, ImageOutput.SYNC);
+			draw(helper, path, ImageOutput.ASYNC);
+
+			assertSameImage(maze.getName() + " nodes", ImageIO.read(nodesFile(ImageOutput.SYNC)),
+					ImageIO.read(nodesFile(ImageOutput.ASYNC)), 0, 0);
+			assertSameImage(maze.getName() + " path", ImageIO.read(pathFile(ImageOutput.SYNC)),
+					ImageIO.read(pathFile(ImageOutput.ASYNC)), 0, 0);
+		}
+	}
+
+	public void testRegion() throws IOException {
+
+		for (File maze : mazes()) {
+
+			Helper helper = TestMazes.helper(maze);
+			Path path = solve(helper);
+
+			draw(helper, path, ImageOutput.SYNC);
+			draw(helper, path, ImageOutput.REGION);
+
+			BufferedImage whole = ImageIO.read(pathFile(ImageOutput.SYNC));
+			BufferedImage region = ImageIO.read(pathFile(ImageOutput.REGION));
+			int firstRow = Integer.MAX_VALUE;
+			int firstCol = Integer.MAX_VALUE;
+			int lastRow = 0;
+			int lastCol = 0;
+
+			for (int p = 0; p < path.getNumPoints(); p++) {
+
+				firstRow = Math.min(firstRow, path.getRow(p));
+				firstCol = Math.min(firstCol, path.getCol(p));
+				lastRow = Math.max(lastRow, path.getRow(p));
+				lastCol = Math.max(lastCol, path.getCol(p));
+			}
+
+			// the path and ten pixels around it, as far as the maze goes
+			firstRow = Math.max(0, firstRow - 10);
+			firstCol = Math.max(0, firstCol - 10);
+			lastRow = Math.min(helper.getRows() - 1, lastRow + 10);
+			lastCol = Math.min(helper.getCols() - 1, lastCol + 10);
+
+			assertFalse(maze.getName(), nodesFile(ImageOutput.REGION).exists());
+			assertEquals(maze.getName(), lastRow - firstRow + 1, region.getWidth());
+			assertEquals(maze.getName(), lastCol - firstCol + 1, region.getHeight());
+			assertSameImage(maze.getName(), whole, region, firstRow, firstCol);
+		}
+	}
+
+	public void testNone() throws IOException {
+
+		Helper helper = TestMazes.helper(new File("maze2.png"));
+
+		draw(helper, solve(helper), ImageOutput.NONE);
+
+		assertFalse(nodesFile(ImageOutput.NONE).exists());
+		assertFalse(pathFile(ImageOutput.NONE).exists());
+	}
+
+	/**
+	 *
+	 * Returns the mazes to draw: one that comes with the project and a
+	 * generated one with loops in it.
+	 *
+	 * @return the mazes.
+	 * @throws IOException
+	 *             if a maze can't be written.
+	 */
+	private static File[] mazes() throws IOException {
+
+		return new File[] { new File("maze2.png"), TestMazes.generate(MazeGenerator.Style.BRAIDED, 121, 81, 43) };
+	}
+
+	/**
+	 *
+	 * Finds the shortest path through a maze with Dijkstra's algorithm.
+	 *
+	 * @param helper
+	 *            helper of the maze, with its nodes placed.
+	 * @return the path.
+	 */
+	private static Path solve(Helper helper) {
+
+		Search search = Dijkstra.newSearch("dijkstra", helper.getGraph());
+
+		assertTrue(search.run());
+
+		return search.getPath();
+	}
+
+	/**
+	 *
+	 * Draws the nodes and path of a maze to the files of an image output, as
+	 * the solver draws them.
+	 *
+	 * @param helper
+	 *            helper of the maze, with its nodes placed.
+	 * @param path
+	 *            path through the maze.
+	 * @param imageOutput
+	 *            how the images are written.
+	 */
+	private void draw(Helper helper, Path path, ImageOutput imageOutput) {
+
+		helper.setImageOutput(imageOutput);
+		helper.setImageFiles(nodesFile(imageOutput), pathFile(imageOutput));
+		helper.printNodes();
+		helper.backpropogate(path.getRowsFromExit(), path.getColsFromExit());
+		helper.finishPrinting();
+	}
+
+	/**
+	 *
+	 * Checks that the nodes of a graph are the red pixels of an image and
+	 * that every other pixel is the one of the maze.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param original
+	 *            image of the maze.
+	 * @param graph
+	 *            graph of the maze.
+	 * @param image
+	 *            image the nodes were drawn on.
+	 */
+	private static void assertNodes(String name, BufferedImage original, Graph graph, BufferedImage image) {
+
+		BufferedImage expected = copy(original);
+
+		for (int i = 0; i < graph.getNumNodes(); i++) {
+
+			expected.setRGB(graph.getRow(i), graph.getCol(i), RED);
+		}
+
+		assertSameImage(name, expected, image, 0, 0);
+	}
+
+	/**
+	 *
+	 * Checks that every pixel the path goes through, and no other, is red in
+	 * an image and that every other pixel is the one of the maze.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param original
+	 *            image of the maze.
+	 * @param path
+	 *            path through the maze.
+	 * @param image
+	 *            image the path was drawn on.
+	 */
+	private static void assertPath(String name, BufferedImage original, Path path, BufferedImage image) {
+
+		BufferedImage expected = copy(original);
+
+		for (int p = 0; p < path.getNumPoints(); p++) {
+
+			int row = path.getRow(p);
+			int col = path.getCol(p);
+
+			expected.setRGB(row, col, RED);
+
+			// the pixels between this point and the next are on a straight line
+			if (p + 1 < path.getNumPoints()) {
+
+				int nextRow = path.getRow(p + 1);
+				int nextCol = path.getCol(p + 1);
+
+				while (row != nextRow || col != nextCol) {
+
+					row += Integer.signum(nextRow - row);
+					col += Integer.signum(nextCol - col);
+
+					// the path only goes through open pixels
+					assertEquals(name, 0xFFFFFFFF, original.getRGB(row, col));
+					expected.setRGB(row, col, RED);
+				}
+			}
+		}
+
+		assertSameImage(name, expected, image, 0, 0);
+	}
+
+	/**
+	 *
+	 * Checks that an image is the same as part of another, pixel for pixel.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param expected
+	 *            image that is right.
+	 * @param actual
+	 *            image to check, no larger than the rest of the expected one.
+	 * @param firstRow
+	 *            row of the expected image the actual one starts at.
+	 * @param firstCol
+	 *            column of the expected image the actual one starts at.
+	 */
+	private static void assertSameImage(String name, BufferedImage expected, BufferedImage actual, int firstRow,
+			int firstCol) {
+
+		if (firstRow == 0 && firstCol == 0) {
+
+			assertEquals(name, expected.getWidth(), actual.getWidth());
+			assertEquals(name, expected.getHeight(), actual.getHeight());
+		}
+
+		for (int row = 0; row < actual.getWidth(); row++) {
+
+			for (int col = 0; col < actual.getHeight(); col++) {
+
+				if (expected.getRGB(firstRow + row, firstCol + col) != actual.getRGB(row, col)) {
+
+					fail(name + " differs at (" + (firstRow + row) + ", " + (firstCol + col) + ")");
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Copies an image into one that can be drawn on in any color.
+	 *
+	 * @param image
+	 *            image to copy.
+	 * @return the copy.
+	 */
+	private static BufferedImage copy(BufferedImage image) {
+
+		BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+
+		copy.getGraphics().drawImage(image, 0, 0, null);
+
+		return copy;
+	}
+
+	/**
+	 *
+	 * Returns the file the nodes are drawn to with an image output.
+	 *
+	 * @param imageOutput
+	 *            how the images are written.
+	 * @return the file, in the temporary directory of the test.
+	 */
+	private File nodesFile(ImageOutput imageOutput) {
+
+		return new File(directory, imageOutput.name().toLowerCase() + "-nodes.png");
+	}
+
+	/**
+	 *
+	 * Returns the file the path is drawn to with an image output.
+	 *
+	 * @param imageOutput
+	 *            how the images are written.
+	 * @return the file, in the temporary directory of the test.
+	 */
+	private File pathFile(ImageOutput imageOutput) {
+
+		return new File(directory, imageOutput.name().toLowerCase() + "-path.png");
+	}
+}
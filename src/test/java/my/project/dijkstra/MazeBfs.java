@@ -0,0 +1,417 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.Assert;
+
+/**
+ *
+ * A plain breadth-first search over the pixels of a maze image, which knows
+ * nothing of nodes, corridors or graphs. The tests compare every search the
+ * solver has against the distances it finds. A pixel is a wall if it is
+ * opaque black, the same as in Helper, and pixel (x, y) of the image is row x
+ * and column y of the maze.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+final class MazeBfs {
+
+	private static final int BLACK = 0xFF000000;
+
+	private int rows;
+	private int cols;
+	private boolean[] open;
+
+	// runs of pixels next to each other on the edge that can be walked on,
+	// each as the indexes row * cols + col of its pixels from the smallest
+	// up, in the order Helper finds them in
+	private List<int[]> openings = new ArrayList<int[]>();
+
+	/**
+	 *
+	 * Constructor for the search of a maze image.
+	 *
+	 * @param image
+	 *            image of the maze.
+	 */
+	MazeBfs(BufferedImage image) {
+
+		rows = image.getWidth();
+		cols = image.getHeight();
+		open = new boolean[rows * cols];
+
+		for (int x = 0; x < rows; x++) {
+			for (int y = 0; y < cols; y++) {
+
+				open[x * cols + y] = image.getRGB(x, y) != BLACK;
+			}
+		}
+
+		boolean[] seen = new boolean[rows * cols];
+
+		// Helper scans row after row, so the smallest index of an opening is
+		// the first pixel Helper finds of it
+		for (int p = 0; p < rows * cols; p++) {
+
+			if (isEdgeOpening(p / cols, p % cols) && !seen[p]) {
+
+				openings.add(edgeRun(p, seen));
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Reads a maze image from a file.
+	 *
+	 * @param file
+	 *            PNG file of the maze.
+	 * @return search of the maze.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	static MazeBfs of(File file) throws IOException {
+
+		return new MazeBfs(ImageIO.read(file));
+	}
+
+	/**
+	 *
+	 * Returns the openings in the edge of the maze.
+	 *
+	 * @return indexes row * cols + col of the pixels of every opening, the
+	 *         entrance and exit first.
+	 */
+	List<int[]> getOpenings() {
+
+		return openings;
+	}
+
+	/**
+	 *
+	 * Returns the row of a pixel from its index.
+	 *
+	 * @param p
+	 *            index of the pixel, row * cols + col.
+	 * @return row of the pixel.
+	 */
+	int rowOf(int p) {
+
+		return p / cols;
+	}
+
+	/**
+	 *
+	 * Returns the column of a pixel from its index.
+	 *
+	 * @param p
+	 *            index of the pixel, row * cols + col.
+	 * @return column of the pixel.
+	 */
+	int colOf(int p) {
+
+		return p % cols;
+	}
+
+	/**
+	 *
+	 * Returns whether a pixel can be walked on.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return false for walls and pixels outside the maze.
+	 */
+	boolean isOpen(int row, int col) {
+
+		return row >= 0 && row < rows && col >= 0 && col < cols && open[row * cols + col];
+	}
+
+	/**
+	 *
+	 * Finds the distance from the entrance to every pixel.
+	 *
+	 * @return distance of pixel (row, col) at row * cols + col, -1 for walls
+	 *         and pixels that can't be reached.
+	 */
+	int[] distancesFromEntrance() {
+
+		int entrance = openings.get(0)[0];
+		int[] distance = new int[rows * cols];
+
+		spread(distance, new int[] { entrance }, false);
+
+		return distance;
+	}
+
+	/**
+	 *
+	 * Returns the length of the shortest path from the entrance to the exit,
+	 * which are the first pixels of the first two openings.
+	 *
+	 * @return length in pixels, -1 if the exit can't be reached.
+	 */
+	int shortestPath() {
+
+		return distancesFromEntrance()[openings.get(1)[0]];
+	}
+
+	/**
+	 *
+	 * Returns the length of the shortest path from any of the openings picked
+	 * as entrances to any of the others.
+	 *
+	 * @param entrances
+	 *            indexes of the openings to start from.
+	 * @return length in pixels, -1 if no other opening can be reached.
+	 */
+	int shortestPath(int[] entrances) {
+
+		int[] distance = distances(entrances);
+		int best = -1;
+
+		for (int k = 0; k < openings.size(); k++) {
+
+			if (contains(entrances, k)) {
+
+				continue;
+			}
+
+			for (int p : openings.get(k)) {
+
+				if (distance[p] != -1 && (best == -1 || distance[p] < best)) {
+
+					best = distance[p];
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 *
+	 * Checks that a path walks from an opening picked as an entrance to one
+	 * of the others in straight lines over pixels that can be walked on.
+	 *
+	 * @param path
+	 *            path found by the solver.
+	 * @param entrances
+	 *            indexes of the openings the path may start at.
+	 */
+	void assertWalkable(Path path, int[] entrances) {
+
+		Assert.assertTrue("path has no points", path.getNumPoints() > 0);
+
+		int first = openingAt(path.getRow(0), path.getCol(0));
+		int last = openingAt(path.getRow(path.getNumPoints() - 1), path.getCol(path.getNumPoints() - 1));
+
+		Assert.assertTrue("path doesn't start at an entrance", contains(entrances, first));
+		Assert.assertTrue("path doesn't end at an exit", last != -1 && !contains(entrances, last));
+
+		for (int p = 1; p < path.getNumPoints(); p++) {
+
+			int row = path.getRow(p - 1);
+			int col = path.getCol(p - 1);
+			int toRow = path.getRow(p);
+			int toCol = path.getCol(p);
+
+			Assert.assertTrue("path goes diagonally from (" + row + ", " + col + ") to (" + toRow + ", " + toCol + ")",
+					row == toRow || col == toCol);
+
+			while (row != toRow || col != toCol) {
+
+				row += Integer.signum(toRow - row);
+				col += Integer.signum(toCol - col);
+
+				Assert.assertTrue("path runs through the wall at (" + row + ", " + col + ")", isOpen(row, col));
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Runs the search from every pixel of every opening picked as an entrance
+	 * at once.
+	 *
+	 * @param entrances
+	 *            indexes of the openings to start from.
+	 * @return distance of every pixel from the closest entrance.
+	 */
+	private int[] distances(int[] entrances) {
+
+		int numStarts = 0;
+
+		for (int k : entrances) {
+
+			numStarts += openings.get(k).length;
+		}
+
+		int[] starts = new int[numStarts];
+
+		numStarts = 0;
+
+		for (int k : entrances) {
+
+			for (int p : openings.get(k)) {
+
+				starts[numStarts++] = p;
+			}
+		}
+
+		int[] distance = new int[rows * cols];
+
+		spread(distance, starts, false);
+
+		return distance;
+	}
+
+	/**
+	 *
+	 * Finds every pixel of the opening a pixel on the edge is part of, by a
+	 * breadth-first search that only steps onto other openings on the edge.
+	 *
+	 * @param start
+	 *            index of the pixel.
+	 * @param seen
+	 *            pixels already put in an opening, the ones found are added.
+	 * @return indexes of the pixels of the opening, from the smallest up.
+	 */
+	private int[] edgeRun(int start, boolean[] seen) {
+
+		int[] distance = new int[rows * cols];
+		int[] run = spread(distance, new int[] { start }, true);
+
+		for (int p : run) {
+
+			seen[p] = true;
+		}
+
+		Arrays.sort(run);
+
+		return run;
+	}
+
+	/**
+	 *
+	 * Spreads out from some pixels at once, one step at a time.
+	 *
+	 * @param distance
+	 *            filled in with the distance of every pixel, -1 for walls and
+	 *            pixels that can't be reached.
+	 * @param starts
+	 *            indexes of the pixels to start from.
+	 * @param edgeOnly
+	 *            whether to only step along the openings in the edge instead
+	 *            of onto any pixel that can be walked on.
+	 * @return indexes of the pixels reached, in the order they were reached.
+	 */
+	private int[] spread(int[] distance, int[] starts, boolean edgeOnly) {
+
+		int[] queue = new int[rows * cols];
+		int head = 0;
+		int tail = 0;
+
+		Arrays.fill(distance, -1);
+
+		for (int p : starts) {
+
+			if (distance[p] == -1) {
+
+				distance[p] = 0;
+				queue[tail++] = p;
+			}
+		}
+
+		while (head < tail) {
+
+			int p = queue[head++];
+			int x = p / cols;
+			int y = p % cols;
+			int[] next = { x + 1, y, x - 1, y, x, y + 1, x, y - 1 };
+
+			for (int n = 0; n < next.length; n += 2) {
+
+				boolean step = edgeOnly ? isEdgeOpening(next[n], next[n + 1]) : isOpen(next[n], next[n + 1]);
+
+				if (step && distance[next[n] * cols + next[n + 1]] == -1) {
+
+					distance[next[n] * cols + next[n + 1]] = distance[p] + 1;
+					queue[tail++] = next[n] * cols + next[n + 1];
+				}
+			}
+		}
+
+		return Arrays.copyOf(queue, tail);
+	}
+
+	/**
+	 *
+	 * Returns whether a pixel is on the edge of the maze and can be walked on.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return true if the pixel is part of an opening.
+	 */
+	private boolean isEdgeOpening(int row, int col) {
+
+		return isOpen(row, col) && (row == 0 || col == 0 || row == rows - 1 || col == cols - 1);
+	}
+
+	/**
+	 *
+	 * Returns which opening a pixel is in.
+	 *
+	 * @param row
+	 *            row of the pixel.
+	 * @param col
+	 *            column of the pixel.
+	 * @return index of the opening, -1 if the pixel isn't in one.
+	 */
+	int openingAt(int row, int col) {
+
+		for (int k = 0; k < openings.size(); k++) {
+
+			if (Arrays.binarySearch(openings.get(k), row * cols + col) >= 0) {
+
+				return k;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 *
+	 * Returns whether an index is in a list.
+	 *
+	 * @param indexes
+	 *            list of indexes.
+	 * @param k
+	 *            index to look for.
+	 * @return true if it is there.
+	 */
+	private static boolean contains(int[] indexes, int k) {
+
+		for (int i : indexes) {
+
+			if (i == k) {
+
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
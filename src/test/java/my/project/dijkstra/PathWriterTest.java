@@ -0,0 +1,287 @@
+package my.project.dijkstra;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Reads back every format a path is written in, as --path-out writes them,
+ * and checks it goes through the same pixels as the path.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PathWriterTest extends TestCase {
+
+	public void testBinary() throws IOException {
+
+		for (Path path : paths()) {
+
+			File file = tempFile(".bin");
+
+			PathWriter.writeBinary(path, file);
+
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+				assertEquals(0x444A4B50, in.readInt());
+				assertEquals(1, in.readInt());
+				assertEquals(path.getNumPoints(), in.readInt());
+
+				if (path.getNumPoints() > 0) {
+
+					int row = in.readInt();
+					int col = in.readInt();
+
+					assertEquals(path.getRow(0), row);
+					assertEquals(path.getCol(0), col);
+
+					for (int p = 1; p < path.getNumPoints(); p++) {
+
+						row += readVarint(in);
+						col += readVarint(in);
+
+						assertEquals(path.getRow(p), row);
+						assertEquals(path.getCol(p), col);
+					}
+				}
+
+				assertEquals(-1, in.read());
+			}
+		}
+	}
+
+	public void testVarints() throws IOException {
+
+		int[] values = { 0, 1, -1, 63, -64, 64, -65, 8191, 8192, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		int[] sizes = { 1, 1, 1, 1, 1, 2, 2, 2, 3, 5, 5 };
+
+		for (int i = 0; i < values.length; i++) {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			PathWriter.writeVarint(new DataOutputStream(bytes), values[i]);
+
+			assertEquals("bytes of " + values[i], sizes[i], bytes.size());
+			assertEquals(values[i], readVarint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		}
+	}
+
+	public void testRunLength() throws IOException {
+
+		for (Path path : paths()) {
+
+			File file = tempFile(".txt");
+
+			PathWriter.writeRunLength(path, file);
+
+			List<String> lines = Files.readAllLines(file.toPath());
+
+			if (path.getNumPoints() == 0) {
+
+				assertTrue(lines.isEmpty());
+				continue;
+			}
+
+			String[] start = lines.get(0).split(" ");
+			List<int[]> pixels = new ArrayList<int[]>();
+			char last = 0;
+
+			assertEquals("start", start[0]);
+			pixels.add(new int[] { Integer.parseInt(start[1]), Integer.parseInt(start[2]) });
+
+			for (String line : lines.subList(1, lines.size())) {
+
+				char direction = line.charAt(0);
+				int[] step = { direction == 'R' ? 1 : direction == 'L' ? -1 : 0,
+						direction == 'D' ? 1 : direction == 'U' ? -1 : 0 };
+
+				// runs the same way one after the other would be one run
+				assertTrue(line, direction != last);
+				last = direction;
+
+				for (int k = Integer.parseInt(line.substring(2)); k > 0; k--) {
+
+					int[] previous = pixels.get(pixels.size() - 1);
+
+					pixels.add(new int[] { previous[0] + step[0], previous[1] + step[1] });
+				}
+			}
+
+			assertSamePixels(path, pixels);
+		}
+	}
+
+	public void testSvg() throws IOException {
+
+		for (Path path : paths()) {
+
+			File file = tempFile(".svg");
+
+			PathWriter.writeSvg(path, file);
+
+			String svg = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+			Matcher size = Pattern.compile("width=\"(\\d+)\" height=\"(\\d+)\"").matcher(svg);
+			Matcher points = Pattern.compile("points=\"([^\"]*)\"").matcher(svg);
+			int width = 0;
+			int height = 0;
+
+			assertTrue(svg, size.find());
+			assertTrue(svg, points.find());
+
+			String[] pairs = points.group(1).isEmpty() ? new String[0] : points.group(1).split(" ");
+
+			assertEquals(path.getNumPoints(), pairs.length);
+
+			for (int p = 0; p < pairs.length; p++) {
+
+				// every point is at the center of its pixel
+				assertEquals(path.getRow(p) + ".5," + path.getCol(p) + ".5", pairs[p]);
+
+				width = Math.max(width, path.getRow(p) + 1);
+				height = Math.max(height, path.getCol(p) + 1);
+			}
+
+			assertEquals(width, Integer.parseInt(size.group(1)));
+			assertEquals(height, Integer.parseInt(size.group(2)));
+		}
+	}
+
+	public void testFormatByName() throws IOException {
+
+		Path path = paths().get(0);
+		String[] names = { ".svg", ".TXT", ".bin", "" };
+		String[] starts = { "<svg", "start", "DJKP", "DJKP" };
+
+		for (int i = 0; i < names.length; i++) {
+
+			File file = tempFile(names[i]);
+
+			PathWriter.write(path, file);
+
+			assertTrue(names[i], new String(Files.readAllBytes(file.toPath()), "ISO-8859-1").startsWith(starts[i]));
+		}
+	}
+
+	/**
+	 *
+	 * Reads a zig-zagged varint written by PathWriter.writeVarint().
+	 *
+	 * @param in
+	 *            stream to read from.
+	 * @return the int.
+	 * @throws IOException
+	 *             if the stream ends early.
+	 */
+	static int readVarint(DataInputStream in) throws IOException {
+
+		int zigzag = 0;
+		int shift = 0;
+		int b;
+
+		do {
+
+			b = in.readUnsignedByte();
+			zigzag |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 *
+	 * Checks that a list of pixels is every pixel a path goes through, in
+	 * order.
+	 *
+	 * @param path
+	 *            the path.
+	 * @param pixels
+	 *            the pixels as (row, col) pairs.
+	 */
+	private static void assertSamePixels(Path path, List<int[]> pixels) {
+
+		int k = 0;
+
+		assertEquals(path.getLength() + 1, pixels.size());
+
+		for (int p = 0; p < path.getNumPoints(); p++) {
+
+			// the pixels between this point and the next are on a straight line
+			int row = path.getRow(p);
+			int col = path.getCol(p);
+
+			while (k < pixels.size() && (pixels.get(k)[0] != row || pixels.get(k)[1] != col)) {
+
+				int[] pixel = pixels.get(k);
+
+				assertTrue(p > 0 && (pixel[0] == row || pixel[1] == col));
+				k++;
+			}
+
+			assertTrue("point " + p + " of the path isn't in the file", k < pixels.size());
+		}
+
+		assertEquals(pixels.size() - 1, k);
+	}
+
+	/**
+	 *
+	 * Returns paths to write: the shortest paths through the bundled mazes,
+	 * one that goes straight on through some of its points, one of a single
+	 * point and an empty one.
+	 *
+	 * @return the paths.
+	 * @throws IOException
+	 *             if a maze can't be read.
+	 */
+	private static List<Path> paths() throws IOException {
+
+		List<Path> paths = new ArrayList<Path>();
+
+		for (File maze : new File[] { new File("maze1.png"), new File("maze3.png") }) {
+
+			Search search = Dijkstra.newSearch("dijkstra", TestMazes.helper(maze).getGraph());
+
+			assertTrue(search.run());
+			paths.add(search.getPath());
+		}
+
+		paths.add(new Path(new int[] { 0, 3, 5, 5, 5, 2 }, new int[] { 4, 4, 4, 9, 7, 7 }));
+		paths.add(new Path(new int[] { 6 }, new int[] { 1 }));
+		paths.add(new Path(new int[0], new int[0]));
+
+		return paths;
+	}
+
+	/**
+	 *
+	 * Makes a temporary file that is deleted when the tests are done.
+	 *
+	 * @param suffix
+	 *            end of the name of the file.
+	 * @return the file.
+	 * @throws IOException
+	 *             if the file can't be made.
+	 */
+	private static File tempFile(String suffix) throws IOException {
+
+		File file = File.createTempFile("path-", suffix);
+
+		file.deleteOnExit();
+
+		return file;
+	}
+}
@@ -0,0 +1,84 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks that placing the nodes with the bands of the maze worked on in
+ * parallel, as --parallel places them, gives the same graph as placing them
+ * on one thread.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PlaceNodesTest extends TestCase {
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertSameGraph(maze);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertSameGraph(TestMazes.generate(style, 121, 81, 31));
+			assertSameGraph(TestMazes.walledOff(style, 31));
+		}
+	}
+
+	public void testNarrowMazes() throws IOException {
+
+		// fewer rows than bands, and bands of a single row
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertSameGraph(TestMazes.generate(style, 5, 161, 37));
+			assertSameGraph(TestMazes.generate(style, 161, 5, 37));
+			assertSameGraph(TestMazes.generate(style, 3, 3, 37));
+		}
+	}
+
+	public void testPlacingAgain() throws IOException {
+
+		File maze = new File("maze3.png");
+		Helper helper = TestMazes.quietHelper(maze);
+		Graph expected = TestMazes.helper(maze).getGraph();
+
+		// placing the nodes again starts over, whichever way it was done before
+		helper.placeNodes(true);
+		helper.placeNodes(false);
+		helper.placeNodes(true);
+		helper.setEntranceExit();
+
+		TestMazes.assertSameGraph("maze3 placed again", expected, helper.getGraph());
+	}
+
+	/**
+	 *
+	 * Places the nodes of a maze both ways and checks that the graphs, with
+	 * the entrance and exit linked, are the same node for node.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private void assertSameGraph(File maze) throws IOException {
+
+		Helper sequential = TestMazes.quietHelper(maze);
+		Helper parallel = TestMazes.quietHelper(maze);
+
+		sequential.placeNodes(false);
+		parallel.placeNodes(true);
+		sequential.setEntranceExit();
+		parallel.setEntranceExit();
+
+		TestMazes.assertSameGraph(maze.getName() + " in parallel", sequential.getGraph(), parallel.getGraph());
+	}
+}
@@ -0,0 +1,228 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks that reading a PNG file a row at a time finds the same walls as
+ * reading it whole through ImageIO, as Helper does.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class PngRowReaderTest extends TestCase {
+
+	private static final int BLACK = 0xFF000000;
+	private static final int WHITE = 0xFFFFFFFF;
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertSameWalls(maze, false);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertSameWalls(TestMazes.generate(style, 121, 81, 9), false);
+		}
+	}
+
+	public void testInterlaced() throws IOException {
+
+		BufferedImage image = copy(ImageIO.read(new File("maze2.png")), BufferedImage.TYPE_INT_RGB);
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		File file = File.createTempFile("interlaced", ".png");
+
+		file.deleteOnExit();
+		param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+
+		writer.dispose();
+
+		assertSameWalls(file, true);
+	}
+
+	public void testSixteenBitGray() throws IOException {
+
+		BufferedImage maze = ImageIO.read(new File("maze2.png"));
+		BufferedImage image = new BufferedImage(maze.getWidth(), maze.getHeight(), BufferedImage.TYPE_USHORT_GRAY);
+		WritableRaster raster = image.getRaster();
+
+		// every other wall is a shade too dark to be anything but black once
+		// it is scaled down to 8 bits
+		for (int y = 0; y < maze.getHeight(); y++) {
+			for (int x = 0; x < maze.getWidth(); x++) {
+
+				raster.setSample(x, y, 0, maze.getRGB(x, y) != BLACK ? 65535 : (x + y) % 2 * 3);
+			}
+		}
+
+		assertSameWalls(TestMazes.write(image, "gray16"), true);
+	}
+
+	public void testOtherColorTypes() throws IOException {
+
+		BufferedImage maze = ImageIO.read(new File("maze2.png"));
+		byte[] grays = { 0, (byte) 255 };
+		IndexColorModel twoColors = new IndexColorModel(1, 2, grays, grays, grays);
+
+		assertSameWalls(TestMazes.write(copy(maze, BufferedImage.TYPE_BYTE_GRAY), "gray8"), false);
+		assertSameWalls(TestMazes.write(copy(maze, BufferedImage.TYPE_INT_RGB), "rgb"), false);
+		assertSameWalls(TestMazes.write(copy(maze, BufferedImage.TYPE_BYTE_INDEXED), "palette"), false);
+
+		BufferedImage binary = new BufferedImage(maze.getWidth(), maze.getHeight(), BufferedImage.TYPE_BYTE_BINARY,
+				twoColors);
+
+		assertSameWalls(TestMazes.write(copyInto(maze, binary), "binary"), false);
+
+		// black that can be seen through isn't a wall
+		BufferedImage alpha = copy(maze, BufferedImage.TYPE_INT_ARGB);
+
+		for (int x = 0; x < maze.getWidth(); x += 3) {
+
+			alpha.setRGB(x, maze.getHeight() / 2, 0x80000000);
+			alpha.setRGB(x, maze.getHeight() / 3, 0x00000000);
+		}
+
+		assertSameWalls(TestMazes.write(alpha, "alpha"), false);
+	}
+
+	public void testNotAPng() {
+
+		try {
+
+			new PngRowReader(new ByteArrayInputStream("not a png at all".getBytes()));
+			fail("text was read as a PNG file");
+		} catch (IOException e) {
+
+			assertEquals("Not a PNG file.", e.getMessage());
+		}
+	}
+
+	public void testReadingPastTheLastRow() throws IOException {
+
+		File maze = new File("maze1.png");
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(maze))) {
+
+			PngRowReader reader = new PngRowReader(in);
+			byte[] open = new byte[reader.getWidth()];
+
+			for (int y = 0; y < reader.getHeight(); y++) {
+
+				reader.readRow(open);
+			}
+
+			reader.readRow(open);
+			fail("a row was read past the end of the image");
+		} catch (IOException e) {
+
+			assertEquals("All rows have been read.", e.getMessage());
+		}
+	}
+
+	/**
+	 *
+	 * Checks that every row of a file has the same walls both ways.
+	 *
+	 * @param file
+	 *            PNG file to read.
+	 * @param whole
+	 *            whether the reader has to read the file whole through
+	 *            ImageIO.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	private void assertSameWalls(File file, boolean whole) throws IOException {
+
+		BufferedImage image = ImageIO.read(file);
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+
+			PngRowReader reader = new PngRowReader(in);
+			byte[] open = new byte[reader.getWidth()];
+
+			assertEquals(file.getName(), image.getWidth(), reader.getWidth());
+			assertEquals(file.getName(), image.getHeight(), reader.getHeight());
+			assertEquals(file.getName(), whole, reader.isReadWhole());
+
+			for (int y = 0; y < image.getHeight(); y++) {
+
+				reader.readRow(open);
+
+				for (int x = 0; x < image.getWidth(); x++) {
+
+					if (open[x] != (image.getRGB(x, y) != BLACK ? 1 : 0)) {
+
+						fail(file.getName() + " (" + x + ", " + y + ") is " + (open[x] == 0 ? "a wall" : "open")
+								+ " read a row at a time");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Copies an image into one of another type.
+	 *
+	 * @param image
+	 *            image to copy.
+	 * @param type
+	 *            type of the copy, see BufferedImage.
+	 * @return the copy.
+	 */
+	private static BufferedImage copy(BufferedImage image, int type) {
+
+		return copyInto(image, new BufferedImage(image.getWidth(), image.getHeight(), type));
+	}
+
+	/**
+	 *
+	 * Copies every pixel of an image into another of the same size, walls as
+	 * black and everything else as white.
+	 *
+	 * @param image
+	 *            image to copy.
+	 * @param copy
+	 *            image to copy into.
+	 * @return the copy.
+	 */
+	private static BufferedImage copyInto(BufferedImage image, BufferedImage copy) {
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+
+				copy.setRGB(x, y, image.getRGB(x, y) == BLACK ? BLACK : WHITE);
+			}
+		}
+
+		return copy;
+	}
+}
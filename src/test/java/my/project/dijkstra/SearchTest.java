@@ -0,0 +1,338 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks every search, with either frontier and with and without the graph
+ * reduced, against a breadth-first search over the pixels of the maze.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class SearchTest extends TestCase {
+
+	private static final String[] MODES = { "dijkstra", "astar", "bidirectional", "delta" };
+
+	private static final int[] ENTRANCE = { 0 };
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertEverySearch(maze);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+			for (long seed = 1; seed <= 3; seed++) {
+
+				assertEverySearch(TestMazes.generate(style, 121, 81, seed));
+			}
+		}
+	}
+
+	public void testUnreachableExit() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			File maze = TestMazes.walledOff(style, 7);
+
+			assertEquals(-1, MazeBfs.of(maze).shortestPath());
+			assertEverySearch(maze);
+		}
+	}
+
+	public void testSeveralEntrances() throws IOException {
+
+		int[][] entranceSets = { { 0 }, { 1 }, { 0, 2 }, { 1, 3 }, { 2, 3, 4 }, { 0, 1, 5 } };
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			File maze = TestMazes.withOpenings(TestMazes.generate(style, 121, 81, 11), 3);
+			MazeBfs bfs = MazeBfs.of(maze);
+			Helper helper = TestMazes.helper(maze);
+			ArrayList<ArrayList<Node>> openings = helper.getOpenings();
+
+			assertEquals(bfs.getOpenings().size(), openings.size());
+
+			for (int[] entrances : entranceSets) {
+
+				assertEverySearch(maze.getName() + " from " + Arrays.toString(entrances), bfs, helper,
+						openings, entrances);
+			}
+		}
+	}
+
+	public void testSeveralEntrancesOfBundledMaze() throws IOException {
+
+		File maze = TestMazes.withOpenings(new File("maze3.png"), 2);
+		MazeBfs bfs = MazeBfs.of(maze);
+		Helper helper = TestMazes.helper(maze);
+
+		assertEverySearch("maze3 from [0, 3]", bfs, helper, helper.getOpenings(), new int[] { 0, 3 });
+	}
+
+	public void testWideOpenings() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			File maze = TestMazes.widened(TestMazes.generate(style, 121, 81, 13));
+			MazeBfs bfs = MazeBfs.of(maze);
+			Helper helper = TestMazes.helper(maze);
+
+			// a gap of several pixels is still only one opening
+			assertEquals(2, bfs.getOpenings().size());
+			assertEquals(2, helper.getOpenings().size());
+
+			assertEverySearch(maze);
+			assertEverySearch(maze.getName() + " from [0]", bfs, helper, helper.getOpenings(), new int[] { 0 });
+			assertEverySearch(maze.getName() + " from [1]", bfs, helper, helper.getOpenings(), new int[] { 1 });
+		}
+	}
+
+	public void testDeltaSteppingInChunks() throws IOException {
+
+		for (File maze : new File[] { new File("maze3.png"), TestMazes.generate(MazeGenerator.Style.OPEN_ROOM, 121,
+				81, 23) }) {
+
+			MazeBfs bfs = MazeBfs.of(maze);
+			Graph graph = TestMazes.helper(maze).getGraph();
+
+			// buckets split into many small pieces, which the mazes here are
+			// too small for otherwise
+			for (int delta : new int[] { 1, 32, DeltaSteppingSearch.DEFAULT_DELTA }) {
+
+				String what = maze.getName() + " delta " + delta + " in chunks";
+				DeltaSteppingSearch search = new DeltaSteppingSearch(graph, delta);
+
+				search.setChunkSize(8);
+
+				assertTrue(what, search.run());
+				assertEquals(what, bfs.shortestPath(), search.getPathLength());
+				assertEquals(what, bfs.shortestPath(), search.getPath().getLength());
+				bfs.assertWalkable(search.getPath(), ENTRANCE);
+			}
+		}
+	}
+
+	public void testSharedJumps() throws IOException {
+
+		File[] mazes = { new File("maze3.png"), TestMazes.generate(MazeGenerator.Style.BRAIDED, 121, 81, 17),
+				TestMazes.generate(MazeGenerator.Style.OPEN_ROOM, 121, 81, 17) };
+
+		for (File maze : mazes) {
+
+			MazeBfs bfs = MazeBfs.of(maze);
+			int[] distance = bfs.distancesFromEntrance();
+			Helper helper = TestMazes.quietHelper(maze);
+			Node entrance = helper.findEntranceExit().get(0);
+			Random random = new Random(17);
+
+			// one set of jumps for searches to many different pixels, each of
+			// which stops the jumps that pass it
+			JumpTables jumps = new JumpTables(helper.getGrid(), helper.getCols());
+
+			for (int k = 0; k < 300; k++) {
+
+				int row = random.nextInt(helper.getRows());
+				int col = random.nextInt(helper.getCols());
+
+				if (!bfs.isOpen(row, col)) {
+
+					continue;
+				}
+
+				String what = maze.getName() + " jps to (" + row + ", " + col + ")";
+				JumpPointSearch jps = new JumpPointSearch(jumps, entrance, new Node(-1, row, col));
+				int expected = distance[row * helper.getCols() + col];
+
+				assertEquals(what, expected != -1, jps.run());
+
+				if (expected != -1) {
+
+					assertEquals(what, expected, jps.getPathLength());
+				}
+			}
+		}
+	}
+
+	public void testTooFewOpenings() throws IOException {
+
+		BufferedImage image = new BufferedImage(5, 5, BufferedImage.TYPE_INT_RGB);
+
+		for (int x = 1; x < 4; x++) {
+
+			image.setRGB(x, 2, 0xFFFFFFFF);
+		}
+
+		assertEquals(0, TestMazes.helper(TestMazes.write(image, "closed")).getOpenings().size());
+
+		image.setRGB(0, 2, 0xFFFFFFFF);
+
+		Helper helper = TestMazes.helper(TestMazes.write(image, "one-opening"));
+
+		assertEquals(1, helper.getOpenings().size());
+		assertTrue(helper.findEntranceExit().isEmpty());
+	}
+
+	/**
+	 *
+	 * Checks every search from the entrance to the exit of a maze, including
+	 * Jump Point Search on its grid, and that labelling the parts of the maze
+	 * tells whether there is a path at all.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read.
+	 */
+	private void assertEverySearch(File maze) throws IOException {
+
+		MazeBfs bfs = MazeBfs.of(maze);
+		int expected = bfs.shortestPath();
+		Helper helper = TestMazes.helper(maze);
+		Graph graph = helper.getGraph();
+
+		assertEquals(maze.getName(), expected != -1, new Components(graph).connected(graph.getEntrance(),
+				graph.getExit()));
+
+		assertEverySearch(maze.getName(), bfs, graph, expected);
+
+		ArrayList<Node> ends = helper.findEntranceExit();
+		JumpPointSearch jps = new JumpPointSearch(helper.getGrid(), helper.getCols(), ends.get(0), ends.get(1));
+
+		assertEquals(maze.getName() + " jps", expected != -1, jps.run());
+
+		if (expected != -1) {
+
+			assertEquals(maze.getName() + " jps", expected, jps.getPathLength());
+			bfs.assertWalkable(Path.fromExitBack(jps.getPathRows(), jps.getPathCols()), ENTRANCE);
+		}
+	}
+
+	/**
+	 *
+	 * Checks every search from the entrance to the exit of a graph, on the
+	 * graph itself and on its contracted graph.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param bfs
+	 *            breadth-first search of the maze.
+	 * @param graph
+	 *            graph of the maze with its entrance and exit set.
+	 * @param expected
+	 *            length of the shortest path, -1 if there is none.
+	 */
+	static void assertEverySearch(String name, MazeBfs bfs, Graph graph, int expected) {
+
+		for (boolean reduce : new boolean[] { false, true }) {
+
+			ContractedGraph contracted = reduce ? new ContractedGraph(graph) : null;
+			Graph searched = reduce ? contracted.getGraph() : graph;
+
+			for (String mode : MODES) {
+				for (FrontierType frontier : FrontierType.values()) {
+
+					// delta-stepping has no frontier to pick, so its second run
+					// takes the smallest delta instead
+					int delta = frontier == FrontierType.HEAP ? DeltaSteppingSearch.DEFAULT_DELTA : 1;
+					String what = name + " " + mode + " " + frontier + " delta " + delta + (reduce ? " reduced" : "");
+					Search search = Dijkstra.newSearch(mode, searched, delta, frontier);
+
+					assertEquals(what, expected != -1, search.run());
+
+					if (expected == -1) {
+
+						continue;
+					}
+
+					Path path = reduce ? contracted.expandPath(search.getPrevNode()) : search.getPath();
+
+					assertEquals(what, expected, search.getPathLength());
+					assertEquals(what, expected, path.getLength());
+					bfs.assertWalkable(path, ENTRANCE);
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * Checks every search from some of the openings of a maze to the others.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param bfs
+	 *            breadth-first search of the maze.
+	 * @param helper
+	 *            helper that has linked every opening of the maze.
+	 * @param openings
+	 *            every opening, see Helper.getOpenings().
+	 * @param entrances
+	 *            indexes of the openings to start from.
+	 */
+	private void assertEverySearch(String name, MazeBfs bfs, Helper helper, ArrayList<ArrayList<Node>> openings,
+			int[] entrances) {
+
+		Graph graph = helper.getGraph();
+		int expected = bfs.shortestPath(entrances);
+		ArrayList<Integer> from = new ArrayList<Integer>();
+		ArrayList<Integer> to = new ArrayList<Integer>();
+
+		for (int k = 0; k < openings.size(); k++) {
+
+			int[] pixels = bfs.getOpenings().get(k);
+
+			assertEquals(name, pixels.length, openings.get(k).size());
+			assertEquals(name, bfs.rowOf(pixels[0]), openings.get(k).get(0).getRow());
+			assertEquals(name, bfs.colOf(pixels[0]), openings.get(k).get(0).getCol());
+
+			boolean entrance = false;
+
+			for (int e : entrances) {
+
+				entrance |= e == k;
+			}
+
+			for (Node n : openings.get(k)) {
+
+				assertEquals(name, k, bfs.openingAt(n.getRow(), n.getCol()));
+				(entrance ? from : to).add(n.getId());
+			}
+		}
+
+		Endpoint start = Endpoint.ofNodes(from.stream().mapToInt(Integer::intValue).toArray());
+		Endpoint end = Endpoint.ofNodes(to.stream().mapToInt(Integer::intValue).toArray());
+
+		assertEquals(name, expected != -1, new Components(graph).connected(start, end));
+
+		for (String mode : MODES) {
+			for (FrontierType frontier : FrontierType.values()) {
+
+				String what = name + " " + mode + " " + frontier;
+				Search search = Dijkstra.newSearch(mode, graph, DeltaSteppingSearch.DEFAULT_DELTA, frontier, start,
+						end);
+
+				assertEquals(what, expected != -1, search.run());
+
+				if (expected != -1) {
+
+					assertEquals(what, expected, search.getPathLength());
+					assertEquals(what, expected, search.getPath().getLength());
+					bfs.assertWalkable(search.getPath(), entrances);
+				}
+			}
+		}
+	}
+}
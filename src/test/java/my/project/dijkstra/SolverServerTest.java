@@ -0,0 +1,207 @@
+package my.project.dijkstra;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks the replies of the server to every kind of request, as --serve
+ * answers them, without going through a socket.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class SolverServerTest extends TestCase {
+
+	private static final String[] MODES = { "dijkstra", "astar", "bidirectional", "jps" };
+
+	public void testLoad() throws IOException {
+
+		Graph graph = TestMazes.helper(new File("maze2.png")).getGraph();
+		SolverServer server = server("dijkstra");
+
+		assertFalse(server.isLoaded("maze2.png"));
+		assertEquals("OK " + graph.getNumNodes() + " " + graph.getNumEdges() / 2, server.reply("LOAD maze2.png"));
+		assertTrue(server.isLoaded("maze2.png"));
+	}
+
+	public void testSolve() throws IOException {
+
+		for (String mode : MODES) {
+
+			SolverServer server = server(mode);
+
+			for (File maze : TestMazes.BUNDLED) {
+
+				String reply = server.reply("SOLVE " + maze.getPath());
+
+				assertTrue(mode + " " + reply, reply.startsWith("OK " + MazeBfs.of(maze).shortestPath() + " "));
+
+				// asked again, the answer is the one kept
+				assertEquals(mode, reply, server.reply("solve " + maze.getPath()));
+			}
+
+			assertEquals(mode, "NONE", server.reply("SOLVE " + TestMazes.walledOff(MazeGenerator.Style.BRAIDED, 3)));
+		}
+	}
+
+	public void testSolveBetweenPixels() throws IOException {
+
+		File maze = new File("maze3.png");
+		MazeBfs bfs = MazeBfs.of(maze);
+		int[] distance = bfs.distancesFromEntrance();
+		Helper helper = TestMazes.quietHelper(maze);
+		Node entrance = helper.findEntranceExit().get(0);
+
+		for (String mode : MODES) {
+
+			SolverServer server = server(mode);
+			Random random = new Random(29);
+
+			for (int k = 0; k < 100; k++) {
+
+				int row = random.nextInt(helper.getRows());
+				int col = random.nextInt(helper.getCols());
+
+				if (!bfs.isOpen(row, col)) {
+
+					continue;
+				}
+
+				String request = "SOLVE maze3.png " + entrance.getRow() + " " + entrance.getCol() + " " + row + " "
+						+ col;
+				String reply = server.reply(request);
+				int expected = distance[row * helper.getCols() + col];
+
+				if (expected == -1) {
+
+					assertEquals(mode + " " + request, "NONE", reply);
+				}
+
+				else {
+
+					assertTrue(mode + " " + request + "- " + reply, reply.startsWith("OK " + expected + " "));
+				}
+			}
+		}
+	}
+
+	public void testPath() throws IOException {
+
+		File maze = new File("maze2.png");
+		MazeBfs bfs = MazeBfs.of(maze);
+
+		for (String mode : MODES) {
+
+			String[] words = server(mode).reply("PATH maze2.png").split(" ");
+
+			assertEquals(mode, "OK", words[0]);
+			assertEquals(mode, bfs.shortestPath(), Integer.parseInt(words[1]));
+
+			int[] rows = new int[words.length - 2];
+			int[] cols = new int[words.length - 2];
+			int length = 0;
+
+			for (int p = 0; p < rows.length; p++) {
+
+				String[] point = words[p + 2].split(",");
+
+				rows[p] = Integer.parseInt(point[0]);
+				cols[p] = Integer.parseInt(point[1]);
+
+				if (p > 0) {
+
+					// the points are where the path turns, joined by straight
+					// lines
+					assertTrue(mode, rows[p] == rows[p - 1] || cols[p] == cols[p - 1]);
+					length += Math.abs(rows[p] - rows[p - 1]) + Math.abs(cols[p] - cols[p - 1]);
+				}
+			}
+
+			assertEquals(mode, bfs.shortestPath(), length);
+		}
+	}
+
+	public void testUnload() {
+
+		SolverServer server = server("dijkstra");
+
+		server.reply("LOAD maze1.png");
+
+		assertEquals("OK", server.reply("UNLOAD maze1.png"));
+		assertFalse(server.isLoaded("maze1.png"));
+
+		// a maze that was never loaded can be unloaded too
+		assertEquals("OK", server.reply("UNLOAD maze2.png"));
+	}
+
+	public void testBadRequests() {
+
+		SolverServer server = server("dijkstra");
+
+		assertEquals("ERR No maze given", server.reply("SOLVE"));
+		assertEquals("ERR Unknown command- JUMP", server.reply("JUMP maze1.png"));
+		assertEquals("ERR Expected SOLVE maze [fromRow fromCol toRow toCol]", server.reply("SOLVE maze1.png 1 2"));
+		assertEquals("ERR Expected a whole number for a pixel, not x", server.reply("PATH maze1.png 1 2 3 x"));
+		assertEquals("ERR (0, 0) is not an open pixel of the maze", server.reply("SOLVE maze1.png 0 0 1 1"));
+		assertEquals("ERR (-4, 1) is not an open pixel of the maze", server.reply("SOLVE maze1.png -4 1 1 1"));
+		assertTrue(server.reply("LOAD no-such-maze.png").startsWith("ERR Couldn't read no-such-maze.png"));
+		assertFalse(server.isLoaded("no-such-maze.png"));
+	}
+
+	public void testModeRejected() {
+
+		try {
+
+			new SolverServer(0, "delta", SolverMetrics.NONE, 4, Long.MAX_VALUE);
+			fail("delta was taken");
+		} catch (IllegalArgumentException e) {
+
+			// expected
+		}
+	}
+
+	public void testEvictByCount() {
+
+		SolverServer server = new SolverServer(0, "dijkstra", SolverMetrics.NONE, 2, Long.MAX_VALUE);
+
+		server.reply("LOAD maze1.png");
+		server.reply("LOAD maze2.png");
+		server.reply("LOAD maze1.png");
+		server.reply("LOAD maze3.png");
+
+		// maze2 was the least recently used
+		assertTrue(server.isLoaded("maze1.png"));
+		assertFalse(server.isLoaded("maze2.png"));
+		assertTrue(server.isLoaded("maze3.png"));
+	}
+
+	public void testEvictByMemory() {
+
+		SolverServer server = new SolverServer(0, "jps", SolverMetrics.NONE, 10, 1);
+
+		server.reply("LOAD maze1.png");
+
+		// the maze being queried stays however much it takes
+		assertTrue(server.isLoaded("maze1.png"));
+		assertTrue(server.reply("SOLVE maze2.png").startsWith("OK 1438 "));
+		assertFalse(server.isLoaded("maze1.png"));
+		assertTrue(server.isLoaded("maze2.png"));
+	}
+
+	/**
+	 *
+	 * Makes a server that keeps every maze it loads.
+	 *
+	 * @param mode
+	 *            search the server answers with.
+	 * @return the server, not listening.
+	 */
+	private static SolverServer server(String mode) {
+
+		return new SolverServer(0, mode, SolverMetrics.NONE, 10, Long.MAX_VALUE);
+	}
+}
@@ -0,0 +1,159 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * Checks that every search finds the shortest path through the graphs built
+ * row by row, as --stream builds them.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+public class StreamingGraphBuilderTest extends TestCase {
+
+	private File directory;
+	private GraphCache cache;
+
+	@Override
+	protected void setUp() throws IOException {
+
+		directory = Files.createTempDirectory("dijkstra-cache").toFile();
+		cache = new GraphCache(directory);
+	}
+
+	@Override
+	protected void tearDown() {
+
+		GraphCacheTest.delete(directory);
+	}
+
+	public void testBundledMazes() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertEverySearch(maze);
+		}
+	}
+
+	public void testGeneratedMazes() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+			for (long seed = 1; seed <= 3; seed++) {
+
+				assertEverySearch(TestMazes.generate(style, 121, 81, seed));
+			}
+		}
+	}
+
+	public void testUnreachableExit() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			assertEverySearch(TestMazes.walledOff(style, 7));
+		}
+	}
+
+	public void testSameOpeningsAsHelper() throws IOException {
+
+		for (File maze : TestMazes.BUNDLED) {
+
+			assertSameOpenings(maze);
+		}
+	}
+
+	public void testWideOpenings() throws IOException {
+
+		for (MazeGenerator.Style style : MazeGenerator.Style.values()) {
+
+			File maze = TestMazes.widened(TestMazes.generate(style, 121, 81, 13));
+
+			assertSameOpenings(maze);
+			assertEverySearch(maze);
+		}
+	}
+
+	public void testMazeWithoutExit() throws IOException {
+
+		File maze = TestMazes.write(new BufferedImage(5, 5, BufferedImage.TYPE_INT_RGB), "walls");
+
+		try {
+
+			build(maze);
+			fail("a maze of nothing but walls has no entrance");
+		} catch (IOException e) {
+
+			assertEquals("Maze has no entrance and exit.", e.getMessage());
+		}
+	}
+
+	/**
+	 *
+	 * Builds the graph of a maze row by row and checks every search on it.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read or its graph written.
+	 */
+	private void assertEverySearch(File maze) throws IOException {
+
+		MazeBfs bfs = MazeBfs.of(maze);
+		int expected = bfs.shortestPath();
+		Graph graph = build(maze);
+
+		assertEquals(maze.getName(), expected != -1, new Components(graph).connected(graph.getEntrance(),
+				graph.getExit()));
+
+		SearchTest.assertEverySearch(maze.getName() + " streamed", bfs, graph, expected);
+	}
+
+	/**
+	 *
+	 * Checks that the graph built row by row has its entrance and exit on the
+	 * same pixels as the graph Helper builds.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @throws IOException
+	 *             if the maze can't be read or its graph written.
+	 */
+	private void assertSameOpenings(File maze) throws IOException {
+
+		Graph streamed = build(maze);
+		Graph placed = TestMazes.helper(maze).getGraph();
+
+		assertEquals(maze.getName(), placed.getRow(placed.getEntrance()), streamed.getRow(streamed.getEntrance()));
+		assertEquals(maze.getName(), placed.getCol(placed.getEntrance()), streamed.getCol(streamed.getEntrance()));
+		assertEquals(maze.getName(), placed.getRow(placed.getExit()), streamed.getRow(streamed.getExit()));
+		assertEquals(maze.getName(), placed.getCol(placed.getExit()), streamed.getCol(streamed.getExit()));
+	}
+
+	/**
+	 *
+	 * Builds the graph of a maze row by row into the cache and loads it.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return the graph.
+	 * @throws IOException
+	 *             if the maze can't be read or its graph written.
+	 */
+	private Graph build(File maze) throws IOException {
+
+		String hash = GraphCache.hash(maze);
+
+		new StreamingGraphBuilder(cache).build(maze, hash);
+
+		Graph graph = cache.load(hash);
+
+		assertNotNull(maze.getName(), graph);
+
+		return graph;
+	}
+}
@@ -0,0 +1,286 @@
+package my.project.dijkstra;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.Assert;
+
+/**
+ *
+ * Small mazes made for the tests, written to temporary files that are
+ * deleted when the tests are done, and the checks the tests share about
+ * their graphs.
+ *
+ * @author Aleksandr Popov
+ *
+ */
+final class TestMazes {
+
+	private static final int BLACK = 0xFF000000;
+	private static final int WHITE = 0xFFFFFFFF;
+
+	/**
+	 * The mazes that come with the project, in the directory the tests are
+	 * run from.
+	 */
+	static final File[] BUNDLED = { new File("maze1.png"), new File("maze2.png"), new File("maze3.png"),
+			new File("maze4.png"), new File("maze5.png") };
+
+	private TestMazes() {
+
+	}
+
+	/**
+	 *
+	 * Makes a maze with MazeGenerator. Its entrance is on the top edge and its
+	 * exit on the bottom edge.
+	 *
+	 * @param style
+	 *            kind of maze.
+	 * @param width
+	 *            width of the maze in pixels.
+	 * @param height
+	 *            height of the maze in pixels.
+	 * @param seed
+	 *            seed of the random choices.
+	 * @return PNG file of the maze.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	static File generate(MazeGenerator.Style style, int width, int height, long seed) throws IOException {
+
+		File file = tempFile(style.name().toLowerCase() + "-" + seed);
+
+		new MazeGenerator(style, width, height, seed).write(file);
+
+		return file;
+	}
+
+	/**
+	 *
+	 * Makes a maze whose exit can't be reached, by walling off its top half
+	 * from its bottom half.
+	 *
+	 * @param style
+	 *            kind of maze.
+	 * @param seed
+	 *            seed of the random choices.
+	 * @return PNG file of the maze.
+	 * @throws IOException
+	 *             if the file can't be read or written.
+	 */
+	static File walledOff(MazeGenerator.Style style, long seed) throws IOException {
+
+		BufferedImage image = ImageIO.read(generate(style, 81, 61, seed));
+
+		for (int x = 0; x < image.getWidth(); x++) {
+
+			image.setRGB(x, image.getHeight() / 2, BLACK);
+		}
+
+		return write(image, "walled-" + style.name().toLowerCase());
+	}
+
+	/**
+	 *
+	 * Copies a maze with more openings on its left and right edges, each next
+	 * to a pixel that can be walked on.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @param perSide
+	 *            openings to add on each of the two edges.
+	 * @return PNG file of the copy.
+	 * @throws IOException
+	 *             if a file can't be read or written.
+	 */
+	static File withOpenings(File maze, int perSide) throws IOException {
+
+		BufferedImage image = ImageIO.read(maze);
+		int width = image.getWidth();
+		int height = image.getHeight();
+
+		for (int k = 1; k <= perSide; k++) {
+
+			// the pixel nearest to evenly spread places that has a corridor
+			// behind it
+			for (int y = k * height / (perSide + 1); y > 0; y--) {
+
+				if (image.getRGB(1, y) != BLACK) {
+
+					image.setRGB(0, y, WHITE);
+					break;
+				}
+			}
+
+			for (int y = height - 1 - k * height / (perSide + 1); y < height - 1; y++) {
+
+				if (image.getRGB(width - 2, y) != BLACK) {
+
+					image.setRGB(width - 1, y, WHITE);
+					break;
+				}
+			}
+		}
+
+		return write(image, "openings-" + maze.getName().replace(".png", ""));
+	}
+
+	/**
+	 *
+	 * Copies a maze made by MazeGenerator with its entrance three pixels wide
+	 * and running around the top left corner, and its exit running along the
+	 * bottom edge and around the bottom right corner.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return PNG file of the copy.
+	 * @throws IOException
+	 *             if a file can't be read or written.
+	 */
+	static File widened(File maze) throws IOException {
+
+		BufferedImage image = ImageIO.read(maze);
+		int width = image.getWidth();
+		int height = image.getHeight();
+
+		image.setRGB(0, 0, WHITE);
+		image.setRGB(2, 0, WHITE);
+		image.setRGB(3, 0, WHITE);
+
+		int exit = width - 1;
+
+		while (image.getRGB(exit, height - 1) == BLACK) {
+
+			exit--;
+		}
+
+		for (int x = exit; x < width; x++) {
+
+			image.setRGB(x, height - 1, WHITE);
+		}
+
+		image.setRGB(width - 1, height - 2, WHITE);
+
+		return write(image, "wide-" + maze.getName().replace(".png", ""));
+	}
+
+	/**
+	 *
+	 * Makes a helper that has placed the nodes of a maze and linked its
+	 * openings, and prints nothing and draws no images.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return the helper.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	static Helper helper(File maze) throws IOException {
+
+		Helper helper = quietHelper(maze);
+
+		helper.placeNodes(false);
+		helper.setEntranceExit();
+
+		return helper;
+	}
+
+	/**
+	 *
+	 * Makes a helper for a maze that prints nothing and draws no images.
+	 *
+	 * @param maze
+	 *            PNG file of the maze.
+	 * @return the helper.
+	 * @throws IOException
+	 *             if the file can't be read.
+	 */
+	static Helper quietHelper(File maze) throws IOException {
+
+		Helper helper = new Helper(maze.getPath());
+
+		helper.setConsole(Helper.QUIET);
+		helper.setImageOutput(ImageOutput.NONE);
+
+		return helper;
+	}
+
+	/**
+	 *
+	 * Checks that two graphs have the same nodes and corridors in the same
+	 * order.
+	 *
+	 * @param name
+	 *            name of the maze for the failure messages.
+	 * @param expected
+	 *            graph that is right.
+	 * @param actual
+	 *            graph to check.
+	 */
+	static void assertSameGraph(String name, Graph expected, Graph actual) {
+
+		Assert.assertEquals(name, expected.getNumNodes(), actual.getNumNodes());
+		Assert.assertEquals(name, expected.getNumEdges(), actual.getNumEdges());
+		Assert.assertEquals(name, expected.getEntrance(), actual.getEntrance());
+		Assert.assertEquals(name, expected.getExit(), actual.getExit());
+
+		for (int i = 0; i < expected.getNumNodes(); i++) {
+
+			Assert.assertEquals(name, expected.getRow(i), actual.getRow(i));
+			Assert.assertEquals(name, expected.getCol(i), actual.getCol(i));
+			Assert.assertEquals(name, expected.getFirstEdge(i), actual.getFirstEdge(i));
+			Assert.assertEquals(name, expected.getLastEdge(i), actual.getLastEdge(i));
+		}
+
+		for (int e = 0; e < expected.getNumEdges(); e++) {
+
+			Assert.assertEquals(name, expected.getTarget(e), actual.getTarget(e));
+			Assert.assertEquals(name, expected.getWeight(e), actual.getWeight(e));
+		}
+	}
+
+	/**
+	 *
+	 * Writes an image to a temporary PNG file.
+	 *
+	 * @param image
+	 *            image to write.
+	 * @param name
+	 *            start of the name of the file.
+	 * @return the file.
+	 * @throws IOException
+	 *             if the file can't be written.
+	 */
+	static File write(BufferedImage image, String name) throws IOException {
+
+		File file = tempFile(name);
+
+		ImageIO.write(image, "png", file);
+
+		return file;
+	}
+
+	/**
+	 *
+	 * Makes a temporary file that is deleted when the tests are done.
+	 *
+	 * @param name
+	 *            start of the name of the file, which tells the failure
+	 *            messages which maze it is.
+	 * @return the file.
+	 * @throws IOException
+	 *             if the file can't be made.
+	 */
+	private static File tempFile(String name) throws IOException {
+
+		File file = File.createTempFile(name + "-", ".png");
+
+		file.deleteOnExit();
+
+		return file;
+	}
+}